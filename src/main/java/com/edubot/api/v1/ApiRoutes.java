@@ -28,7 +28,16 @@ public final class ApiRoutes {
     // ========================= LECTURE ROUTES =========================
     public static final String LECTURE_CREATE = LECTURES;
     public static final String LECTURE_GET_BY_ID = LECTURES + "/{lectureId}";
+    public static final String LECTURE_SUMMARIES = LECTURES + "/summaries";
+    public static final String LECTURE_BODY = LECTURES + "/{lectureId}/body";
     public static final String LECTURE_APPLY_DEFAULT_RULES = LECTURES + "/{lectureId}/apply-default-rules";
+    public static final String LECTURE_LIVE_START = LECTURES + "/{lectureId}/live/start";
+    public static final String LECTURE_LIVE_STOP = LECTURES + "/{lectureId}/live/stop";
+    public static final String LECTURE_LIVE_METRICS = LECTURES + "/live/metrics";
+    public static final String LECTURE_REPLAY = LECTURES + "/{lectureId}/replay";
+    public static final String LECTURE_RECORDING = LECTURES + "/{lectureId}/recording";
+    public static final String LECTURE_RECORDING_SEEK = LECTURES + "/{lectureId}/recording/seek";
+    public static final String LECTURE_RECORDING_MEDIA = LECTURES + "/{lectureId}/recording/media";
 
     // ========================= RULES ROUTES =========================
     public static final String RULES_GET_DEFAULT = RULES + "/default";
@@ -37,8 +46,18 @@ public final class ApiRoutes {
     // ========================= AI ROUTES =========================
     public static final String AI_SUMMARIZE = AI + "/summarize";
     public static final String AI_GENERATE_CONTENT = AI + "/generate-content";
+    public static final String AI_GENERATE_CONTENT_STREAM = AI + "/generate-content/stream";
+    public static final String AI_CLASSROOM_ANSWER_STREAM = AI + "/classroom/{lectureId}/answer/stream";
     public static final String AI_GENERATE_QUIZ = AI + "/generate-quiz";
     public static final String AI_GENERATE_INSIGHTS = AI + "/generate-insights";
+    public static final String AI_PDF_EXTRACT = AI + "/pdf/extract";
+    public static final String AI_PDF_METADATA = AI + "/pdf/metadata";
+    public static final String AI_PDF_SEARCH = AI + "/pdf/search";
+    public static final String AI_PDF_PROGRESS = AI + "/pdf/progress";
+    public static final String AI_METRICS = AI + "/metrics";
+
+    // ========================= WEBSOCKET ROUTES =========================
+    public static final String WS_LIVE_LECTURE = "/ws/lectures/*/live";
 
     private ApiRoutes() {
         // Prevent instantiation
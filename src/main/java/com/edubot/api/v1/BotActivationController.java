@@ -3,18 +3,30 @@ package com.edubot.controller.ai;
 import com.edubot.dto.BotActivationRequestDTO;
 import com.edubot.dto.BotActivationResponseDTO;
 import com.edubot.service.BotActivationService;
+import com.edubot.service.LectureService;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import static com.edubot.config.ApiRoutes.*;
 
 /**
  * BotActivationController manages AI and PDF orchestration tasks.
+ * Handlers return {@link CompletableFuture}s so servlet threads are released
+ * while the Python AI service is working.
  */
 @RestController
 @RequestMapping(AI)
@@ -22,49 +34,123 @@ public class BotActivationController {
 
     private static final Logger logger = LoggerFactory.getLogger(BotActivationController.class);
     private final BotActivationService botActivationService;
+    private final LectureService lectureService;
+
+    @Value("${ai.stream.emitter-timeout-ms:180000}")
+    private long emitterTimeoutMillis;
 
     @Autowired
-    public BotActivationController(BotActivationService botActivationService) {
+    public BotActivationController(BotActivationService botActivationService, LectureService lectureService) {
         this.botActivationService = botActivationService;
+        this.lectureService = lectureService;
     }
 
     // ✅ Summarize Text
     @PostMapping(AI_SUMMARIZE)
-    public ResponseEntity<BotActivationResponseDTO> summarizeText(@Valid @RequestBody BotActivationRequestDTO request) {
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> summarizeText(@Valid @RequestBody BotActivationRequestDTO request) {
         logger.info("Summarizing text.");
-        String result = botActivationService.summarizeText(request.getInputText());
-        return ResponseEntity.ok(new BotActivationResponseDTO(result));
+        return botActivationService.summarizeTextAsync(request.getInputText())
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
     }
 
     // ✅ Generate Content
     @PostMapping(AI_GENERATE_CONTENT)
-    public ResponseEntity<BotActivationResponseDTO> generateContent(@Valid @RequestBody BotActivationRequestDTO request) {
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> generateContent(@Valid @RequestBody BotActivationRequestDTO request) {
         logger.info("Generating content.");
-        String result = botActivationService.generateContent(request.getInputText());
-        return ResponseEntity.ok(new BotActivationResponseDTO(result));
+        return botActivationService.generateContentAsync(request.getInputText())
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
+    }
+
+    // ✅ Stream Generated Content (Server-Sent Events)
+    @PostMapping(value = AI_GENERATE_CONTENT_STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContent(@Valid @RequestBody BotActivationRequestDTO request) {
+        logger.info("Streaming generated content.");
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        relay(botActivationService.streamContent(request.getInputText(), chunk -> sendChunk(emitter, chunk)), emitter);
+        return emitter;
+    }
+
+    // ✅ Stream Classroom Answer (Server-Sent Events)
+    @PostMapping(value = AI_CLASSROOM_ANSWER_STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamClassroomAnswer(@PathVariable Long lectureId, @RequestParam String question) {
+        logger.info("Streaming classroom answer for lecture ID: {}", lectureId);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        relay(lectureService.streamClassroomQuestion(lectureId, question, chunk -> sendChunk(emitter, chunk)), emitter);
+        return emitter;
     }
 
     // ✅ Generate Quiz
     @GetMapping(AI_GENERATE_QUIZ)
-    public ResponseEntity<BotActivationResponseDTO> generateQuiz(@RequestParam String subject, @RequestParam String topic) {
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> generateQuiz(@RequestParam String subject, @RequestParam String topic) {
         logger.info("Generating quiz for subject: {} and topic: {}", subject, topic);
-        String result = botActivationService.generateQuiz(String.format("%s - %s", subject, topic));
-        return ResponseEntity.ok(new BotActivationResponseDTO(result));
+        return botActivationService.generateQuizAsync(String.format("%s - %s", subject, topic))
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
     }
 
     // ✅ Extract PDF Text
     @PostMapping(AI_PDF_EXTRACT)
-    public ResponseEntity<BotActivationResponseDTO> extractPdfText(@RequestParam String filePath) {
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> extractPdfText(@RequestParam String filePath) {
         logger.info("Extracting text from PDF: {}", filePath);
-        String result = botActivationService.extractTextFromPDF(filePath);
-        return ResponseEntity.ok(new BotActivationResponseDTO(result));
+        return botActivationService.extractTextAsync(filePath)
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
     }
 
     // ✅ Get PDF Metadata
     @GetMapping(AI_PDF_METADATA)
-    public ResponseEntity<BotActivationResponseDTO> getPdfMetadata(@RequestParam String filePath) {
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> getPdfMetadata(@RequestParam String filePath) {
         logger.info("Fetching PDF metadata: {}", filePath);
-        String result = botActivationService.getPDFMetadata(filePath);
-        return ResponseEntity.ok(new BotActivationResponseDTO(result));
+        return botActivationService.getMetadataAsync(filePath)
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
+    }
+
+    // ✅ Search PDF Keywords
+    @GetMapping(AI_PDF_SEARCH)
+    public CompletableFuture<ResponseEntity<BotActivationResponseDTO>> searchPdfKeywords(
+            @RequestParam String filePath, @RequestParam List<String> keywords) {
+        logger.info("Searching PDF {} for keywords: {}", filePath, keywords);
+        return botActivationService.searchKeywordsAsync(filePath, keywords)
+                .thenApply(result -> ResponseEntity.ok(new BotActivationResponseDTO(result)));
+    }
+
+    // ✅ PDF Summary Progress
+    @GetMapping(AI_PDF_PROGRESS)
+    public ResponseEntity<Map<String, Object>> getPdfProgress(@RequestParam String filePath) {
+        return botActivationService.getPDFProgress(filePath)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ✅ AI Gateway Metrics
+    @GetMapping(AI_METRICS)
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(botActivationService.getMetrics());
+    }
+
+    private static void sendChunk(SseEmitter emitter, String chunk) {
+        try {
+            emitter.send(SseEmitter.event().data(chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Client disconnected from stream", e);
+        }
+    }
+
+    /**
+     * Completes the emitter when the stream ends, and cancels the upstream stream when the
+     * emitter ends first (client disconnect, emitter timeout or write error).
+     */
+    private static void relay(CompletableFuture<Void> stream, SseEmitter emitter) {
+        emitter.onCompletion(() -> stream.cancel(true));
+        emitter.onTimeout(() -> {
+            stream.cancel(true);
+            emitter.complete();
+        });
+        emitter.onError(error -> stream.cancel(true));
+        stream.whenComplete((ignored, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        });
     }
 }
\ No newline at end of file
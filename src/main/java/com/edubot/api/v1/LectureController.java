@@ -1,18 +1,28 @@
 package com.edubot.controller.lecture;
 
+import com.edubot.dto.LecturePageDTO;
 import com.edubot.dto.LectureRequestDTO;
 import com.edubot.dto.LectureResponseDTO;
 import com.edubot.dto.ResponseMessageDTO;
 import com.edubot.service.LectureService;
+import com.edubot.service.lecture.LiveLectureChannel;
+import com.edubot.service.lecture.LiveLectureSessions;
+import com.edubot.service.lecture.RecordingEvent;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * LectureController manages lectures and applies lecture rules.
@@ -23,10 +33,16 @@ public class LectureController {
 
     private static final Logger logger = LoggerFactory.getLogger(LectureController.class);
     private final LectureService lectureService;
+    private final LiveLectureChannel liveLectureChannel;
+    private final LiveLectureSessions liveLectureSessions;
 
     @Autowired
-    public LectureController(LectureService lectureService) {
+    public LectureController(LectureService lectureService,
+                             LiveLectureChannel liveLectureChannel,
+                             LiveLectureSessions liveLectureSessions) {
         this.lectureService = lectureService;
+        this.liveLectureChannel = liveLectureChannel;
+        this.liveLectureSessions = liveLectureSessions;
     }
 
     // ✅ Create Lecture
@@ -44,6 +60,20 @@ public class LectureController {
         return ResponseEntity.ok(lectureService.getAllLectures());
     }
 
+    // ✅ List Lecture Summaries (keyset pagination, no content bodies)
+    @GetMapping("/summaries")
+    public ResponseEntity<LecturePageDTO> getLectureSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(lectureService.getLectureSummaries(cursor, limit));
+    }
+
+    // ✅ Get Lecture Body
+    @GetMapping(value = "/{id}/body", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getLectureBody(@PathVariable Long id) {
+        return ResponseEntity.ok(lectureService.getLectureBody(id));
+    }
+
     // ✅ Get Lecture by ID
     @GetMapping("/{id}")
     public ResponseEntity<LectureResponseDTO> getLectureById(@PathVariable Long id) {
@@ -74,6 +104,7 @@ public class LectureController {
     public ResponseEntity<ResponseMessageDTO> applyDefaultRules(@PathVariable Long id) {
         logger.info("Applying default rules to lecture ID: {}", id);
         lectureService.applyDefaultRules(id);
+        liveLectureChannel.publishRuleChange(id, "default", null);
         return ResponseEntity.ok(new ResponseMessageDTO("Default rules applied successfully."));
     }
 
@@ -85,6 +116,87 @@ public class LectureController {
             @RequestParam String ruleValue) {
         logger.info("Applying rule '{}' with value '{}' to lecture {}", ruleKey, ruleValue, id);
         lectureService.applyIndividualRules(id, ruleKey, ruleValue);
+        liveLectureChannel.publishRuleChange(id, ruleKey, ruleValue);
         return ResponseEntity.ok(new ResponseMessageDTO("Individual rules applied successfully."));
     }
-}
\ No newline at end of file
+
+    // ✅ Start Live Monologue
+    @PostMapping("/{id}/live/start")
+    public ResponseEntity<ResponseMessageDTO> startLiveMonologue(@PathVariable Long id) {
+        logger.info("Starting live monologue for lecture ID: {}", id);
+        int segments = liveLectureChannel.startMonologue(id);
+        return ResponseEntity.ok(new ResponseMessageDTO("Live monologue started with " + segments + " segments."));
+    }
+
+    // ✅ Stop Live Monologue
+    @PostMapping("/{id}/live/stop")
+    public ResponseEntity<ResponseMessageDTO> stopLiveMonologue(@PathVariable Long id) {
+        logger.info("Stopping live monologue for lecture ID: {}", id);
+        boolean stopped = liveLectureChannel.stopMonologue(id);
+        return ResponseEntity.ok(new ResponseMessageDTO(stopped ? "Live monologue stopped." : "No live monologue running."));
+    }
+
+    // ✅ Live Delivery Metrics
+    @GetMapping("/live/metrics")
+    public ResponseEntity<Map<String, Object>> getLiveMetrics() {
+        return ResponseEntity.ok(liveLectureSessions.getStats());
+    }
+
+    // ✅ Replay Recorded Events
+    @GetMapping("/{id}/replay")
+    public ResponseEntity<List<RecordingEvent>> getReplayEvents(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") long fromMs,
+            @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(lectureService.getReplayEvents(id, fromMs, limit));
+    }
+
+    // ✅ Seek Recording
+    @GetMapping("/{id}/recording/seek")
+    public ResponseEntity<Map<String, Long>> seekRecording(@PathVariable Long id, @RequestParam long offsetMs) {
+        return ResponseEntity.ok(Map.of(
+                "position", lectureService.seekReplay(id, offsetMs),
+                "size", lectureService.getRecordingSize(id)));
+    }
+
+    // ✅ Stream Recording (HTTP range requests)
+    @GetMapping("/{id}/recording")
+    public ResponseEntity<StreamingResponseBody> getRecording(
+            @PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) {
+        long size = lectureService.getRecordingSize(id);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            ranges = List.of();
+        }
+        if (ranges.isEmpty()) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok().headers(headers)
+                    .body(out -> lectureService.streamRecording(id, 0, size, out));
+        }
+
+        // Players ask for one range at a time; only the first is served.
+        HttpRange range = ranges.get(0);
+        long start = size == 0 ? 0 : range.getRangeStart(size);
+        if (size == 0 || start >= size) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+        long end = range.getRangeEnd(size);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                .body(out -> lectureService.streamRecording(id, start, end - start + 1, out));
+    }
+
+    // ✅ Append Recording Media
+    @PostMapping(value = "/{id}/recording/media", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<RecordingEvent> appendRecordingMedia(@PathVariable Long id, @RequestBody byte[] data) {
+        return ResponseEntity.ok(lectureService.recordMedia(id, data));
+    }
+}
@@ -0,0 +1,95 @@
+package com.edubot.controller.lecture;
+
+import com.edubot.service.lecture.LiveLectureSessions;
+import com.edubot.service.lecture.LiveQuestionAggregator;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+
+/**
+ * WebSocket endpoint for a live lecture ({@code /ws/lectures/{lectureId}/live}).
+ *
+ * Students send {@code {"question": "..."}}; each question is acknowledged with
+ * {@code queued} or {@code rejected}. Monologue segments, answers and rule changes
+ * arrive as {@code monologue}, {@code answer} and {@code ruleChange} events published
+ * through {@link LiveLectureSessions}.
+ */
+@Component
+public class LiveLectureSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveLectureSocketHandler.class);
+    private static final String LECTURE_ID = "lectureId";
+
+    private final LiveLectureSessions sessions;
+    private final LiveQuestionAggregator aggregator;
+
+    @Autowired
+    public LiveLectureSocketHandler(LiveLectureSessions sessions, LiveQuestionAggregator aggregator) {
+        this.sessions = sessions;
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Long lectureId = lectureId(session.getUri());
+        if (lectureId == null) {
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        session.getAttributes().put(LECTURE_ID, lectureId);
+        sessions.join(lectureId, session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Long lectureId = (Long) session.getAttributes().get(LECTURE_ID);
+        String question;
+        try {
+            question = new JSONObject(message.getPayload()).optString("question", null);
+        } catch (JSONException e) {
+            logger.debug("Ignoring malformed live lecture message from {}", session.getId());
+            sessions.sendTo(session.getId(), "rejected", new JSONObject());
+            return;
+        }
+        boolean queued = lectureId != null && aggregator.submit(lectureId, session.getId(), question);
+        sessions.sendTo(session.getId(), queued ? "queued" : "rejected", new JSONObject());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Long lectureId = (Long) session.getAttributes().get(LECTURE_ID);
+        if (lectureId != null) {
+            sessions.leave(lectureId, session);
+        }
+    }
+
+    /**
+     * Extracts the lecture id from {@code /ws/lectures/{lectureId}/live}.
+     */
+    private static Long lectureId(URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        String[] segments = uri.getPath().split("/");
+        for (int i = 0; i + 1 < segments.length; i++) {
+            if ("lectures".equals(segments[i])) {
+                try {
+                    return Long.valueOf(segments[i + 1]);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -69,9 +69,10 @@ public class StudentController {
     @PostMapping("/{studentId}/ask")
     public ResponseEntity<ResponseMessageDTO> askQuestion(
             @PathVariable Long studentId,
+            @RequestParam(required = false) String subject,
             @RequestParam String question) {
         logger.info("Student ID {} asked a question: {}", studentId, question);
-        studentService.askQuestion(studentId, question);
+        studentService.askQuestion(studentId, subject, question);
         return ResponseEntity.ok(new ResponseMessageDTO("Question submitted successfully."));
     }
 
@@ -81,9 +82,10 @@ public class StudentController {
     @PostMapping("/{studentId}/homework")
     public ResponseEntity<ResponseMessageDTO> getHomeworkHint(
             @PathVariable Long studentId,
+            @RequestParam(required = false) String subject,
             @RequestParam String homeworkQuestion) {
         logger.info("Homework hint requested by Student ID {}: {}", studentId, homeworkQuestion);
-        studentService.getHomeworkHint(studentId, homeworkQuestion);
+        studentService.getHomeworkHint(studentId, subject, homeworkQuestion);
         return ResponseEntity.ok(new ResponseMessageDTO("Homework hint generated successfully."));
     }
 
@@ -4,8 +4,10 @@ import com.edubot.dto.LectureRequestDTO;
 import com.edubot.dto.ResponseMessageDTO;
 import com.edubot.dto.LectureResponseDTO;
 import com.edubot.dto.AnalyticsResponseDTO;
+import com.edubot.dto.IngestionJobStatusDTO;
 import com.edubot.dto.StudyMaterialRequestDTO;
 import com.edubot.service.TeacherService;
+import com.edubot.service.ingestion.IngestionJob;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -78,13 +80,26 @@ public class TeacherController {
     // ========================= STUDY MATERIAL MANAGEMENT =========================
 
     /**
-     * Upload and activate study material.
+     * Upload and activate study material. Processing happens in the background;
+     * the response carries the job to poll.
      */
     @PostMapping("/study-material/upload")
-    public ResponseEntity<ResponseMessageDTO> uploadAndActivateMaterial(@Valid @RequestBody StudyMaterialRequestDTO materialDTO) {
+    public ResponseEntity<IngestionJobStatusDTO> uploadAndActivateMaterial(@Valid @RequestBody StudyMaterialRequestDTO materialDTO) {
         logger.info("Uploading study material: {}", materialDTO.getTitle());
-        teacherService.uploadAndActivateMaterial(materialDTO);
-        return ResponseEntity.ok(new ResponseMessageDTO("Study material uploaded successfully."));
+        String jobId = teacherService.uploadAndActivateMaterial(materialDTO);
+        return teacherService.getUploadJob(jobId)
+                .map(job -> ResponseEntity.accepted().body(toStatusDTO(job)))
+                .orElseThrow(() -> new IllegalStateException("Upload job was not recorded: " + jobId));
+    }
+
+    /**
+     * Get the status of a study material upload.
+     */
+    @GetMapping("/study-material/jobs/{jobId}")
+    public ResponseEntity<IngestionJobStatusDTO> getUploadJobStatus(@PathVariable String jobId) {
+        return teacherService.getUploadJob(jobId)
+                .map(job -> ResponseEntity.ok(toStatusDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -95,4 +110,16 @@ public class TeacherController {
         logger.info("Fetching analytics for lecture ID: {}", lectureId);
         return ResponseEntity.ok(teacherService.getAnalyticsReport(lectureId));
     }
+
+    private IngestionJobStatusDTO toStatusDTO(IngestionJob job) {
+        return new IngestionJobStatusDTO(
+                job.getId(),
+                job.getTitle(),
+                job.getState().name(),
+                job.getAttempts(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt(),
+                teacherService.getUploadJobProgress(job.getId()).orElse(null));
+    }
 }
\ No newline at end of file
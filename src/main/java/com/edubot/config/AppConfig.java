@@ -0,0 +1,13 @@
+package com.edubot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Application-wide settings. Scheduling drives periodic background work such as
+ * lecture pre-rendering.
+ */
+@EnableScheduling
+@Configuration
+public class AppConfig {
+}
@@ -0,0 +1,54 @@
+package com.edubot.config;
+
+import com.edubot.controller.lecture.LiveLectureSocketHandler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * Registers the application's WebSocket endpoints.
+ *
+ * Live lectures keep thousands of connections open per node, so the container's
+ * per-connection buffers are kept small: students only send short questions, and
+ * outbound traffic is bounded by the queues in {@code LiveLectureSessions}.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LiveLectureSocketHandler liveLectureSocketHandler;
+    private final String[] allowedOrigins;
+
+    @Autowired
+    public WebSocketConfig(
+            LiveLectureSocketHandler liveLectureSocketHandler,
+            @Value("${websocket.allowed-origins:*}") String[] allowedOrigins) {
+        this.liveLectureSocketHandler = liveLectureSocketHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(liveLectureSocketHandler, ApiRoutes.WS_LIVE_LECTURE)
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${websocket.max-text-message-bytes:8192}") int maxTextMessageBytes,
+            @Value("${websocket.max-idle-ms:900000}") long maxIdleMillis,
+            @Value("${lecture.live.send-time-limit-ms:5000}") long sendTimeLimitMillis) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(maxTextMessageBytes);
+        container.setMaxBinaryMessageBufferSize(maxTextMessageBytes);
+        container.setMaxSessionIdleTimeout(maxIdleMillis);
+        container.setAsyncSendTimeout(sendTimeLimitMillis);
+        return container;
+    }
+}
@@ -0,0 +1,25 @@
+package com.edubot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO for the status of a background study material upload.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class IngestionJobStatusDTO {
+    private String jobId;
+    private String title;
+    private String state;
+    private int attempts;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Map<String, Object> summaryProgress;
+}
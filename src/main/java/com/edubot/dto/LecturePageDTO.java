@@ -0,0 +1,18 @@
+package com.edubot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the lecture listing. {@code nextCursor} is null on the last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class LecturePageDTO {
+    private List<LectureSummaryDTO> lectures;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.edubot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for lecture listings; carries no content body.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class LectureSummaryDTO {
+    private Long id;
+    private String title;
+    private String topic;
+    private LocalDateTime scheduledTime;
+}
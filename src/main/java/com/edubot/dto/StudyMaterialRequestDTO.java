@@ -21,4 +21,6 @@ public class StudyMaterialRequestDTO {
     private String subject;
 
     private String filePath;
+
+    private boolean useSummarization;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.edubot.exception;
+
+/**
+ * Thrown when an AI endpoint rejects work up front, either because its circuit
+ * breaker is open or because its concurrency limit has been reached.
+ */
+public class AiServiceUnavailableException extends RuntimeException {
+
+    public AiServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.edubot.exception;
+
+/**
+ * Thrown when a request parameter is malformed; answered with 400 Bad Request.
+ */
+public class ValidationException extends RuntimeException {
+
+    public ValidationException(String message) {
+        super(message);
+    }
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
  * Represents the content, rules, and metadata of a lecture.
  */
 @Entity
-@Table(name = "lecture_content")
+@Table(name = "lecture_content", indexes = @Index(name = "idx_lecture_content_schedule", columnList = "scheduledTime, id"))
 public class LectureContent {
 
     private static final Logger logger = LoggerFactory.getLogger(LectureContent.class);
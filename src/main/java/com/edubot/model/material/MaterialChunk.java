@@ -0,0 +1,97 @@
+package com.edubot.model.content;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A passage of a study material's content, stored alongside the material so prompts
+ * can carry the few passages relevant to a question instead of the whole text.
+ *
+ * Chunks of one material overlap slightly. The id is derived from the material id and
+ * a hash of the chunk text, so re-chunking unchanged content yields the same ids.
+ */
+@Entity
+@Table(name = "material_chunk", indexes = @Index(name = "idx_material_chunk_material_id", columnList = "materialId"))
+public class MaterialChunk {
+
+    @Id
+    @Column(length = 96)
+    private String id;
+
+    @NotNull(message = "Material id cannot be null.")
+    @Column(nullable = false)
+    private Long materialId;
+
+    @Column(nullable = false)
+    private int ordinal;
+
+    @Column(nullable = false)
+    private int startOffset;
+
+    @Column(nullable = false)
+    private int endOffset;
+
+    @NotBlank(message = "Chunk text cannot be blank.")
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String text;
+
+    // ========================== Constructors ==========================
+
+    public MaterialChunk() {
+    }
+
+    public MaterialChunk(String id, Long materialId, int ordinal, int startOffset, int endOffset, String text) {
+        this.id = id;
+        this.materialId = materialId;
+        this.ordinal = ordinal;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.text = text;
+    }
+
+    // ========================== Getters ==========================
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getMaterialId() {
+        return materialId;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Offset of the first character of this chunk in the material's content.
+     */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * Offset just past the last character of this chunk in the material's content.
+     */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // ========================== Override toString ==========================
+
+    @Override
+    public String toString() {
+        return "MaterialChunk{" +
+                "id='" + id + '\'' +
+                ", materialId=" + materialId +
+                ", ordinal=" + ordinal +
+                ", startOffset=" + startOffset +
+                ", endOffset=" + endOffset +
+                '}';
+    }
+}
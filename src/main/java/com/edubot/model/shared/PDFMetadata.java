@@ -2,7 +2,6 @@ package com.edubot.model.content;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,9 +11,12 @@ import java.time.LocalDateTime;
 /**
  * Represents metadata extracted from PDF files, such as title, author, subject,
  * and creation/modification dates.
+ * The SHA-256 content hash identifies byte-identical files uploaded under different
+ * paths, so their extracted text and summary can be reused instead of recomputed.
+ * Title, author and page count are null when the PDF does not declare them.
  */
 @Entity
-@Table(name = "pdf_metadata")
+@Table(name = "pdf_metadata", indexes = @Index(name = "idx_pdf_metadata_content_hash", columnList = "contentHash"))
 public class PDFMetadata {
 
     private static final Logger logger = LoggerFactory.getLogger(PDFMetadata.class);
@@ -23,21 +25,18 @@ public class PDFMetadata {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotBlank(message = "PDF title cannot be blank.")
     @Size(max = 255, message = "PDF title must not exceed 255 characters.")
-    @Column(nullable = false)
+    @Column
     private String title;
 
-    @NotBlank(message = "Author name cannot be blank.")
     @Size(max = 255, message = "Author name must not exceed 255 characters.")
-    @Column(nullable = false)
+    @Column
     private String author;
 
     @Size(max = 500, message = "Subject must not exceed 500 characters.")
     private String subject;
 
-    @NotNull(message = "Page count cannot be null.")
-    @Column(nullable = false)
+    @Column
     private Integer pageCount;
 
     @Column(nullable = false, updatable = false)
@@ -56,6 +55,16 @@ public class PDFMetadata {
     @Column
     private LocalDateTime pdfModifiedDate;
 
+    @Size(min = 64, max = 64, message = "Content hash must be a hex-encoded SHA-256 digest.")
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String extractedText;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
     // ========================== Constructors ==========================
 
     public PDFMetadata() {
@@ -197,6 +206,31 @@ public class PDFMetadata {
         logger.info("PDF modified date updated: {}", pdfModifiedDate);
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+        logger.info("PDF content hash updated: {}", contentHash);
+    }
+
+    public String getExtractedText() {
+        return extractedText;
+    }
+
+    public void setExtractedText(String extractedText) {
+        this.extractedText = extractedText;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
     // ========================== Override toString ==========================
 
     @Override
@@ -210,6 +244,7 @@ public class PDFMetadata {
                 ", filePath='" + filePath + '\'' +
                 ", pdfCreatedDate=" + pdfCreatedDate +
                 ", pdfModifiedDate=" + pdfModifiedDate +
+                ", contentHash='" + contentHash + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
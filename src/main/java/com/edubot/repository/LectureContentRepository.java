@@ -0,0 +1,52 @@
+package com.edubot.repository;
+
+import com.edubot.dto.LectureSummaryDTO;
+import com.edubot.model.lecture.LectureContent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for classroom lectures.
+ */
+@Repository
+public interface LectureContentRepository extends JpaRepository<LectureContent, Long> {
+
+    /**
+     * Find lectures scheduled within a time window, e.g. the ones starting soon. The study
+     * material is fetched in the same query, since callers read it outside a session.
+     */
+    @EntityGraph(attributePaths = "studyMaterial")
+    List<LectureContent> findByScheduledTimeBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * First page of lecture summaries, ordered by (scheduledTime, id).
+     */
+    @Query("SELECT new com.edubot.dto.LectureSummaryDTO(l.id, l.title, l.topic, l.scheduledTime) "
+            + "FROM LectureContent l ORDER BY l.scheduledTime, l.id")
+    List<LectureSummaryDTO> findSummaries(Pageable pageable);
+
+    /**
+     * Lecture summaries after the (scheduledTime, id) key of the previous page's last row.
+     */
+    @Query("SELECT new com.edubot.dto.LectureSummaryDTO(l.id, l.title, l.topic, l.scheduledTime) "
+            + "FROM LectureContent l "
+            + "WHERE l.scheduledTime > :scheduledTime OR (l.scheduledTime = :scheduledTime AND l.id > :id) "
+            + "ORDER BY l.scheduledTime, l.id")
+    List<LectureSummaryDTO> findSummariesAfter(@Param("scheduledTime") LocalDateTime scheduledTime,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    /**
+     * Fetch only the content body of one lecture.
+     */
+    @Query("SELECT l.contentBody FROM LectureContent l WHERE l.id = :id")
+    Optional<String> findContentBodyById(@Param("id") Long id);
+}
@@ -0,0 +1,26 @@
+package com.edubot.repository;
+
+import com.edubot.model.content.MaterialChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository for the retrieval chunks stored with each study material.
+ */
+@Repository
+public interface MaterialChunkRepository extends JpaRepository<MaterialChunk, String> {
+
+    /**
+     * Find the chunks of one material in reading order.
+     */
+    List<MaterialChunk> findByMaterialIdOrderByOrdinal(Long materialId);
+
+    /**
+     * Delete every chunk of one material.
+     */
+    @Transactional
+    void deleteByMaterialId(Long materialId);
+}
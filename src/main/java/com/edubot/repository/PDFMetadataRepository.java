@@ -0,0 +1,29 @@
+package com.edubot.repository;
+
+import com.edubot.model.content.PDFMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for PDF metadata and the extraction results cached against each file's content hash.
+ */
+@Repository
+public interface PDFMetadataRepository extends JpaRepository<PDFMetadata, Long> {
+
+    /**
+     * Find metadata for a specific file.
+     */
+    Optional<PDFMetadata> findByFilePath(String filePath);
+
+    /**
+     * Find any file with the same content whose text has already been extracted.
+     */
+    Optional<PDFMetadata> findFirstByContentHashAndExtractedTextIsNotNull(String contentHash);
+
+    /**
+     * Find any file with the same content that has already been summarized.
+     */
+    Optional<PDFMetadata> findFirstByContentHashAndSummaryIsNotNull(String contentHash);
+}
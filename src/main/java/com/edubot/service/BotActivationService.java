@@ -1,25 +1,76 @@
 package com.edubot.service;
 
+import com.edubot.exception.AiServiceUnavailableException;
+import com.edubot.service.ai.AiPriority;
+import com.edubot.service.ai.AiResponseCache;
+import com.edubot.service.ai.AiUpstreamException;
+import com.edubot.service.ai.BatchingUnsupportedException;
+import com.edubot.service.ai.BulkheadRegistry;
+import com.edubot.service.ai.HedgedRequestExecutor;
+import com.edubot.service.ai.LectureContextRegistry;
+import com.edubot.service.ai.LineChunkSubscriber;
+import com.edubot.service.ai.MapReduceSummarizer;
+import com.edubot.service.ai.MicroBatcher;
+import com.edubot.service.ai.PriorityDispatcher;
+import com.edubot.service.ai.RequestCoalescer;
+import com.edubot.service.ai.SemanticAnswerCache;
+import com.edubot.service.pdf.LocalPdfExtractor;
+import com.edubot.service.pdf.PdfInvertedIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * BotActivationService acts as a gateway for Python AI/ML microservices.
  * Handles content generation, quiz generation, summaries, and PDF operations.
+ *
+ * Every operation has a non-blocking {@code *Async} variant built on
+ * {@link HttpClient#sendAsync}; the blocking methods simply join on it.
+ * Identical concurrent requests are coalesced into a single upstream call, and
+ * deterministic tasks are served from {@link AiResponseCache} when possible.
+ * Summary and content requests are grouped into batches by {@link MicroBatcher}.
+ * Content and classroom answers can also be streamed line by line as they are generated.
+ * Each endpoint group (content, quiz, summary, pdf) runs behind its own
+ * {@link BulkheadRegistry bulkhead}; work it rejects fails fast with
+ * {@link AiServiceUnavailableException} rather than an error message. Single calls
+ * are hedged and retried per task by {@link HedgedRequestExecutor}. Upstream work is
+ * queued by {@link AiPriority} in the {@link PriorityDispatcher}; callers that do not
+ * pass a priority are treated as {@link AiPriority#NORMAL}. Student answers are also
+ * looked up by question embedding in the {@link SemanticAnswerCache}, so paraphrased
+ * questions can reuse an earlier answer. Classroom questions send a lecture body once
+ * and then refer to it by the handle tracked in {@link LectureContextRegistry}.
  */
 @Service
 public class BotActivationService {
 
     private static final Logger logger = LoggerFactory.getLogger(BotActivationService.class);
+    private static final String ERROR_PREFIX = "Error processing ";
 
     @Value("${ai.content.endpoint:http://localhost:5000/content}")
     private String contentEndpoint;
@@ -33,78 +84,894 @@ public class BotActivationService {
     @Value("${ai.pdf.endpoint:http://localhost:5000/pdf}")
     private String pdfEndpoint;
 
-    @Value("${ai.http.timeout:10}")
-    private int httpTimeout;
+    @Value("${ai.embedding.endpoint:http://localhost:5000/embed}")
+    private String embeddingEndpoint;
+
+    @Value("${ai.context.endpoint:http://localhost:5000/context}")
+    private String contextEndpoint;
+
+    @Value("${ai.pdf.stream-uploads:false}")
+    private boolean streamPdfUploads;
+
+    @Value("${ai.pdf.upload-timeout:120}")
+    private int uploadTimeout;
+
+    @Value("${ai.content.stream-endpoint:http://localhost:5000/content/stream}")
+    private String contentStreamEndpoint;
+
+    @Value("${ai.stream.timeout:120}")
+    private int streamTimeout;
 
+    @Value("${ai.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${ai.batching.path-suffix:/batch}")
+    private String batchPathSuffix;
+
+    private final int httpTimeout;
     private final HttpClient httpClient;
+    private final RequestCoalescer requestCoalescer;
+    private final AiResponseCache responseCache;
+    private final MicroBatcher microBatcher;
+    private final BulkheadRegistry bulkheads;
+    private final HedgedRequestExecutor hedgedExecutor;
+    private final PriorityDispatcher priorityDispatcher;
+    private final SemanticAnswerCache semanticCache;
+    private final LectureContextRegistry contextRegistry;
+    private final MapReduceSummarizer pdfSummarizer;
+    private final LocalPdfExtractor localPdfExtractor;
+    private final PdfInvertedIndex pdfIndex;
 
-    public BotActivationService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(java.time.Duration.ofSeconds(httpTimeout))
-                .build();
+    @Autowired
+    public BotActivationService(
+            @Value("${ai.http.timeout:10}") int httpTimeout,
+            RequestCoalescer requestCoalescer,
+            AiResponseCache responseCache,
+            MicroBatcher microBatcher,
+            BulkheadRegistry bulkheads,
+            HedgedRequestExecutor hedgedExecutor,
+            PriorityDispatcher priorityDispatcher,
+            SemanticAnswerCache semanticCache,
+            LectureContextRegistry contextRegistry,
+            MapReduceSummarizer pdfSummarizer,
+            LocalPdfExtractor localPdfExtractor,
+            PdfInvertedIndex pdfIndex) {
+        this(httpTimeout, requestCoalescer, responseCache, microBatcher, bulkheads, hedgedExecutor, priorityDispatcher,
+                semanticCache, contextRegistry, pdfSummarizer, localPdfExtractor, pdfIndex,
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(httpTimeout)).build());
+    }
+
+    BotActivationService(int httpTimeout, RequestCoalescer requestCoalescer, AiResponseCache responseCache,
+                         MicroBatcher microBatcher, BulkheadRegistry bulkheads, HedgedRequestExecutor hedgedExecutor,
+                         PriorityDispatcher priorityDispatcher, SemanticAnswerCache semanticCache,
+                         LectureContextRegistry contextRegistry, MapReduceSummarizer pdfSummarizer,
+                         LocalPdfExtractor localPdfExtractor, PdfInvertedIndex pdfIndex, HttpClient httpClient) {
+        this.httpTimeout = httpTimeout;
+        this.requestCoalescer = requestCoalescer;
+        this.responseCache = responseCache;
+        this.microBatcher = microBatcher;
+        this.bulkheads = bulkheads;
+        this.hedgedExecutor = hedgedExecutor;
+        this.priorityDispatcher = priorityDispatcher;
+        this.semanticCache = semanticCache;
+        this.contextRegistry = contextRegistry;
+        this.pdfSummarizer = pdfSummarizer;
+        this.localPdfExtractor = localPdfExtractor;
+        this.pdfIndex = pdfIndex;
+        this.httpClient = httpClient;
     }
 
     // ========================= AI OPERATIONS =========================
 
     public String generateContent(String inputText) {
-        return sendRequest(contentEndpoint, inputText, "content");
+        return generateContent(inputText, AiPriority.NORMAL);
+    }
+
+    public String generateContent(String inputText, AiPriority priority) {
+        return await(generateContentAsync(inputText, priority));
     }
 
     public String generateQuiz(String inputText) {
-        return sendRequest(quizEndpoint, inputText, "quiz");
+        return await(generateQuizAsync(inputText));
     }
 
     public String summarizeText(String inputText) {
-        return sendRequest(summaryEndpoint, inputText, "summary");
+        return summarizeText(inputText, AiPriority.NORMAL);
+    }
+
+    public String summarizeText(String inputText, AiPriority priority) {
+        return await(summarizeTextAsync(inputText, priority));
+    }
+
+    public CompletableFuture<String> generateContentAsync(String inputText) {
+        return generateContentAsync(inputText, AiPriority.NORMAL);
+    }
+
+    public CompletableFuture<String> generateContentAsync(String inputText, AiPriority priority) {
+        return sendRequestAsync(contentEndpoint, inputText, "content", priority);
+    }
+
+    public CompletableFuture<String> generateQuizAsync(String inputText) {
+        return sendRequestAsync(quizEndpoint, inputText, "quiz", AiPriority.NORMAL);
+    }
+
+    public CompletableFuture<String> summarizeTextAsync(String inputText) {
+        return summarizeTextAsync(inputText, AiPriority.NORMAL);
+    }
+
+    public CompletableFuture<String> summarizeTextAsync(String inputText, AiPriority priority) {
+        return sendRequestAsync(summaryEndpoint, inputText, "summary", priority);
+    }
+
+    public String generateExplanation(String question, String style, String materialContext) {
+        return await(generateExplanationAsync(question, style, materialContext));
+    }
+
+    /**
+     * Explains {@code question} against {@code materialContext}, which callers keep to the few
+     * passages retrieved for the question rather than whole study materials.
+     */
+    public CompletableFuture<String> generateExplanationAsync(String question, String style, String materialContext) {
+        JSONObject payload = new JSONObject()
+                .put("question", question)
+                .put("context", materialContext)
+                .put("style", style);
+        return sendRequestAsync(contentEndpoint, payload.toString(), "explanation", AiPriority.INTERACTIVE);
+    }
+
+    public String formatForClassroomDelivery(String processedContent) {
+        return formatForClassroomDelivery(processedContent, AiPriority.NORMAL);
+    }
+
+    public String formatForClassroomDelivery(String processedContent, AiPriority priority) {
+        return await(formatForClassroomDeliveryAsync(processedContent, priority));
+    }
+
+    /**
+     * Rewrites processed lecture material as a classroom monologue.
+     */
+    public CompletableFuture<String> formatForClassroomDeliveryAsync(String processedContent, AiPriority priority) {
+        JSONObject payload = new JSONObject()
+                .put("content", processedContent)
+                .put("deliveryStyle", "CLASSROOM_MONOLOGUE");
+        return sendRequestAsync(contentEndpoint, payload.toString(), "classroomFormat", priority);
+    }
+
+    public String generateClassroomResponse(String question, String lectureContext, String voice) {
+        return await(generateClassroomResponseAsync(question, lectureContext, voice));
+    }
+
+    /**
+     * Classroom answers are always live questions, so they are dispatched as {@link AiPriority#INTERACTIVE}.
+     */
+    public CompletableFuture<String> generateClassroomResponseAsync(String question, String lectureContext, String voice) {
+        return sendRequestAsync(contentEndpoint, classroomPayload(question, lectureContext, voice).toString(),
+                "classroomResponse", AiPriority.INTERACTIVE);
+    }
+
+    public String generateClassroomResponse(Long lectureId, String question, String lectureContext, String voice) {
+        return await(generateClassroomResponseAsync(lectureId, question, lectureContext, voice));
+    }
+
+    /**
+     * Answers a classroom question against the lecture's registered context handle,
+     * registering the body on first use. The question is sent with the full body instead
+     * only if the context endpoint refuses the registration (4xx) or the handle is no
+     * longer known upstream (404/410), in which case the handle is dropped as well.
+     * Timeouts and 5xx answers fail the question like any other call.
+     */
+    public CompletableFuture<String> generateClassroomResponseAsync(Long lectureId, String question,
+                                                                    String lectureContext, String voice) {
+        if (!contextRegistry.shouldRegister(lectureContext)) {
+            return generateClassroomResponseAsync(question, lectureContext, voice);
+        }
+        return generateClassroomResponseAsync(lectureId, question, lectureContext, voice,
+                lectureContextHandle(lectureId, lectureContext));
+    }
+
+    /**
+     * Answers several questions about the same lecture, resolving its context handle
+     * (and hashing the body) once for all of them. Answers are in question order.
+     */
+    public List<CompletableFuture<String>> generateClassroomResponsesAsync(Long lectureId, List<String> questions,
+                                                                           String lectureContext, String voice) {
+        List<CompletableFuture<String>> answers = new ArrayList<>(questions.size());
+        if (!contextRegistry.shouldRegister(lectureContext)) {
+            for (String question : questions) {
+                answers.add(generateClassroomResponseAsync(question, lectureContext, voice));
+            }
+            return answers;
+        }
+        CompletableFuture<String> handle = lectureContextHandle(lectureId, lectureContext);
+        for (String question : questions) {
+            answers.add(generateClassroomResponseAsync(lectureId, question, lectureContext, voice, handle));
+        }
+        return answers;
+    }
+
+    private CompletableFuture<String> generateClassroomResponseAsync(Long lectureId, String question, String lectureContext,
+                                                                     String voice, CompletableFuture<String> contextHandle) {
+        return contextHandle
+                .handle((handle, registrationError) -> {
+                    if (registrationError != null) {
+                        Throwable cause = unwrap(registrationError);
+                        if (!isRefusedRegistration(cause)) {
+                            return CompletableFuture.<String>failedFuture(cause);
+                        }
+                        logger.warn("Context registration refused for lecture {}, sending full context: {}",
+                                lectureId, cause.getMessage());
+                        return execute(contentEndpoint, classroomPayload(question, lectureContext, voice).toString(),
+                                "classroomResponse", AiPriority.INTERACTIVE);
+                    }
+                    return execute(contentEndpoint, contextHandlePayload(question, handle, voice).toString(),
+                            "classroomResponse", AiPriority.INTERACTIVE)
+                            .handle((answer, error) -> {
+                                if (error == null) {
+                                    return CompletableFuture.completedFuture(answer);
+                                }
+                                Throwable cause = unwrap(error);
+                                if (!isUnknownContextHandle(cause)) {
+                                    return CompletableFuture.<String>failedFuture(cause);
+                                }
+                                logger.warn("Context handle for lecture {} is no longer known upstream, sending full context.",
+                                        lectureId);
+                                invalidateLectureContext(lectureId);
+                                return execute(contentEndpoint, classroomPayload(question, lectureContext, voice).toString(),
+                                        "classroomResponse", AiPriority.INTERACTIVE);
+                            })
+                            .thenCompose(future -> future);
+                })
+                .thenCompose(future -> future)
+                .exceptionally(e -> handleFailure("classroomResponse", e));
+    }
+
+    /**
+     * True if the AI service answered that it does not know the context handle (expired or evicted).
+     */
+    static boolean isUnknownContextHandle(Throwable error) {
+        if (!(error instanceof AiUpstreamException)) {
+            return false;
+        }
+        int status = ((AiUpstreamException) error).getStatusCode();
+        return status == 404 || status == 410;
+    }
+
+    /**
+     * True if the context endpoint refused the body itself (e.g. too large, or not deployed),
+     * as opposed to being down or slow.
+     */
+    static boolean isRefusedRegistration(Throwable error) {
+        return error instanceof AiUpstreamException && !((AiUpstreamException) error).isServerError();
+    }
+
+    /**
+     * Drops the lecture's context handle and releases it upstream. Call whenever the lecture body changes.
+     */
+    public void invalidateLectureContext(Long lectureId) {
+        CompletableFuture<String> handle = contextRegistry.invalidate(lectureId);
+        if (handle != null) {
+            releaseContext(handle);
+        }
+    }
+
+    public String generateAnswer(String namespace, String question, String prompt) {
+        return await(generateAnswerAsync(namespace, question, prompt));
+    }
+
+    /**
+     * Generates an interactive answer for {@code prompt}, reusing the answer to a
+     * semantically similar {@code question} previously asked in {@code namespace}.
+     * If the question cannot be embedded the answer is generated as usual, just not cached.
+     */
+    public CompletableFuture<String> generateAnswerAsync(String namespace, String question, String prompt) {
+        if (!semanticCache.isEnabled()) {
+            return generateContentAsync(prompt, AiPriority.INTERACTIVE);
+        }
+        return embedAsync(question)
+                .handle((embedding, error) -> {
+                    if (error != null) {
+                        logger.warn("Could not embed question for semantic cache: {}", unwrap(error).getMessage());
+                        return null;
+                    }
+                    return embedding;
+                })
+                .thenCompose(embedding -> {
+                    if (embedding != null) {
+                        Optional<String> hit = semanticCache.lookup(namespace, embedding);
+                        if (hit.isPresent()) {
+                            return CompletableFuture.completedFuture(hit.get());
+                        }
+                    }
+                    return execute(contentEndpoint, prompt, "content", AiPriority.INTERACTIVE)
+                            .thenApply(answer -> {
+                                if (embedding != null) {
+                                    semanticCache.store(namespace, embedding, answer);
+                                }
+                                return answer;
+                            });
+                })
+                .exceptionally(e -> handleFailure("content", e));
+    }
+
+    /**
+     * Embeds text with the AI service. The response may be a bare JSON array or
+     * {@code {"embedding": [...]}}; unlike the text operations the future fails on errors.
+     */
+    public CompletableFuture<float[]> embedAsync(String text) {
+        return execute(embeddingEndpoint, text, "embedding", AiPriority.INTERACTIVE)
+                .thenApply(BotActivationService::parseEmbedding);
+    }
+
+    // ========================= STREAMING OPERATIONS =========================
+
+    /**
+     * Streams generated content to {@code onChunk} as the AI service produces it,
+     * without buffering the full body. The future completes when the stream ends.
+     */
+    public CompletableFuture<Void> streamContent(String inputText, Consumer<String> onChunk) {
+        return stream(new JSONObject().put("input", inputText), "contentStream", onChunk);
+    }
+
+    public CompletableFuture<Void> streamClassroomResponse(String question, String lectureContext, String voice,
+                                                           Consumer<String> onChunk) {
+        JSONObject body = new JSONObject().put("input", classroomPayload(question, lectureContext, voice).toString());
+        return stream(body, "classroomResponseStream", onChunk);
+    }
+
+    /**
+     * Streaming counterpart of {@link #generateClassroomResponseAsync(Long, String, String, String)}.
+     * Falls back to the full body only if the registration is refused, since a failed stream
+     * may already have delivered chunks; a stream refused for an unknown handle still drops
+     * it so the next question re-registers.
+     */
+    public CompletableFuture<Void> streamClassroomResponse(Long lectureId, String question, String lectureContext,
+                                                           String voice, Consumer<String> onChunk) {
+        if (!contextRegistry.shouldRegister(lectureContext)) {
+            return streamClassroomResponse(question, lectureContext, voice, onChunk);
+        }
+        return cancellable(lectureContextHandle(lectureId, lectureContext)
+                .handle((handle, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (!isRefusedRegistration(cause)) {
+                            return CompletableFuture.<Void>failedFuture(cause);
+                        }
+                        logger.warn("Context registration refused for lecture {}, streaming with full context: {}",
+                                lectureId, cause.getMessage());
+                        return streamClassroomResponse(question, lectureContext, voice, onChunk);
+                    }
+                    JSONObject body = new JSONObject().put("input", contextHandlePayload(question, handle, voice).toString());
+                    CompletableFuture<Void> stream = stream(body, "classroomResponseStream", onChunk);
+                    stream.whenComplete((ignored, streamError) -> {
+                        if (streamError != null && isUnknownContextHandle(unwrap(streamError))) {
+                            invalidateLectureContext(lectureId);
+                        }
+                    });
+                    return stream;
+                }));
+    }
+
+    /**
+     * Flattens a future stream into one future whose cancellation still reaches the stream,
+     * so a client that goes away while the context is being registered stops the upstream call too.
+     */
+    private static CompletableFuture<Void> cancellable(CompletableFuture<CompletableFuture<Void>> pending) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        pending.whenComplete((stream, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            result.whenComplete((ignored, resultError) -> {
+                if (result.isCancelled()) {
+                    stream.cancel(true);
+                }
+            });
+            stream.whenComplete((ignored, streamError) -> {
+                if (streamError != null) {
+                    result.completeExceptionally(streamError);
+                } else {
+                    result.complete(null);
+                }
+            });
+        });
+        return result;
     }
 
     // ========================= PDF OPERATIONS =========================
 
     public String extractText(String filePath) {
-        return sendRequest(pdfEndpoint + "/extract", filePath, "extractText");
+        return extractText(filePath, AiPriority.NORMAL);
+    }
+
+    public String extractText(String filePath, AiPriority priority) {
+        return await(extractTextAsync(filePath, priority));
     }
 
     public String getMetadata(String filePath) {
-        return sendRequest(pdfEndpoint + "/metadata", filePath, "getMetadata");
+        return await(getMetadataAsync(filePath));
     }
 
     public String searchKeywords(String filePath, List<String> keywords) {
+        return await(searchKeywordsAsync(filePath, keywords));
+    }
+
+    public String processPDF(String filePath) {
+        return processPDF(filePath, AiPriority.NORMAL);
+    }
+
+    public String processPDF(String filePath, AiPriority priority) {
+        return await(processPDFAsync(filePath, priority));
+    }
+
+    public CompletableFuture<String> extractTextAsync(String filePath) {
+        return extractTextAsync(filePath, AiPriority.NORMAL);
+    }
+
+    /**
+     * Born-digital PDFs are extracted in-process by {@link LocalPdfExtractor}; only
+     * scanned documents (or files it cannot read) go to the OCR-capable AI service.
+     */
+    public CompletableFuture<String> extractTextAsync(String filePath, AiPriority priority) {
+        return extractTextLocallyOrRemote(filePath, priority).exceptionally(e -> handleFailure("extractText", e));
+    }
+
+    public CompletableFuture<String> getMetadataAsync(String filePath) {
+        return localPdfExtractor.extractMetadata(filePath)
+                .thenCompose(local -> local.isPresent()
+                        ? CompletableFuture.completedFuture(local.get())
+                        : executePdf("/metadata", "", filePath, filePath, "getMetadata", AiPriority.NORMAL))
+                .exceptionally(e -> handleFailure("getMetadata", e));
+    }
+
+    /**
+     * Answers from the in-process {@link PdfInvertedIndex}. A file that is not indexed at
+     * its current modification time is extracted (and thereby indexed) first; only if
+     * that fails does the search go to the AI service.
+     */
+    public CompletableFuture<String> searchKeywordsAsync(String filePath, List<String> keywords) {
+        CompletableFuture<?> indexed = pdfIndex.isCurrent(filePath, new File(filePath).lastModified())
+                ? CompletableFuture.completedFuture(null)
+                : extractTextLocallyOrRemote(filePath, AiPriority.NORMAL);
+        return indexed
+                .thenApply(ignored -> localKeywordSearch(filePath, keywords))
+                .exceptionallyCompose(e -> {
+                    logger.warn("Could not index {} for local search, searching remotely: {}", filePath, unwrap(e).getMessage());
+                    return remoteKeywordSearch(filePath, keywords);
+                })
+                .exceptionally(e -> handleFailure("searchKeywords", e));
+    }
+
+    private CompletableFuture<String> remoteKeywordSearch(String filePath, List<String> keywords) {
         JSONObject payload = new JSONObject();
         payload.put("filePath", filePath);
         payload.put("keywords", keywords);
 
-        return sendRequest(pdfEndpoint + "/search", payload.toString(), "searchKeywords");
+        String query = "?keywords=" + URLEncoder.encode(String.join(",", keywords), StandardCharsets.UTF_8);
+        return executePdf("/search", query, filePath, payload.toString(), "searchKeywords", AiPriority.NORMAL);
     }
 
-    public String processPDF(String filePath) {
-        String extractedText = extractText(filePath);
-        return summarizeText(extractedText);
+    /**
+     * Formats index matches as {@code {"filePath", "results": [{"keyword", "count", "matches": [{"page", "offset"}]}]}}.
+     */
+    private String localKeywordSearch(String filePath, List<String> keywords) {
+        JSONArray results = new JSONArray();
+        for (String keyword : keywords) {
+            JSONArray matches = new JSONArray();
+            for (PdfInvertedIndex.Match match : pdfIndex.find(filePath, keyword)) {
+                matches.put(new JSONObject().put("page", match.getPage()).put("offset", match.getOffset()));
+            }
+            results.put(new JSONObject()
+                    .put("keyword", keyword)
+                    .put("count", matches.length())
+                    .put("matches", matches));
+        }
+        return new JSONObject().put("filePath", filePath).put("results", results).toString();
+    }
+
+    public CompletableFuture<String> processPDFAsync(String filePath) {
+        return processPDFAsync(filePath, AiPriority.NORMAL);
+    }
+
+    /**
+     * Extracts and summarizes a PDF. The combined result is cached against the file's
+     * path, size and modification time, so an edited file is processed again.
+     * Long documents are summarized chunk by chunk by {@link MapReduceSummarizer};
+     * if some chunks fail, calling this again resumes from the completed ones.
+     */
+    public CompletableFuture<String> processPDFAsync(String filePath, AiPriority priority) {
+        String fingerprint = pdfFingerprint(filePath);
+
+        return cached("processPDF", fingerprint,
+                () -> extractTextLocallyOrRemote(filePath, priority)
+                        .thenCompose(text -> pdfSummarizer.summarize(fingerprint, text,
+                                chunk -> execute(summaryEndpoint, chunk, "summary", priority))))
+                .exceptionally(e -> handleFailure("processPDF", e));
+    }
+
+    public String summarizeDocument(String documentKey, String text, AiPriority priority) {
+        return await(summarizeDocumentAsync(documentKey, text, priority));
+    }
+
+    /**
+     * Summarizes text of any length through {@link MapReduceSummarizer}; progress and
+     * resumable checkpoints are tracked under {@code documentKey}.
+     */
+    public CompletableFuture<String> summarizeDocumentAsync(String documentKey, String text, AiPriority priority) {
+        return pdfSummarizer.summarize(documentKey, text, chunk -> execute(summaryEndpoint, chunk, "summary", priority))
+                .exceptionally(e -> handleFailure("summary", e));
+    }
+
+    public Optional<Map<String, Object>> getSummaryProgress(String documentKey) {
+        return pdfSummarizer.getProgress(documentKey);
+    }
+
+    /**
+     * Chunk progress of the latest {@link #processPDF} run for this file, if one is tracked.
+     */
+    public Optional<Map<String, Object>> getPDFProgress(String filePath) {
+        return pdfSummarizer.getProgress(pdfFingerprint(filePath));
+    }
+
+    // ========================= METRICS =========================
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("coalescing", requestCoalescer.getStats());
+        metrics.put("cache", responseCache.getStats());
+        metrics.put("batching", microBatcher.getStats());
+        metrics.put("bulkheads", bulkheads.getStats());
+        metrics.put("hedging", hedgedExecutor.getStats());
+        metrics.put("priorityQueue", priorityDispatcher.getStats());
+        metrics.put("semanticCache", semanticCache.getStats());
+        metrics.put("lectureContexts", contextRegistry.getStats());
+        metrics.put("localPdf", localPdfExtractor.getStats());
+        metrics.put("pdfIndex", pdfIndex.getStats());
+        return metrics;
     }
 
     // ========================= UTILITY METHOD =========================
 
-    private String sendRequest(String endpoint, String payload, String task) {
+    /**
+     * True for the "Error processing ..." messages the blocking API returns instead of throwing.
+     */
+    public static boolean isErrorResponse(String response) {
+        return response != null && response.startsWith(ERROR_PREFIX);
+    }
+
+    /**
+     * Sends the payload without blocking the caller. Failures are logged and mapped
+     * to the same "Error processing ..." message the blocking API has always returned;
+     * only bulkhead rejections complete the future exceptionally.
+     */
+    private CompletableFuture<String> sendRequestAsync(String endpoint, String payload, String task, AiPriority priority) {
+        return execute(endpoint, payload, task, priority).exceptionally(e -> handleFailure(task, e));
+    }
+
+    /**
+     * Cache lookup, then coalescing, then the priority queue, batching and the HTTP
+     * call. Unlike {@link #sendRequestAsync} the returned future fails on errors, so
+     * error messages are never cached.
+     */
+    private CompletableFuture<String> execute(String endpoint, String payload, String task, AiPriority priority) {
+        return execute(task, payload, priority, () -> send(endpoint, payload, task));
+    }
+
+    private CompletableFuture<String> execute(String task, String payload, AiPriority priority,
+                                              Supplier<CompletableFuture<String>> call) {
+        Supplier<CompletableFuture<String>> upstream = () -> priorityDispatcher.submit(endpointGroup(task), priority, call);
+        return cached(task, payload, () -> coalescingEnabled
+                ? requestCoalescer.execute(task, payload, upstream)
+                : upstream.get());
+    }
+
+    /**
+     * PDF operations send the server-side file path by default. With
+     * {@code ai.pdf.stream-uploads} the file body is streamed from disk instead, for
+     * deployments where the AI service cannot see this filesystem; {@code payload}
+     * still keys caching and coalescing.
+     */
+    private CompletableFuture<String> executePdf(String path, String query, String filePath, String payload,
+                                                 String task, AiPriority priority) {
+        if (!streamPdfUploads) {
+            return execute(pdfEndpoint + path, payload, task, priority);
+        }
+        return execute(task, payload, priority, () -> dispatchFile(pdfEndpoint + path + query, filePath, task));
+    }
+
+    private CompletableFuture<String> send(String endpoint, String payload, String task) {
+        if (!microBatcher.isBatchable(task)) {
+            return dispatch(endpoint, payload, task);
+        }
+        return microBatcher.submit(endpoint, payload,
+                payloads -> dispatchBatch(endpoint, payloads, task),
+                single -> dispatch(endpoint, single, task));
+    }
+
+    private CompletableFuture<String> cached(String task, String input, Supplier<CompletableFuture<String>> call) {
+        if (!responseCache.isCacheable(task)) {
+            return call.get();
+        }
+        Optional<String> hit = responseCache.get(task, input);
+        if (hit.isPresent()) {
+            return CompletableFuture.completedFuture(hit.get());
+        }
+        return call.get().thenApply(body -> {
+            responseCache.put(task, input, body);
+            return body;
+        });
+    }
+
+    private CompletableFuture<String> dispatch(String endpoint, String payload, String task) {
+        HttpRequest request;
         try {
-            JSONObject json = new JSONObject();
-            json.put("input", payload);
+            request = buildRequest(endpoint, new JSONObject().put("input", payload));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return sendHedged(request, task);
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * Posts the file as {@code application/pdf}. {@link HttpRequest.BodyPublishers#ofFile}
+     * reads it from disk in small buffers as the connection drains, so heap use does
+     * not grow with file size, and a hedge or retry simply re-reads the file.
+     */
+    private CompletableFuture<String> dispatchFile(String endpoint, String filePath, String task) {
+        HttpRequest request;
+        try {
+            Path file = Paths.get(filePath);
+            request = HttpRequest.newBuilder()
                     .uri(new URI(endpoint))
+                    .timeout(Duration.ofSeconds(uploadTimeout))
+                    .header("Content-Type", "application/pdf")
+                    .header("X-File-Name", URLEncoder.encode(String.valueOf(file.getFileName()), StandardCharsets.UTF_8))
+                    .POST(HttpRequest.BodyPublishers.ofFile(file))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendHedged(request, task);
+    }
+
+    private CompletableFuture<String> sendHedged(HttpRequest request, String task) {
+        return hedgedExecutor.execute(task, () -> bulkheads.get(endpointGroup(task)).execute(() -> {
+            CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            CompletableFuture<String> body = exchange.thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    logger.error("Failed to perform {}. HTTP Status: {}", task, response.statusCode());
+                    throw new AiUpstreamException("Failed to perform " + task + ". HTTP Status: " + response.statusCode(),
+                            response.statusCode());
+                }
+                return response.body();
+            });
+            // A cancelled attempt (a losing hedge) aborts the HTTP exchange rather than just ignoring its result.
+            body.whenComplete((ignored, error) -> {
+                if (body.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+            return body;
+        }));
+    }
+
+    /**
+     * Sends {@code {"inputs": [...]}} to the endpoint's batch route and expects either a
+     * JSON array or {@code {"results": [...]}} with one entry per input, in order.
+     */
+    private CompletableFuture<List<String>> dispatchBatch(String endpoint, List<String> payloads, String task) {
+        HttpRequest request;
+        try {
+            request = buildRequest(endpoint + batchPathSuffix, new JSONObject().put("inputs", new JSONArray(payloads)));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return bulkheads.get(endpointGroup(task)).execute(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    int status = response.statusCode();
+                    if (status == 404 || status == 405 || status == 501) {
+                        throw new BatchingUnsupportedException("Batching not supported for " + task + ". HTTP Status: " + status);
+                    }
+                    if (status != 200) {
+                        logger.error("Failed to perform batched {}. HTTP Status: {}", task, status);
+                        throw new AiUpstreamException("Failed to perform " + task + ". HTTP Status: " + status, status);
+                    }
+                    return parseBatchResponse(response.body());
+                }));
+    }
+
+    private List<String> parseBatchResponse(String body) {
+        String trimmed = body.trim();
+        JSONArray array = trimmed.startsWith("[")
+                ? new JSONArray(trimmed)
+                : new JSONObject(trimmed).getJSONArray("results");
+
+        List<String> results = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            Object item = array.get(i);
+            results.add(item instanceof String ? (String) item : item.toString());
+        }
+        return results;
+    }
+
+    private static float[] parseEmbedding(String body) {
+        String trimmed = body.trim();
+        JSONArray array = trimmed.startsWith("[")
+                ? new JSONArray(trimmed)
+                : new JSONObject(trimmed).getJSONArray("embedding");
+
+        float[] embedding = new float[array.length()];
+        for (int i = 0; i < embedding.length; i++) {
+            embedding[i] = (float) array.getDouble(i);
+        }
+        return embedding;
+    }
+
+    private CompletableFuture<Void> stream(JSONObject body, String task, Consumer<String> onChunk) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder()
+                    .uri(new URI(contentStreamEndpoint))
+                    .timeout(Duration.ofSeconds(streamTimeout))
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                    .header("Accept", "text/event-stream, text/plain")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
                     .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        LineChunkSubscriber subscriber = new LineChunkSubscriber(onChunk);
+        HttpResponse.BodyHandler<Void> handler = info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                : HttpResponse.BodySubscribers.replacing(null);
 
-            if (response.statusCode() != 200) {
-                logger.error("Failed to perform {}. HTTP Status: {}", task, response.statusCode());
-                throw new RuntimeException("Failed to perform " + task + ". HTTP Status: " + response.statusCode());
+        CompletableFuture<Void> result = bulkheads.get(endpointGroup(task)).execute(() -> httpClient.sendAsync(request, handler)
+                .thenCompose(response -> {
+                    if (response.statusCode() != 200) {
+                        logger.error("Failed to perform {}. HTTP Status: {}", task, response.statusCode());
+                        throw new AiUpstreamException("Failed to perform " + task + ". HTTP Status: " + response.statusCode(),
+                                response.statusCode());
+                    }
+                    return subscriber.completion();
+                }), false)
+                .whenComplete((ignored, error) -> {
+                    if (error != null && !(unwrap(error) instanceof CancellationException)) {
+                        logger.error("Error while streaming from {} API: {}", task, unwrap(error).getMessage());
+                    }
+                });
+        // Cancelling the returned future (the client went away) stops reading the upstream body.
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled()) {
+                subscriber.cancel();
             }
+        });
+        return result;
+    }
 
-            return response.body();
-        } catch (Exception e) {
-            logger.error("Error while communicating with {} API: {}", task, e.getMessage());
-            return "Error processing " + task + ": " + e.getMessage();
+    private CompletableFuture<String> lectureContextHandle(Long lectureId, String lectureContext) {
+        return contextRegistry.handleFor(lectureId, lectureContext, this::registerContext, this::releaseContext);
+    }
+
+    /**
+     * Uploads a context body and returns its handle; the response may be the bare
+     * handle or {@code {"handle": "..."}}.
+     */
+    private CompletableFuture<String> registerContext(String context) {
+        return priorityDispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.INTERACTIVE,
+                        () -> dispatch(contextEndpoint, context, "registerContext"))
+                .thenApply(body -> {
+                    String trimmed = body.trim();
+                    return trimmed.startsWith("{") ? new JSONObject(trimmed).getString("handle") : trimmed;
+                });
+    }
+
+    /**
+     * Best-effort DELETE of a handle; the AI service expires unused handles on its own anyway.
+     */
+    private void releaseContext(CompletableFuture<String> handle) {
+        handle.thenCompose(id -> {
+                    HttpRequest request = HttpRequest.newBuilder()
+                            .uri(URI.create(contextEndpoint + "/" + URLEncoder.encode(id, StandardCharsets.UTF_8)))
+                            .timeout(Duration.ofSeconds(httpTimeout))
+                            .DELETE()
+                            .build();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+                })
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        logger.debug("Could not release context handle: {}", unwrap(error).getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Every successful extraction is also added to the keyword index.
+     */
+    private CompletableFuture<String> extractTextLocallyOrRemote(String filePath, AiPriority priority) {
+        long version = new File(filePath).lastModified();
+        return localPdfExtractor.extractText(filePath)
+                .thenCompose(local -> local.isPresent()
+                        ? CompletableFuture.completedFuture(local.get())
+                        : executePdf("/extract", "", filePath, filePath, "extractText", priority))
+                .thenApply(text -> {
+                    pdfIndex.index(filePath, version, text);
+                    return text;
+                });
+    }
+
+    private static String pdfFingerprint(String filePath) {
+        File file = new File(filePath);
+        return filePath + '|' + file.length() + '|' + file.lastModified();
+    }
+
+    private static JSONObject contextHandlePayload(String question, String contextHandle, String voice) {
+        return new JSONObject()
+                .put("question", question)
+                .put("contextHandle", contextHandle)
+                .put("voice", voice);
+    }
+
+    private static JSONObject classroomPayload(String question, String lectureContext, String voice) {
+        return new JSONObject()
+                .put("question", question)
+                .put("context", lectureContext)
+                .put("voice", voice);
+    }
+
+    private HttpRequest buildRequest(String endpoint, JSONObject json) throws Exception {
+        return HttpRequest.newBuilder()
+                .uri(new URI(endpoint))
+                .timeout(Duration.ofSeconds(httpTimeout))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                .build();
+    }
+
+    private String handleFailure(String task, Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof AiServiceUnavailableException) {
+            logger.warn("Rejected {} request: {}", task, cause.getMessage());
+            throw (AiServiceUnavailableException) cause;
+        }
+        logger.error("Error while communicating with {} API: {}", task, cause.getMessage());
+        return ERROR_PREFIX + task + ": " + cause.getMessage();
+    }
+
+    private static String endpointGroup(String task) {
+        switch (task) {
+            case "quiz":
+                return BulkheadRegistry.QUIZ;
+            case "summary":
+                return BulkheadRegistry.SUMMARY;
+            case "extractText":
+            case "getMetadata":
+            case "searchKeywords":
+                return BulkheadRegistry.PDF;
+            default:
+                return BulkheadRegistry.CONTENT;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Joins a future for the blocking API, rethrowing bulkhead rejections as-is
+     * rather than wrapped in a {@link CompletionException}.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
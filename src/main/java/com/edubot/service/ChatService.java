@@ -15,22 +15,27 @@ public class ChatService {
     private final BotActivationService botActivationService;
     private final ChatHistoryRepository chatHistoryRepository;
     private final LearningAnalyticsService learningAnalyticsService;
+    private final StudyMaterialService studyMaterialService;
 
     @Autowired
     public ChatService(
             BotActivationService botActivationService, 
             ChatHistoryRepository chatHistoryRepository,
-            LearningAnalyticsService learningAnalyticsService) {
+            LearningAnalyticsService learningAnalyticsService,
+            StudyMaterialService studyMaterialService) {
         this.botActivationService = botActivationService;
         this.chatHistoryRepository = chatHistoryRepository;
         this.learningAnalyticsService = learningAnalyticsService;
+        this.studyMaterialService = studyMaterialService;
     }
 
     /**
-     * Provides detailed explanations for conceptual questions
+     * Provides detailed explanations for conceptual questions, grounded in the
+     * study material passages most relevant to the question
      */
     private String generateDetailedExplanation(String question, LearningStyle style) {
-        return botActivationService.generateExplanation(question, style);
+        String materialContext = studyMaterialService.buildRetrievalContext(question);
+        return botActivationService.generateExplanation(question, String.valueOf(style), materialContext);
     }
 
     /**
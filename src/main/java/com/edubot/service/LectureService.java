@@ -1,14 +1,30 @@
 package com.edubot.service;
 
-import com.edubot.model.LectureContent;
+import com.edubot.dto.LecturePageDTO;
+import com.edubot.dto.LectureSummaryDTO;
+import com.edubot.exception.ValidationException;
+import com.edubot.model.lecture.LectureContent;
 import com.edubot.repository.LectureContentRepository;
+import com.edubot.service.lecture.LecturePreRenderer;
+import com.edubot.service.lecture.LectureRecordingStore;
+import com.edubot.service.lecture.RecordingEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service for managing classroom-style lectures with Q&A functionality.
@@ -22,10 +38,19 @@ public class LectureService {
     private LectureContentRepository lectureContentRepository;
 
     @Autowired
-    private StudyMaterialService studyMaterialService;
+    private BotActivationService botActivationService;
 
     @Autowired
-    private BotActivationService botActivationService;
+    private LecturePreRenderer lecturePreRenderer;
+
+    @Autowired
+    private LectureRecordingStore lectureRecordingStore;
+
+    @Value("${lecture.listing.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${lecture.listing.max-page-size:200}")
+    private int maxPageSize;
 
     /**
      * Creates a new classroom-style lecture
@@ -49,12 +74,53 @@ public class LectureService {
     }
 
     /**
-     * Retrieves all available lectures
+     * Retrieves all available lectures, including their bodies. Listings should use
+     * {@link #getLectureSummaries} instead.
      */
     public List<LectureContent> getAllLectures() {
         return lectureContentRepository.findAll();
     }
 
+    /**
+     * Lists lecture summaries one page at a time, ordered by scheduled time. Each page
+     * continues after the (scheduledTime, id) of the previous page's last row, so deep
+     * pages cost the same as the first, and the content body is never loaded.
+     *
+     * @throws ValidationException if {@code cursor} was not produced by this method
+     */
+    public LecturePageDTO getLectureSummaries(String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<LectureSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = lectureContentRepository.findSummaries(page);
+        } else {
+            String[] key = decodeCursor(cursor);
+            try {
+                rows = lectureContentRepository.findSummariesAfter(LocalDateTime.parse(key[0]), Long.valueOf(key[1]), page);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ValidationException("Invalid lecture cursor: " + cursor);
+            }
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            LectureSummaryDTO last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getScheduledTime(), last.getId());
+        }
+        return new LecturePageDTO(rows, nextCursor);
+    }
+
+    /**
+     * Fetches only the content body of a lecture
+     */
+    public String getLectureBody(Long lectureId) {
+        return lectureContentRepository.findContentBodyById(lectureId)
+                .orElseThrow(() -> new IllegalArgumentException("Lecture not found with ID: " + lectureId));
+    }
+
     /**
      * Updates an existing lecture while preserving delivery style
      */
@@ -71,32 +137,45 @@ public class LectureService {
         existingLecture.setInteractionType("CLASS_QA");
         existingLecture.setReplayEnabled(true);
         
-        return lectureContentRepository.save(existingLecture);
+        LectureContent saved = lectureContentRepository.save(existingLecture);
+        botActivationService.invalidateLectureContext(lectureId);
+        lecturePreRenderer.invalidate(lectureId);
+        return saved;
     }
 
     /**
-     * Processes lecture content for delivery
+     * Processes lecture content for delivery. Upcoming lectures are pre-rendered ahead of
+     * their scheduled time, so this is normally served from the pre-render store.
      */
     public String processLectureContent(Long lectureId) {
         LectureContent lecture = getLectureById(lectureId);
-        
-        // Process attached study materials
-        String processedContent = studyMaterialService.processMaterialPDF(
-            lecture.getStudyMaterial().getFilePath()
-        );
-        
-        // Format for classroom delivery
-        return botActivationService.formatForClassroomDelivery(processedContent);
+        return lecturePreRenderer.getDeliveryContent(lecture);
     }
 
     /**
-     * Handles classroom Q&A during lecture
+     * Handles classroom Q&A during lecture. The lecture body is registered with the AI
+     * service once and later questions refer to it by handle.
      */
     public String handleClassroomQuestion(Long lectureId, String question) {
         LectureContent lecture = getLectureById(lectureId);
         
         // Generate response in teaching voice
         return botActivationService.generateClassroomResponse(
+            lectureId,
+            question,
+            lecture.getContentBody(),
+            "CLASSROOM_VOICE"
+        );
+    }
+
+    /**
+     * Non-blocking variant of {@link #handleClassroomQuestion}, used by the live-lecture channel
+     */
+    public CompletableFuture<String> handleClassroomQuestionAsync(Long lectureId, String question) {
+        LectureContent lecture = getLectureById(lectureId);
+
+        return botActivationService.generateClassroomResponseAsync(
+            lectureId,
             question,
             lecture.getContentBody(),
             "CLASSROOM_VOICE"
@@ -104,7 +183,38 @@ public class LectureService {
     }
 
     /**
-     * Retrieves lecture recording for replay
+     * Answers several classroom questions about one lecture, loading the lecture and
+     * resolving its context handle once for all of them. Answers are in question order.
+     */
+    public List<CompletableFuture<String>> handleClassroomQuestionsAsync(Long lectureId, List<String> questions) {
+        LectureContent lecture = getLectureById(lectureId);
+
+        return botActivationService.generateClassroomResponsesAsync(
+            lectureId,
+            questions,
+            lecture.getContentBody(),
+            "CLASSROOM_VOICE"
+        );
+    }
+
+    /**
+     * Streams a classroom Q&A answer to {@code onChunk} while it is being generated
+     */
+    public CompletableFuture<Void> streamClassroomQuestion(Long lectureId, String question, Consumer<String> onChunk) {
+        LectureContent lecture = getLectureById(lectureId);
+
+        return botActivationService.streamClassroomResponse(
+            lectureId,
+            question,
+            lecture.getContentBody(),
+            "CLASSROOM_VOICE",
+            onChunk
+        );
+    }
+
+    /**
+     * Retrieves lecture recording for replay. The recording itself is read with
+     * {@link #getReplayEvents}, {@link #seekReplay} and {@link #streamRecording}.
      */
     public LectureContent getReplayContent(Long lectureId) {
         LectureContent lecture = getLectureById(lectureId);
@@ -114,10 +224,82 @@ public class LectureService {
         return lecture;
     }
 
+    /**
+     * Whether the lecture's rules ask for it to be recorded; individual rules take precedence over defaults
+     */
+    public boolean isRecordingEnabled(LectureContent lecture) {
+        if (!lecture.isReplayEnabled()) {
+            return false;
+        }
+        if (lecture.getIndividualLectureRules() != null) {
+            return lecture.getIndividualLectureRules().isRecordLectures();
+        }
+        return lecture.getDefaultLectureRules() != null && lecture.getDefaultLectureRules().isRecordLectures();
+    }
+
+    /**
+     * Appends a media chunk (e.g. the lecturer's audio) to the lecture recording
+     */
+    public RecordingEvent recordMedia(Long lectureId, byte[] data) {
+        if (!isRecordingEnabled(getLectureById(lectureId))) {
+            throw new IllegalStateException("Recording is not enabled for this lecture");
+        }
+        return lectureRecordingStore.append(lectureId, RecordingEvent.Kind.MEDIA, data);
+    }
+
+    /**
+     * Returns recorded events starting {@code fromMillis} into the lecture, located through the time index
+     */
+    public List<RecordingEvent> getReplayEvents(Long lectureId, long fromMillis, int maxEvents) {
+        getReplayContent(lectureId);
+        return lectureRecordingStore.events(lectureId, fromMillis, maxEvents);
+    }
+
+    /**
+     * Returns the byte position in the recording stream to start a range request from
+     */
+    public long seekReplay(Long lectureId, long offsetMillis) {
+        getReplayContent(lectureId);
+        return lectureRecordingStore.seek(lectureId, offsetMillis);
+    }
+
+    public long getRecordingSize(Long lectureId) {
+        getReplayContent(lectureId);
+        return lectureRecordingStore.size(lectureId);
+    }
+
+    /**
+     * Copies a byte range of the recording stream to {@code out}
+     */
+    public void streamRecording(Long lectureId, long position, long length, OutputStream out) throws IOException {
+        lectureRecordingStore.transferTo(lectureId, position, length, out);
+    }
+
     /**
      * Deletes a lecture and associated content
      */
     public void deleteLecture(Long lectureId) {
         lectureContentRepository.deleteById(lectureId);
+        botActivationService.invalidateLectureContext(lectureId);
+        lecturePreRenderer.invalidate(lectureId);
+        lectureRecordingStore.delete(lectureId);
+    }
+
+    private static String encodeCursor(LocalDateTime scheduledTime, Long id) {
+        String key = scheduledTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('|');
+            if (separator > 0) {
+                return new String[] {key.substring(0, separator), key.substring(separator + 1)};
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new ValidationException("Invalid lecture cursor: " + cursor);
     }
-}
\ No newline at end of file
+}
@@ -60,21 +60,37 @@ public class StudentService {
     // ========================= INTERACTION WITH PYTHON SERVICES =========================
 
     public String askQuestion(@NotNull Long studentId, @NotNull String question) {
+        return askQuestion(studentId, null, question);
+    }
+
+    /**
+     * Answers are shared across students through the semantic answer cache, partitioned by subject.
+     */
+    public String askQuestion(@NotNull Long studentId, String subject, @NotNull String question) {
         validateStudentExistence(studentId);
         logger.info("Student {} asked a question: {}", studentId, question);
-        String response = botActivationService.generateEducationalContent(question);
+        String response = botActivationService.generateAnswer(answerNamespace(subject), question, question);
         logActivity(studentId, "Asked Question: " + question);
         return response;
     }
 
     public String getHomeworkHint(@NotNull Long studentId, @NotNull String homeworkQuestion) {
+        return getHomeworkHint(studentId, null, homeworkQuestion);
+    }
+
+    public String getHomeworkHint(@NotNull Long studentId, String subject, @NotNull String homeworkQuestion) {
         validateStudentExistence(studentId);
         logger.info("Homework hint requested by Student ID {}: {}", studentId, homeworkQuestion);
-        String hint = botActivationService.generateEducationalContent("Hint: " + homeworkQuestion);
+        String hint = botActivationService.generateAnswer(answerNamespace(subject) + "/hints",
+                homeworkQuestion, "Hint: " + homeworkQuestion);
         logActivity(studentId, "Requested Homework Hint: " + homeworkQuestion);
         return hint;
     }
 
+    private static String answerNamespace(String subject) {
+        return subject == null || subject.isBlank() ? "general" : subject.trim().toLowerCase();
+    }
+
     private void validateStudentExistence(Long studentId) {
         if (!validateStudent(studentId)) {
             logger.warn("Invalid student ID: {}", studentId);
@@ -1,80 +1,275 @@
 package com.edubot.service;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.edubot.model.content.MaterialChunk;
 import com.edubot.model.material.StudyMaterial;
+import com.edubot.repository.StudyMaterialRepository;
+import com.edubot.service.ai.AiPriority;
+import com.edubot.service.pdf.PdfDeduplicationService;
+import com.edubot.service.search.MaterialChunkStore;
+import com.edubot.service.search.MaterialSearchIndex;
+import com.edubot.service.search.SearchHit;
 
+import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * StudyMaterialService manages CRUD operations and delegates PDF operations to BotActivationService.
+ *
+ * Materials are kept in memory under their normalized title, with a secondary index by
+ * subject, and every change is written through to {@link StudyMaterialRepository}. A change
+ * to one title holds that title's lock (one of {@code TITLE_LOCKS} stripes), so concurrent
+ * edits of the same material are applied one after the other, while the map itself is never
+ * locked during database or index writes. A failed database write restores the fields it
+ * changed, leaving the in-memory view as it was.
  */
 @Service
 public class StudyMaterialService {
 
-    private final List<StudyMaterial> studyMaterials = new ArrayList<>();
+    private static final Logger logger = LoggerFactory.getLogger(StudyMaterialService.class);
+    private static final String SEARCH_SOURCE = "material";
+    private static final int DEFAULT_RELEVANT_MATERIALS = 5;
+    private static final int TITLE_LOCKS = 64;
+
+    private final Map<String, StudyMaterial> materialsByTitle = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> titlesBySubject = new ConcurrentHashMap<>();
+    private final Object[] titleLocks = new Object[TITLE_LOCKS];
+    private final StudyMaterialRepository studyMaterialRepository;
     private final BotActivationService botActivationService;
+    private final PdfDeduplicationService pdfDeduplicationService;
+    private final MaterialSearchIndex materialSearchIndex;
+    private final MaterialChunkStore materialChunkStore;
 
     @Autowired
-    public StudyMaterialService(BotActivationService botActivationService) {
+    public StudyMaterialService(StudyMaterialRepository studyMaterialRepository,
+                                BotActivationService botActivationService,
+                                PdfDeduplicationService pdfDeduplicationService,
+                                MaterialSearchIndex materialSearchIndex,
+                                MaterialChunkStore materialChunkStore) {
+        this.studyMaterialRepository = studyMaterialRepository;
         this.botActivationService = botActivationService;
+        this.pdfDeduplicationService = pdfDeduplicationService;
+        this.materialSearchIndex = materialSearchIndex;
+        this.materialChunkStore = materialChunkStore;
+        for (int i = 0; i < titleLocks.length; i++) {
+            titleLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void loadMaterials() {
+        for (StudyMaterial material : studyMaterialRepository.findAll()) {
+            materialsByTitle.merge(normalize(material.getTitle()), material, StudyMaterialService::newer);
+        }
+        materialsByTitle.forEach((key, material) -> {
+            indexSubject(key, material.getSubject());
+            materialSearchIndex.put(SEARCH_SOURCE, key, material.getTitle(), material.getContent());
+        });
+        materialChunkStore.load(materialsByTitle.values());
+        logger.info("Loaded {} study materials into the title index.", materialsByTitle.size());
     }
 
     // ========================= CRUD OPERATIONS =========================
 
+    /**
+     * Adds a material, or replaces the content and subject of the material that already
+     * has the same title (ignoring case and surrounding whitespace).
+     */
     public String addMaterial(String title, String content, String subject) {
         if (title == null || title.isEmpty() || content == null || content.isEmpty()) {
             throw new IllegalArgumentException("Title and content cannot be empty.");
         }
-        studyMaterials.add(new StudyMaterial(title, content, subject));
+        String key = normalize(title);
+        synchronized (lockFor(key)) {
+            StudyMaterial existing = materialsByTitle.get(key);
+            StudyMaterial saved;
+            if (existing == null) {
+                saved = studyMaterialRepository.save(new StudyMaterial(title, content, subject, null));
+            } else {
+                String previousSubject = existing.getSubject();
+                saved = saveChanges(existing, content, subject);
+                unindexSubject(key, previousSubject);
+            }
+            materialsByTitle.put(key, saved);
+            indexSubject(key, subject);
+            indexForSearch(key, saved);
+        }
         return "Study material '" + title + "' added successfully.";
     }
 
     public List<String> getAllMaterials() {
-        if (studyMaterials.isEmpty()) {
+        if (materialsByTitle.isEmpty()) {
             return List.of("No study materials available.");
         }
-        return studyMaterials.stream()
+        return materialsByTitle.values().stream()
                 .map(StudyMaterial::toString)
                 .collect(Collectors.toList());
     }
 
     public String getMaterialByTitle(String title) {
-        return studyMaterials.stream()
-                .filter(m -> m.getTitle().equalsIgnoreCase(title))
-                .findFirst()
-                .map(StudyMaterial::getContent)
-                .orElse("Study material with title '" + title + "' not found.");
+        StudyMaterial material = title == null ? null : materialsByTitle.get(normalize(title));
+        return material != null
+                ? material.getContent()
+                : "Study material with title '" + title + "' not found.";
+    }
+
+    public List<StudyMaterial> getMaterialsBySubject(String subject) {
+        Set<String> titles = titlesBySubject.get(normalize(subject));
+        if (titles == null) {
+            return List.of();
+        }
+        return titles.stream()
+                .map(materialsByTitle::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     public String updateMaterial(String title, String newContent) {
-        for (StudyMaterial material : studyMaterials) {
-            if (material.getTitle().equalsIgnoreCase(title)) {
-                material.setContent(newContent);
-                return "Study material '" + title + "' updated successfully.";
+        if (title == null) {
+            return "Study material with title 'null' not found.";
+        }
+        String key = normalize(title);
+        synchronized (lockFor(key)) {
+            StudyMaterial existing = materialsByTitle.get(key);
+            if (existing == null) {
+                return "Study material with title '" + title + "' not found.";
             }
+            StudyMaterial saved = saveChanges(existing, newContent, existing.getSubject());
+            materialsByTitle.put(key, saved);
+            indexForSearch(key, saved);
         }
-        return "Study material with title '" + title + "' not found.";
+        return "Study material '" + title + "' updated successfully.";
     }
 
     public String deleteMaterial(String title) {
-        Optional<StudyMaterial> material = studyMaterials.stream()
-                .filter(m -> m.getTitle().equalsIgnoreCase(title))
-                .findFirst();
-
-        if (material.isPresent()) {
-            studyMaterials.remove(material.get());
-            return "Study material '" + title + "' deleted successfully.";
-        } else {
-            return "Study material with title '" + title + "' not found.";
+        if (title == null) {
+            return "Study material with title 'null' not found.";
+        }
+        String key = normalize(title);
+        synchronized (lockFor(key)) {
+            StudyMaterial existing = materialsByTitle.get(key);
+            if (existing == null) {
+                return "Study material with title '" + title + "' not found.";
+            }
+            if (existing.getId() != null) {
+                studyMaterialRepository.deleteById(existing.getId());
+            }
+            materialsByTitle.remove(key, existing);
+            unindexSubject(key, existing.getSubject());
+            materialSearchIndex.remove(SEARCH_SOURCE, key);
+            if (existing.getId() != null) {
+                materialChunkStore.remove(existing.getId());
+            }
+        }
+        return "Study material '" + title + "' deleted successfully.";
+    }
+
+    // ========================= RELEVANCE =========================
+
+    /**
+     * Ranks study materials and subject content against {@code question} with BM25F over
+     * title and body; only the best few are returned.
+     */
+    public List<SearchHit> findRelevantMaterials(String question) {
+        return findRelevantMaterials(question, DEFAULT_RELEVANT_MATERIALS);
+    }
+
+    public List<SearchHit> findRelevantMaterials(String question, int limit) {
+        return materialSearchIndex.search(question, limit);
+    }
+
+    /**
+     * The passages of stored materials most relevant to {@code question}; see {@link MaterialChunkStore}.
+     */
+    public List<MaterialChunk> findRelevantChunks(String question, int limit) {
+        return materialChunkStore.topChunks(question, limit);
+    }
+
+    /**
+     * Prompt context made of the best-matching passages, bounded by {@code search.chunks.context-chars}.
+     */
+    public String buildRetrievalContext(String question) {
+        return materialChunkStore.buildContext(question);
+    }
+
+    // ========================= INDEXING =========================
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
         }
+        return Normalizer.normalize(value, Normalizer.Form.NFC).strip().toLowerCase(Locale.ROOT);
+    }
+
+    private Object lockFor(String titleKey) {
+        return titleLocks[Math.floorMod(titleKey.hashCode(), titleLocks.length)];
+    }
+
+    /**
+     * Applies the new content and subject to the cached material and saves it; if the
+     * save fails, the previous values are put back before the error is rethrown.
+     */
+    private StudyMaterial saveChanges(StudyMaterial material, String content, String subject) {
+        String previousContent = material.getContent();
+        String previousSubject = material.getSubject();
+        material.setContent(content);
+        material.setSubject(subject);
+        try {
+            return studyMaterialRepository.save(material);
+        } catch (RuntimeException e) {
+            material.setContent(previousContent);
+            material.setSubject(previousSubject);
+            throw e;
+        }
+    }
+
+    private void indexSubject(String titleKey, String subject) {
+        titlesBySubject.computeIfAbsent(normalize(subject), s -> ConcurrentHashMap.newKeySet()).add(titleKey);
+    }
+
+    /**
+     * Re-indexes a saved material for ranking and re-chunks it for retrieval.
+     */
+    private void indexForSearch(String titleKey, StudyMaterial material) {
+        materialSearchIndex.put(SEARCH_SOURCE, titleKey, material.getTitle(), material.getContent());
+        if (material.getId() != null) {
+            materialChunkStore.index(material.getId(), material.getTitle(), material.getContent());
+        }
+    }
+
+    private void unindexSubject(String titleKey, String subject) {
+        titlesBySubject.computeIfPresent(normalize(subject), (s, titles) -> {
+            titles.remove(titleKey);
+            return titles.isEmpty() ? null : titles;
+        });
+    }
+
+    private static StudyMaterial newer(StudyMaterial a, StudyMaterial b) {
+        if (a.getUpdatedAt() == null) {
+            return b;
+        }
+        return b.getUpdatedAt() != null && b.getUpdatedAt().isAfter(a.getUpdatedAt()) ? b : a;
     }
 
     // ========================= PDF INTEGRATION =========================
 
+    /**
+     * Long PDFs are summarized in chunks; a failed run can simply be retried and
+     * resumes from the chunks that already succeeded. A file whose content was
+     * summarized before, under any path, is answered from the stored summary.
+     */
     public String processMaterialPDF(String filePath) {
-        return botActivationService.processPDF(filePath);
+        return pdfDeduplicationService.processPDF(filePath, AiPriority.NORMAL);
+    }
+
+    public Optional<Map<String, Object>> getMaterialPDFProgress(String filePath) {
+        return botActivationService.getPDFProgress(filePath);
     }
 }
\ No newline at end of file
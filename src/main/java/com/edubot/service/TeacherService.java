@@ -4,7 +4,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import com.edubot.dto.StudyMaterialRequestDTO;
 import com.edubot.model.teacher.Lecture;
+import com.edubot.service.ingestion.IngestionJob;
+import com.edubot.service.ingestion.IngestionJobService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,21 +25,14 @@ public class TeacherService {
 
     private static final Logger logger = LoggerFactory.getLogger(TeacherService.class);
 
-    private final StudyMaterialService studyMaterialService;
-    private final PDForchestration pdfProcessingService;
-    private final BotActivationService botActivationService;
+    private final IngestionJobService ingestionJobService;
 
     private final Map<String, Map<String, List<Lecture>>> topicLectures = new HashMap<>();
     private final Map<Long, List<Long>> studentParticipation = new HashMap<>();
 
     @Autowired
-    public TeacherService(
-            StudyMaterialService studyMaterialService,
-            PDForchestration pdfProcessingService,
-            BotActivationService botActivationService) {
-        this.studyMaterialService = studyMaterialService;
-        this.pdfProcessingService = pdfProcessingService;
-        this.botActivationService = botActivationService;
+    public TeacherService(IngestionJobService ingestionJobService) {
+        this.ingestionJobService = ingestionJobService;
     }
 
     public void scheduleLecture(@NotNull String subject, @NotNull String topic, @NotNull Lecture lecture) {
@@ -53,11 +49,32 @@ public class TeacherService {
     }
 
     public String uploadAndActivateMaterial(@NotNull String materialTitle, @NotNull String filePath, boolean useSummarization) {
+        return uploadAndActivateMaterial(materialTitle, filePath, "General", useSummarization);
+    }
+
+    public String uploadAndActivateMaterial(@NotNull StudyMaterialRequestDTO materialDTO) {
+        return uploadAndActivateMaterial(materialDTO.getTitle(), materialDTO.getFilePath(),
+                materialDTO.getSubject(), materialDTO.isUseSummarization());
+    }
+
+    /**
+     * Queues extraction (and optional summarization) of the uploaded PDF and returns
+     * the job id immediately; the material is activated once the job completes.
+     */
+    public String uploadAndActivateMaterial(@NotNull String materialTitle, @NotNull String filePath,
+                                            @NotNull String subject, boolean useSummarization) {
         validateInputs(materialTitle, filePath);
-        String rawText = pdfProcessingService.extractText(filePath);
-        String content = useSummarization ? botActivationService.summarizeText(rawText) : rawText;
-        studyMaterialService.addMaterial(materialTitle, content, "General");
-        return "Material uploaded and activated successfully.";
+        IngestionJob job = ingestionJobService.submit(materialTitle, filePath, subject, useSummarization);
+        logger.info("Material '{}' queued for activation as job {}", materialTitle, job.getId());
+        return job.getId();
+    }
+
+    public Optional<IngestionJob> getUploadJob(@NotNull String jobId) {
+        return ingestionJobService.getJob(jobId);
+    }
+
+    public Optional<Map<String, Object>> getUploadJobProgress(@NotNull String jobId) {
+        return ingestionJobService.getSummaryProgress(jobId);
     }
 
     public void trackParticipation(@NotNull Long studentId, @NotNull Long lectureId) {
@@ -66,7 +83,7 @@ public class TeacherService {
     }
 
     private void validateInputs(String materialTitle, String filePath) {
-        if (!new File(filePath).exists()) {
+        if (filePath == null || !new File(filePath).exists()) {
             throw new IllegalArgumentException("The provided file does not exist: " + filePath);
         }
     }
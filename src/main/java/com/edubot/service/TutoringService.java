@@ -1,5 +1,6 @@
 package com.edubot.service;
 
+import com.edubot.service.search.SearchHit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -106,17 +107,26 @@ public class TutoringService {
      */
     public HomeworkAssistance getHomeworkHelp(Long studentId, String question) {
         ProficiencyLevel proficiency = learningAnalyticsService.getProficiencyLevel(studentId);
-        List<Material> relevantMaterials = studyMaterialService.findRelevantMaterials(question);
+        LearningStyle style = learningAnalyticsService.getStudentLearningStyle(studentId);
+        List<SearchHit> relevantMaterials = studyMaterialService.findRelevantMaterials(question);
         
         return HomeworkAssistance.builder()
             .conceptualHint(generateHint(question, proficiency))
             .relatedTopics(findRelatedTopics(question, relevantMaterials))
             .suggestedResources(recommendResources(question, proficiency))
             .practiceProblems(generateSimilarProblems(question, proficiency))
-            .explanations(generateExplanations(question, relevantMaterials))
+            .explanations(List.of(explainWithMaterials(question, style)))
             .build();
     }
 
+    /**
+     * Explains a homework question using only the study material passages that match it
+     */
+    private String explainWithMaterials(String question, LearningStyle style) {
+        String materialContext = studyMaterialService.buildRetrievalContext(question);
+        return botActivationService.generateExplanation(question, String.valueOf(style), materialContext);
+    }
+
     /**
      * Generates comprehensive progress report
      */
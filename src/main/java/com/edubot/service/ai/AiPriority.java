@@ -0,0 +1,13 @@
+package com.edubot.service.ai;
+
+/**
+ * Scheduling class for AI work dispatched through {@link PriorityDispatcher}.
+ */
+public enum AiPriority {
+    /** A person is waiting on the answer, e.g. a student question. */
+    INTERACTIVE,
+    /** Default for API calls without a more specific class. */
+    NORMAL,
+    /** Bulk work such as summarizing uploaded PDFs. */
+    BATCH
+}
@@ -0,0 +1,222 @@
+package com.edubot.service.ai;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed cache for deterministic AI responses.
+ *
+ * Entries are keyed by the SHA-256 of task and input, expire after a fixed TTL and are
+ * held in an LRU memory tier bounded by entry count and bytes. An optional memory-mapped
+ * disk tier receives every write and lets the cache survive restarts.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private final boolean enabled;
+    private final Set<String> cacheableTasks;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final MappedResponseStore diskStore;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public AiResponseCache(
+            @Value("${ai.cache.enabled:true}") boolean enabled,
+            @Value("${ai.cache.tasks:summary,quiz,processPDF}") String cacheableTasks,
+            @Value("${ai.cache.max-entries:1000}") int maxEntries,
+            @Value("${ai.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${ai.cache.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${ai.cache.disk.enabled:false}") boolean diskEnabled,
+            @Value("${ai.cache.disk.path:data/cache/ai-responses.dat}") String diskPath,
+            @Value("${ai.cache.disk.size-mb:256}") int diskSizeMb) {
+        this(enabled, cacheableTasks, maxEntries, maxBytes, Duration.ofMinutes(ttlMinutes),
+                diskEnabled ? openDiskStore(Paths.get(diskPath), diskSizeMb) : null, System::currentTimeMillis);
+    }
+
+    AiResponseCache(boolean enabled, String cacheableTasks, int maxEntries, long maxBytes, Duration ttl,
+                    MappedResponseStore diskStore, LongSupplier clock) {
+        this.enabled = enabled;
+        this.cacheableTasks = Arrays.stream(cacheableTasks.split(","))
+                .map(String::trim)
+                .filter(task -> !task.isEmpty())
+                .collect(Collectors.toSet());
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttl.toMillis();
+        this.diskStore = diskStore;
+        this.clock = clock;
+    }
+
+    public boolean isCacheable(String task) {
+        return enabled && cacheableTasks.contains(task);
+    }
+
+    public Optional<String> get(String task, String input) {
+        String key = key(task, input);
+        long now = clock.getAsLong();
+
+        synchronized (this) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    hits.increment();
+                    return Optional.of(cached.body);
+                }
+                remove(key);
+                expirations.increment();
+            }
+        }
+
+        if (diskStore != null) {
+            MappedResponseStore.Record record = diskStore.get(key, now);
+            if (record != null) {
+                diskHits.increment();
+                synchronized (this) {
+                    store(key, new CachedResponse(record.body, record.expiresAt));
+                }
+                return Optional.of(record.body);
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String task, String input, String body) {
+        String key = key(task, input);
+        long expiresAt = clock.getAsLong() + ttlMillis;
+
+        synchronized (this) {
+            store(key, new CachedResponse(body, expiresAt));
+        }
+        if (diskStore != null) {
+            evictions.add(diskStore.put(key, body, expiresAt));
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+    }
+
+    public synchronized Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("diskHits", diskHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("entries", (long) entries.size());
+        stats.put("bytes", currentBytes);
+        stats.put("diskEntries", diskStore != null ? (long) diskStore.size() : 0L);
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (diskStore == null) {
+            return;
+        }
+        try {
+            diskStore.close();
+        } catch (IOException e) {
+            logger.warn("Failed to flush AI response disk cache: {}", e.getMessage());
+        }
+    }
+
+    // ========================= INTERNALS =========================
+
+    private void store(String key, CachedResponse response) {
+        if (response.sizeBytes > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, response);
+        currentBytes += response.sizeBytes;
+
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+            currentBytes -= eldest.next().sizeBytes;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= removed.sizeBytes;
+        }
+    }
+
+    static String key(String task, String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(task.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static MappedResponseStore openDiskStore(Path path, int sizeMb) {
+        try {
+            return new MappedResponseStore(path, sizeMb * 1024L * 1024L);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("AI response disk cache unavailable at {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class CachedResponse {
+        private final String body;
+        private final long expiresAt;
+        private final long sizeBytes;
+
+        private CachedResponse(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+            this.sizeBytes = 2L * body.length();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.edubot.service.ai;
+
+/**
+ * Signals that an AI endpoint answered with a non-200 HTTP status.
+ */
+public class AiUpstreamException extends RuntimeException {
+
+    private final int statusCode;
+
+    public AiUpstreamException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * True for 5xx answers; 4xx means the request itself was refused and says nothing about the endpoint's health.
+     */
+    public boolean isServerError() {
+        return statusCode >= 500;
+    }
+}
@@ -0,0 +1,63 @@
+package com.edubot.service.ai;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit. The limit grows by
+ * roughly one per window of successful calls while it is being used, and shrinks
+ * by {@code backoffRatio} whenever a call fails or is slower than the latency threshold.
+ */
+final class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdMillis;
+
+    private double limit;
+    private int inFlight;
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Returns a permit that was never used for a call; the limit is left unchanged.
+     */
+    synchronized void cancel() {
+        inFlight--;
+    }
+
+    /**
+     * Returns a permit and adjusts the limit from the call's outcome. A negative
+     * latency means the call is not latency-sensitive (e.g. a long-lived stream).
+     */
+    synchronized void release(long latencyMillis, boolean failed) {
+        boolean utilised = inFlight * 2 >= limit;
+        inFlight--;
+
+        if (failed || latencyMillis > latencyThresholdMillis) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (utilised) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,11 @@
+package com.edubot.service.ai;
+
+/**
+ * Signals that an AI endpoint rejected a batched request, so callers should fall back to single requests.
+ */
+public class BatchingUnsupportedException extends RuntimeException {
+
+    public BatchingUnsupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.edubot.service.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link EndpointBulkhead} per AI endpoint group (content, quiz, summary, pdf),
+ * so a slow model server for one group cannot exhaust threads used by the others.
+ */
+@Component
+public class BulkheadRegistry {
+
+    public static final String CONTENT = "content";
+    public static final String QUIZ = "quiz";
+    public static final String SUMMARY = "summary";
+    public static final String PDF = "pdf";
+
+    @Value("${ai.bulkhead.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${ai.bulkhead.min-limit:2}")
+    private int minLimit;
+
+    @Value("${ai.bulkhead.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${ai.bulkhead.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${ai.bulkhead.latency-threshold-ms:5000}")
+    private long latencyThresholdMillis;
+
+    @Value("${ai.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${ai.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMillis;
+
+    @Value("${ai.circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    private final Map<String, EndpointBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public EndpointBulkhead get(String group) {
+        return bulkheads.computeIfAbsent(group, name -> new EndpointBulkhead(
+                name,
+                new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMillis),
+                new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls, openDurationMillis, halfOpenProbes),
+                System::currentTimeMillis));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        bulkheads.forEach((name, bulkhead) -> stats.put(name, bulkhead.getStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,107 @@
+package com.edubot.service.ai;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last
+ * {@code windowSize} calls reaches the threshold, rejects calls while open, and
+ * lets a few probe calls through once the open duration has elapsed.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesIssued;
+    private int probeSuccesses;
+
+    CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openDurationMillis, int halfOpenProbes) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openDurationMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenProbes) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    synchronized void onResult(boolean failed, long now) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open(now);
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                reset();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open(now);
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized double getFailureRate() {
+        return recorded == 0 ? 0.0 : (double) failures / recorded;
+    }
+
+    synchronized long remainingOpenMillis(long now) {
+        return state == State.OPEN ? Math.max(0, openDurationMillis - (now - openedAt)) : 0;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
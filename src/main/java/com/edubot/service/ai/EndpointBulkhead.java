@@ -0,0 +1,123 @@
+package com.edubot.service.ai;
+
+import com.edubot.exception.AiServiceUnavailableException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Isolates one AI endpoint behind its own adaptive concurrency limit and circuit
+ * breaker. Work beyond the limit, or arriving while the circuit is open, is
+ * rejected immediately with {@link AiServiceUnavailableException} instead of queueing.
+ *
+ * Only errors that say something about the endpoint's health count against the limit
+ * and the circuit: 5xx answers, timeouts and transport failures. 4xx answers, calls
+ * cancelled by the caller and clients that hang up mid-stream count as successes.
+ */
+public class EndpointBulkhead {
+
+    private final String name;
+    private final AimdConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final LongSupplier clock;
+
+    private final LongAdder rejectedByLimit = new LongAdder();
+    private final LongAdder rejectedByCircuit = new LongAdder();
+
+    EndpointBulkhead(String name, AimdConcurrencyLimiter limiter, CircuitBreaker circuitBreaker, LongSupplier clock) {
+        this.name = name;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.clock = clock;
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        return execute(call, true);
+    }
+
+    /**
+     * @param latencySensitive whether call duration should feed the concurrency limit;
+     *                         false for long-lived streams whose duration is not a load signal
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call, boolean latencySensitive) {
+        if (!limiter.tryAcquire()) {
+            rejectedByLimit.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException(
+                    "The " + name + " AI service is busy (concurrency limit " + limiter.getLimit() + " reached). Please retry shortly."));
+        }
+        long now = clock.getAsLong();
+        if (!circuitBreaker.tryAcquire(now)) {
+            limiter.cancel();
+            rejectedByCircuit.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException(
+                    "The " + name + " AI service is unavailable (circuit open, retry in "
+                            + circuitBreaker.remainingOpenMillis(now) / 1000 + "s)."));
+        }
+
+        long start = clock.getAsLong();
+        CompletableFuture<T> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> upstream = started;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        upstream.whenComplete((value, error) -> {
+            long end = clock.getAsLong();
+            boolean failed = isUpstreamFailure(error);
+            limiter.release(latencySensitive ? end - start : -1, failed);
+            circuitBreaker.onResult(failed, end);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        // Cancelling the returned future (e.g. a losing hedge) cancels the call itself; the
+        // slot is still released above, since that action hangs off the call, not the result.
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                upstream.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    static boolean isUpstreamFailure(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause == null || cause instanceof CancellationException) {
+            return false;
+        }
+        if (cause instanceof AiUpstreamException) {
+            return ((AiUpstreamException) cause).isServerError();
+        }
+        // IOException covers HttpTimeoutException and ConnectException; a client abort
+        // surfaces as UncheckedIOException, which is not an IOException.
+        return cause instanceof IOException || cause instanceof TimeoutException;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limiter.getLimit());
+        stats.put("inFlight", limiter.getInFlight());
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("failureRate", circuitBreaker.getFailureRate());
+        stats.put("rejectedByLimit", rejectedByLimit.sum());
+        stats.put("rejectedByCircuit", rejectedByCircuit.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,194 @@
+package com.edubot.service.ai;
+
+import com.edubot.exception.AiServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Tail-latency protection for single AI calls.
+ *
+ * Hedging: for tasks with a configured percentile, a duplicate request is sent once
+ * the primary has been outstanding longer than that percentile of recent latencies,
+ * and whichever succeeds first wins; the losing attempts are cancelled, so calls
+ * should propagate cancellation down to the HTTP exchange. Retries: failed calls are
+ * retried up to the task's limit, except for rejections and 4xx answers, which would
+ * fail the same way again. Both draw from the shared {@link RetryBudget}, so neither
+ * can amplify load during an outage.
+ */
+@Component
+public class HedgedRequestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedRequestExecutor.class);
+    private static final int LATENCY_WINDOW = 256;
+
+    private final RetryBudget retryBudget;
+    private final Map<String, Double> hedgePercentiles;
+    private final Map<String, Integer> maxRetries;
+    private final long minHedgeDelayMillis;
+    private final int minSamples;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    @Autowired
+    public HedgedRequestExecutor(
+            RetryBudget retryBudget,
+            @Value("#{${ai.hedging.percentiles:{'quiz': 0.95}}}") Map<String, Double> hedgePercentiles,
+            @Value("#{${ai.retry.max-retries:{'quiz': 1, 'summary': 1, 'content': 1}}}") Map<String, Integer> maxRetries,
+            @Value("${ai.hedging.min-delay-ms:50}") long minHedgeDelayMillis,
+            @Value("${ai.hedging.min-samples:20}") int minSamples) {
+        this.retryBudget = retryBudget;
+        this.hedgePercentiles = hedgePercentiles;
+        this.maxRetries = maxRetries;
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+        this.minSamples = minSamples;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> CompletableFuture<T> execute(String task, Supplier<CompletableFuture<T>> call) {
+        retryBudget.recordRequest();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(task, call, maxRetries.getOrDefault(task, 0), result);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hedgesSent", hedgesSent.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("retries", retries.sum());
+        stats.put("budgetExhausted", budgetExhausted.sum());
+        stats.put("budgetAvailable", retryBudget.getAvailable());
+        Map<String, Long> delays = new LinkedHashMap<>();
+        hedgePercentiles.keySet().forEach(task -> delays.put(task, hedgeDelay(task)));
+        stats.put("hedgeDelayMillis", delays);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ========================= INTERNALS =========================
+
+    private <T> void attempt(String task, Supplier<CompletableFuture<T>> call, int retriesLeft, CompletableFuture<T> result) {
+        hedged(task, call).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (retriesLeft <= 0 || !isRetryable(cause)) {
+                result.completeExceptionally(cause);
+            } else if (!retryBudget.tryWithdraw()) {
+                budgetExhausted.increment();
+                result.completeExceptionally(cause);
+            } else {
+                retries.increment();
+                logger.debug("Retrying {} after failure: {}", task, cause.getMessage());
+                attempt(task, call, retriesLeft - 1, result);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> hedged(String task, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        launch(task, call, winner, attempts, outstanding, false);
+
+        long delay = hedgePercentiles.containsKey(task) ? hedgeDelay(task) : -1;
+        if (delay >= 0) {
+            scheduler.schedule(() -> {
+                if (winner.isDone()) {
+                    return;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    return;
+                }
+                hedgesSent.increment();
+                outstanding.incrementAndGet();
+                launch(task, call, winner, attempts, outstanding, true);
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        winner.whenComplete((value, error) -> attempts.forEach(attempt -> attempt.cancel(true)));
+        return winner;
+    }
+
+    private <T> void launch(String task, Supplier<CompletableFuture<T>> call, CompletableFuture<T> winner,
+                            List<CompletableFuture<T>> attempts, AtomicInteger outstanding, boolean hedge) {
+        long start = System.currentTimeMillis();
+        CompletableFuture<T> attempt;
+        try {
+            attempt = call.get();
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        attempts.add(attempt);
+        if (winner.isDone()) {
+            // a hedge launched just as the primary won would otherwise miss the cancellation
+            attempt.cancel(true);
+        }
+
+        attempt.whenComplete((value, error) -> {
+            if (error == null) {
+                tracker(task).record(System.currentTimeMillis() - start);
+                if (winner.complete(value) && hedge) {
+                    hedgeWins.increment();
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        });
+    }
+
+    private long hedgeDelay(String task) {
+        long percentile = tracker(task).percentile(minSamples);
+        return percentile < 0 ? -1 : Math.max(minHedgeDelayMillis, percentile);
+    }
+
+    private LatencyTracker tracker(String task) {
+        return latencies.computeIfAbsent(task,
+                name -> new LatencyTracker(LATENCY_WINDOW, hedgePercentiles.getOrDefault(name, 0.95)));
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof AiUpstreamException) {
+            return ((AiUpstreamException) cause).isServerError();
+        }
+        return !(cause instanceof AiServiceUnavailableException)
+                && !(cause instanceof BatchingUnsupportedException)
+                && !(cause instanceof CancellationException);
+    }
+}
@@ -0,0 +1,319 @@
+package com.edubot.service.ai;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Fixed-capacity Hierarchical Navigable Small World graph for approximate
+ * nearest-neighbour search by cosine similarity.
+ *
+ * Vectors are L2-normalized on insert and stored back to back in a single
+ * {@code float[]}; layer-0 links live in a flat {@code int[]}, and only the few
+ * nodes promoted to upper layers allocate extra link arrays. The index is not
+ * thread-safe: callers serialize writes and must not read while writing.
+ */
+final class HnswIndex {
+
+    private final int dimension;
+    private final int capacity;
+    private final int maxConnections;
+    private final int maxBaseConnections;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final float[] vectors;
+    private final int[] levels;
+    private final int[] baseLinks;
+    private final int[] baseLinkCounts;
+    private final int[][][] upperLinks;
+
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int dimension, int capacity, int maxConnections, int efConstruction, long seed) {
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.maxConnections = maxConnections;
+        this.maxBaseConnections = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxConnections);
+        this.random = new Random(seed);
+        this.vectors = new float[capacity * dimension];
+        this.levels = new int[capacity];
+        this.baseLinks = new int[capacity * maxBaseConnections];
+        this.baseLinkCounts = new int[capacity];
+        this.upperLinks = new int[capacity][][];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Inserts a vector and returns its id, or -1 if the index is full.
+     */
+    int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected vector of dimension " + dimension + " but got " + vector.length);
+        }
+        if (size == capacity) {
+            return -1;
+        }
+
+        int id = size++;
+        int level = randomLevel();
+        storeNormalized(id, vector);
+        levels[id] = level;
+        if (level > 0) {
+            upperLinks[id] = new int[level][maxConnections + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = id;
+            maxLevel = level;
+            return id;
+        }
+
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            current = greedyClosest(id, current, layer);
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> candidates = searchLayer(vectors, id * dimension, current, efConstruction, layer);
+            int limit = maxLinks(layer);
+            int linked = 0;
+            for (Candidate candidate : candidates) {
+                if (linked == limit) {
+                    break;
+                }
+                if (candidate.id == id) {
+                    continue;
+                }
+                appendLink(id, layer, candidate.id);
+                connect(candidate.id, id, layer);
+                linked++;
+            }
+            if (!candidates.isEmpty()) {
+                current = candidates.get(0).id;
+            }
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = id;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the most similar stored vector and its cosine similarity, or null if empty.
+     */
+    Candidate nearest(float[] query, int ef) {
+        if (entryPoint < 0) {
+            return null;
+        }
+        float[] normalized = normalize(query);
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            current = greedyClosest(normalized, 0, current, layer);
+        }
+        List<Candidate> results = searchLayer(normalized, 0, current, Math.max(ef, 1), 0);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Copies out the stored (normalized) vector for {@code id}.
+     */
+    float[] vector(int id) {
+        float[] copy = new float[dimension];
+        System.arraycopy(vectors, id * dimension, copy, 0, dimension);
+        return copy;
+    }
+
+    // ========================= GRAPH SEARCH =========================
+
+    private int greedyClosest(int id, int start, int layer) {
+        return greedyClosest(vectors, id * dimension, start, layer);
+    }
+
+    private int greedyClosest(float[] query, int offset, int start, int layer) {
+        int best = start;
+        float bestSimilarity = similarity(query, offset, best);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int count = linkCount(best, layer);
+            for (int i = 0; i < count; i++) {
+                int neighbour = link(best, layer, i);
+                float similarity = similarity(query, offset, neighbour);
+                if (similarity > bestSimilarity) {
+                    bestSimilarity = similarity;
+                    best = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Best-first search of one layer; returns up to {@code ef} candidates, most similar first.
+     */
+    private List<Candidate> searchLayer(float[] query, int offset, int start, int ef, int layer) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.similarity).reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.similarity));
+
+        Candidate first = new Candidate(start, similarity(query, offset, start));
+        visited.set(start);
+        frontier.add(first);
+        results.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.similarity < results.peek().similarity) {
+                break;
+            }
+            int count = linkCount(closest.id, layer);
+            for (int i = 0; i < count; i++) {
+                int neighbour = link(closest.id, layer, i);
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float similarity = similarity(query, offset, neighbour);
+                if (results.size() < ef || similarity > results.peek().similarity) {
+                    Candidate candidate = new Candidate(neighbour, similarity);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingDouble((Candidate c) -> c.similarity).reversed());
+        return ordered;
+    }
+
+    // ========================= LINK STORAGE =========================
+
+    private int maxLinks(int layer) {
+        return layer == 0 ? maxBaseConnections : maxConnections;
+    }
+
+    private int linkCount(int node, int layer) {
+        return layer == 0 ? baseLinkCounts[node] : upperLinks[node][layer - 1][0];
+    }
+
+    private int link(int node, int layer, int index) {
+        return layer == 0 ? baseLinks[node * maxBaseConnections + index] : upperLinks[node][layer - 1][index + 1];
+    }
+
+    private void setLink(int node, int layer, int index, int target) {
+        if (layer == 0) {
+            baseLinks[node * maxBaseConnections + index] = target;
+        } else {
+            upperLinks[node][layer - 1][index + 1] = target;
+        }
+    }
+
+    private void setLinkCount(int node, int layer, int count) {
+        if (layer == 0) {
+            baseLinkCounts[node] = count;
+        } else {
+            upperLinks[node][layer - 1][0] = count;
+        }
+    }
+
+    private void appendLink(int node, int layer, int target) {
+        int count = linkCount(node, layer);
+        setLink(node, layer, count, target);
+        setLinkCount(node, layer, count + 1);
+    }
+
+    /**
+     * Adds a back-link from {@code node} to {@code target}; when the node is already
+     * at its link limit, the least similar neighbour is replaced if the target is closer.
+     */
+    private void connect(int node, int target, int layer) {
+        int count = linkCount(node, layer);
+        if (count < maxLinks(layer)) {
+            appendLink(node, layer, target);
+            return;
+        }
+        int nodeOffset = node * dimension;
+        int weakest = -1;
+        float weakestSimilarity = similarity(vectors, nodeOffset, target);
+        for (int i = 0; i < count; i++) {
+            float similarity = similarity(vectors, nodeOffset, link(node, layer, i));
+            if (similarity < weakestSimilarity) {
+                weakestSimilarity = similarity;
+                weakest = i;
+            }
+        }
+        if (weakest >= 0) {
+            setLink(node, layer, weakest, target);
+        }
+    }
+
+    // ========================= VECTOR MATH =========================
+
+    private int randomLevel() {
+        double uniform = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(uniform) * levelMultiplier);
+    }
+
+    private float similarity(float[] query, int queryOffset, int node) {
+        int nodeOffset = node * dimension;
+        float dot = 0f;
+        for (int i = 0; i < dimension; i++) {
+            dot += query[queryOffset + i] * vectors[nodeOffset + i];
+        }
+        return dot;
+    }
+
+    private void storeNormalized(int id, float[] vector) {
+        float[] normalized = normalize(vector);
+        System.arraycopy(normalized, 0, vectors, id * dimension, dimension);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float scale = norm == 0 ? 0f : (float) (1.0 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    static final class Candidate {
+        final int id;
+        final float similarity;
+
+        Candidate(int id, float similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+    }
+}
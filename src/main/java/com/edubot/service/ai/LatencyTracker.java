@@ -0,0 +1,51 @@
+package com.edubot.service.ai;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent call latencies for one task, used to derive the
+ * hedging delay. Percentiles are recomputed at most once every
+ * {@code RECOMPUTE_INTERVAL} samples to keep the hot path cheap.
+ */
+final class LatencyTracker {
+
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private long cachedPercentile = -1;
+
+    LatencyTracker(int windowSize, double percentile) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        sinceRecompute++;
+    }
+
+    /**
+     * Returns the configured percentile of the window, or -1 until {@code minSamples} have been recorded.
+     */
+    synchronized long percentile(int minSamples) {
+        if (count < minSamples) {
+            return -1;
+        }
+        if (cachedPercentile < 0 || sinceRecompute >= RECOMPUTE_INTERVAL) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            cachedPercentile = sorted[Math.max(0, Math.min(count - 1, index))];
+            sinceRecompute = 0;
+        }
+        return cachedPercentile;
+    }
+}
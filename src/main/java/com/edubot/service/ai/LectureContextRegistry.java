@@ -0,0 +1,157 @@
+package com.edubot.service.ai;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tracks the context handles the AI service has issued for lecture bodies.
+ *
+ * A lecture body is uploaded once and every later question refers to it by handle.
+ * Handles are keyed by lecture id and remember the SHA-256 of the body they were
+ * registered for, so a changed body is never answered from a stale handle even if
+ * {@link #invalidate} was missed. Concurrent first questions share one registration.
+ * At most {@code maxHandles} lectures are tracked; the least recently used handle
+ * is handed back to the caller for release when that limit is exceeded.
+ */
+@Component
+public class LectureContextRegistry {
+
+    private final boolean enabled;
+    private final int minContextChars;
+    private final int maxHandles;
+
+    private final LinkedHashMap<Long, Registration> registrations = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder registered = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Autowired
+    public LectureContextRegistry(
+            @Value("${ai.context.enabled:true}") boolean enabled,
+            @Value("${ai.context.min-chars:1024}") int minContextChars,
+            @Value("${ai.context.max-handles:256}") int maxHandles) {
+        this.enabled = enabled;
+        this.minContextChars = minContextChars;
+        this.maxHandles = Math.max(1, maxHandles);
+    }
+
+    /**
+     * Short bodies are cheaper to send inline than to register.
+     */
+    public boolean shouldRegister(String context) {
+        return enabled && context != null && context.length() >= minContextChars;
+    }
+
+    /**
+     * Returns the handle for this lecture's current body, registering it with
+     * {@code register} if there is none or the body has changed. Handles that
+     * were replaced or evicted are passed to {@code release}.
+     */
+    public CompletableFuture<String> handleFor(Long lectureId, String context,
+                                               Function<String, CompletableFuture<String>> register,
+                                               Consumer<CompletableFuture<String>> release) {
+        String fingerprint = fingerprint(context);
+        List<CompletableFuture<String>> stale = new ArrayList<>();
+        Registration registration;
+
+        synchronized (registrations) {
+            registration = registrations.get(lectureId);
+            if (registration != null && registration.fingerprint.equals(fingerprint)
+                    && !registration.handle.isCompletedExceptionally()) {
+                reused.increment();
+                return registration.handle;
+            }
+            if (registration != null) {
+                stale.add(registration.handle);
+            }
+            registration = new Registration(fingerprint, register.apply(context));
+            registrations.put(lectureId, registration);
+            registered.increment();
+
+            Iterator<Registration> eldest = registrations.values().iterator();
+            while (registrations.size() > maxHandles) {
+                stale.add(eldest.next().handle);
+                eldest.remove();
+                evicted.increment();
+            }
+        }
+
+        Registration current = registration;
+        current.handle.whenComplete((handle, error) -> {
+            if (error != null) {
+                forget(lectureId, current);
+            }
+        });
+        stale.forEach(release);
+        return current.handle;
+    }
+
+    /**
+     * Drops the lecture's handle, returning it so the caller can release it upstream.
+     */
+    public CompletableFuture<String> invalidate(Long lectureId) {
+        Registration removed;
+        synchronized (registrations) {
+            removed = registrations.remove(lectureId);
+        }
+        if (removed == null) {
+            return null;
+        }
+        invalidated.increment();
+        return removed.handle;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("registered", registered.sum());
+        stats.put("reused", reused.sum());
+        stats.put("invalidated", invalidated.sum());
+        stats.put("evicted", evicted.sum());
+        synchronized (registrations) {
+            stats.put("active", (long) registrations.size());
+        }
+        return stats;
+    }
+
+    private void forget(Long lectureId, Registration registration) {
+        synchronized (registrations) {
+            registrations.remove(lectureId, registration);
+        }
+    }
+
+    private static String fingerprint(String context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(context.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Registration {
+        final String fingerprint;
+        final CompletableFuture<String> handle;
+
+        Registration(String fingerprint, CompletableFuture<String> handle) {
+            this.fingerprint = fingerprint;
+            this.handle = handle;
+        }
+    }
+}
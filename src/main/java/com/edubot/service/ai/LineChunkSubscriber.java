@@ -0,0 +1,103 @@
+package com.edubot.service.ai;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Forwards a streamed AI response to a consumer one line at a time, requesting the
+ * next line only after the previous one has been handed off. Both plain chunked
+ * lines and Server-Sent Event {@code data:} lines are accepted. In a plain stream a
+ * blank line is a paragraph break and is forwarded as an empty chunk; once the stream
+ * turns out to be SSE, blank lines only end events and are skipped along with the
+ * other SSE fields.
+ */
+public class LineChunkSubscriber implements Flow.Subscriber<String> {
+
+    private static final String SSE_DATA = "data:";
+
+    private final Consumer<String> onChunk;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private boolean sse;
+
+    public LineChunkSubscriber(Consumer<String> onChunk) {
+        this.onChunk = onChunk;
+    }
+
+    /**
+     * Completes when the upstream body ends, or exceptionally if it fails, the consumer
+     * throws or the stream is {@linkplain #cancel() cancelled}.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Stops reading the upstream body, e.g. because the client went away. Safe to call
+     * before the response has arrived: the subscription is then cancelled as soon as it starts.
+     */
+    public void cancel() {
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        completion.completeExceptionally(new CancellationException("Stream cancelled"));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(String line) {
+        if (cancelled) {
+            return;
+        }
+        try {
+            String chunk = toChunk(line);
+            if (chunk != null) {
+                onChunk.accept(chunk);
+            }
+            subscription.request(1);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+
+    String toChunk(String line) {
+        if (line.isEmpty()) {
+            return sse ? null : "";
+        }
+        if (line.startsWith(SSE_DATA)) {
+            sse = true;
+            String data = line.substring(SSE_DATA.length());
+            return data.startsWith(" ") ? data.substring(1) : data;
+        }
+        if (line.startsWith(":") || line.startsWith("event:") || line.startsWith("id:") || line.startsWith("retry:")) {
+            sse = true;
+            return null;
+        }
+        return line;
+    }
+}
@@ -0,0 +1,315 @@
+package com.edubot.service.ai;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Summarizes documents too large for a single model call.
+ *
+ * The text is split into page/section chunks by {@link TextChunker}, the chunks are
+ * summarized in parallel with at most {@code mapConcurrency} calls in flight, and the
+ * partial summaries are then reduced hierarchically: consecutive summaries are packed
+ * into groups of at most {@code reduceFanIn} that fit in {@code chunkChars}, and each
+ * group is joined and summarized again until one summary remains. A group always takes
+ * at least two summaries (a leftover last one joins the group before it), so every
+ * level shrinks even when the summaries are long.
+ *
+ * Each run is tracked under a caller-supplied job key (typically a document
+ * fingerprint). Successful chunk results are checkpointed, so if some chunks fail the
+ * run fails as a whole but a rerun with the same key only repeats the missing work.
+ * Checkpoints live in memory only: they do not survive a restart, and the least
+ * recently used beyond {@code maxTrackedJobs} are dropped. Progress for recent jobs is
+ * available from {@link #getProgress}.
+ */
+@Component
+public class MapReduceSummarizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapReduceSummarizer.class);
+    private static final String SEPARATOR = "\n\n";
+
+    private final int chunkChars;
+    private final int mapConcurrency;
+    private final int reduceFanIn;
+    private final int maxTrackedJobs;
+
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public MapReduceSummarizer(
+            @Value("${ai.pdf.chunk-chars:12000}") int chunkChars,
+            @Value("${ai.pdf.map-concurrency:4}") int mapConcurrency,
+            @Value("${ai.pdf.reduce-fan-in:8}") int reduceFanIn,
+            @Value("${ai.pdf.max-tracked-jobs:64}") int maxTrackedJobs) {
+        this.chunkChars = chunkChars;
+        this.mapConcurrency = Math.max(1, mapConcurrency);
+        this.reduceFanIn = Math.max(2, reduceFanIn);
+        this.maxTrackedJobs = Math.max(1, maxTrackedJobs);
+    }
+
+    /**
+     * Summarizes {@code text} with {@code summarize}, resuming the checkpoint for
+     * {@code jobKey} if an earlier run failed part-way. A second call while the job
+     * is running joins the running job.
+     */
+    public CompletableFuture<String> summarize(String jobKey, String text, Function<String, CompletableFuture<String>> summarize) {
+        List<String> chunks = TextChunker.split(text, chunkChars);
+        if (chunks.size() <= 1) {
+            return call(summarize, chunks.isEmpty() ? "" : chunks.get(0));
+        }
+
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobKey);
+            if (job != null && job.running != null) {
+                return job.running;
+            }
+            if (job == null || job.chunkCount != chunks.size()) {
+                job = new Job(chunks.size());
+                jobs.put(jobKey, job);
+                Iterator<Job> eldest = jobs.values().iterator();
+                while (jobs.size() > maxTrackedJobs) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            } else if (job.failedChunks.get() > 0) {
+                logger.info("Resuming summary job {} ({} of {} chunks already done)", jobKey, job.mappedChunks.get(), job.chunkCount);
+            }
+            job.start();
+        }
+
+        Job current = job;
+        CompletableFuture<String> result = current.running;
+        reduce(current, 0, chunks, summarize).whenComplete((summary, error) -> {
+            current.finish(error == null);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(summary);
+            }
+        });
+        return result;
+    }
+
+    public Optional<Map<String, Object>> getProgress(String jobKey) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobKey);
+            return job == null ? Optional.empty() : Optional.of(job.snapshot());
+        }
+    }
+
+    // ========================= MAP / REDUCE =========================
+
+    private CompletableFuture<String> reduce(Job job, int level, List<String> inputs,
+                                             Function<String, CompletableFuture<String>> summarize) {
+        return summarizeAll(job, level, inputs, summarize).thenCompose(summaries -> {
+            if (summaries.size() == 1) {
+                return CompletableFuture.completedFuture(summaries.get(0));
+            }
+            job.reduceLevel = level + 1;
+            return reduce(job, level + 1, pack(summaries), summarize);
+        });
+    }
+
+    /**
+     * Joins consecutive summaries into reduce inputs of at most {@code reduceFanIn} summaries
+     * and {@code chunkChars} characters, except that a group always takes a second summary
+     * and a single summary left at the end joins the previous group.
+     */
+    private List<String> pack(List<String> summaries) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder group = new StringBuilder();
+        int members = 0;
+        for (String summary : summaries) {
+            boolean fits = members < 2
+                    || (members < reduceFanIn && group.length() + SEPARATOR.length() + summary.length() <= chunkChars);
+            if (!fits) {
+                groups.add(group.toString());
+                group.setLength(0);
+                members = 0;
+            }
+            if (members > 0) {
+                group.append(SEPARATOR);
+            }
+            group.append(summary);
+            members++;
+        }
+        if (members == 1 && !groups.isEmpty()) {
+            groups.add(groups.remove(groups.size() - 1) + SEPARATOR + group);
+        } else {
+            groups.add(group.toString());
+        }
+        return groups;
+    }
+
+    /**
+     * Summarizes every input of one level that is not already checkpointed, with
+     * at most {@code mapConcurrency} calls in flight.
+     */
+    private CompletableFuture<List<String>> summarizeAll(Job job, int level, List<String> inputs,
+                                                         Function<String, CompletableFuture<String>> summarize) {
+        String[] results = job.results(level, inputs.size());
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                pending.add(i);
+            }
+        }
+
+        CompletableFuture<List<String>> done = new CompletableFuture<>();
+        if (pending.isEmpty()) {
+            done.complete(Arrays.asList(results));
+            return done;
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        int workers = Math.min(mapConcurrency, pending.size());
+        AtomicInteger activeWorkers = new AtomicInteger(workers);
+        Runnable finish = () -> {
+            if (failures.get() > 0) {
+                done.completeExceptionally(new IllegalStateException(failures.get() + " of " + results.length
+                        + " chunks failed at level " + level + "; retry to resume from the completed chunks"));
+            } else {
+                done.complete(Arrays.asList(results));
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            runNext(job, level, inputs, results, pending, summarize, failures, activeWorkers, finish);
+        }
+        return done;
+    }
+
+    /**
+     * Takes chunks off {@code pending} until one is still in flight, then continues from its
+     * completion. Chunks that complete immediately (cache hits, resumed runs) are handled in
+     * this loop rather than by recursing, so a long run of them cannot overflow the stack.
+     */
+    private void runNext(Job job, int level, List<String> inputs, String[] results, Queue<Integer> pending,
+                         Function<String, CompletableFuture<String>> summarize, AtomicInteger failures,
+                         AtomicInteger activeWorkers, Runnable finish) {
+        while (true) {
+            Integer index = pending.poll();
+            if (index == null) {
+                if (activeWorkers.decrementAndGet() == 0) {
+                    finish.run();
+                }
+                return;
+            }
+            CompletableFuture<String> chunk = call(summarize, inputs.get(index));
+            if (chunk.isDone()) {
+                chunk.whenComplete((summary, error) -> record(job, level, index, results, failures, summary, error));
+                continue;
+            }
+            chunk.whenComplete((summary, error) -> {
+                record(job, level, index, results, failures, summary, error);
+                runNext(job, level, inputs, results, pending, summarize, failures, activeWorkers, finish);
+            });
+            return;
+        }
+    }
+
+    private static void record(Job job, int level, int index, String[] results, AtomicInteger failures,
+                               String summary, Throwable error) {
+        if (error == null) {
+            results[index] = summary;
+            job.chunkDone(level);
+        } else {
+            failures.incrementAndGet();
+            job.chunkFailed(level);
+            logger.warn("Summary chunk {} at level {} failed: {}", index, level, error.getMessage());
+        }
+    }
+
+    private static CompletableFuture<String> call(Function<String, CompletableFuture<String>> summarize, String input) {
+        try {
+            return summarize.apply(input);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // ========================= JOB STATE =========================
+
+    private static final class Job {
+
+        final int chunkCount;
+        final List<String[]> levels = new ArrayList<>();
+        final AtomicInteger mappedChunks = new AtomicInteger();
+        final AtomicInteger failedChunks = new AtomicInteger();
+        volatile int reduceLevel;
+        volatile String state = "PENDING";
+        volatile CompletableFuture<String> running;
+
+        Job(int chunkCount) {
+            this.chunkCount = chunkCount;
+        }
+
+        synchronized String[] results(int level, int size) {
+            while (levels.size() <= level) {
+                levels.add(null);
+            }
+            String[] results = levels.get(level);
+            if (results == null || results.length != size) {
+                results = new String[size];
+                levels.set(level, results);
+            }
+            return results;
+        }
+
+        void start() {
+            if ("COMPLETED".equals(state)) {
+                mappedChunks.set(0);
+                reduceLevel = 0;
+            }
+            failedChunks.set(0);
+            state = "RUNNING";
+            running = new CompletableFuture<>();
+        }
+
+        void chunkDone(int level) {
+            if (level == 0) {
+                mappedChunks.incrementAndGet();
+            }
+        }
+
+        void chunkFailed(int level) {
+            failedChunks.incrementAndGet();
+        }
+
+        /**
+         * Completed jobs drop their checkpoint; failed ones keep it for the next attempt.
+         */
+        synchronized void finish(boolean success) {
+            state = success ? "COMPLETED" : "FAILED";
+            if (success) {
+                levels.clear();
+            }
+            running = null;
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("state", state);
+            snapshot.put("totalChunks", chunkCount);
+            snapshot.put("summarizedChunks", mappedChunks.get());
+            snapshot.put("failedChunks", failedChunks.get());
+            snapshot.put("reduceLevel", reduceLevel);
+            return snapshot;
+        }
+    }
+}
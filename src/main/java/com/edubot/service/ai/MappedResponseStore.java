@@ -0,0 +1,173 @@
+package com.edubot.service.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped disk tier for {@link AiResponseCache}.
+ *
+ * Records are laid out as {@code [magic][sha-256 key][expiresAt][length][crc32][utf-8 body]},
+ * the checksum covering key, expiry, length and body. The magic is written last and
+ * recovery stops at the first record whose magic or checksum does not match, so a torn
+ * write is ignored even if the OS flushed the pages out of order. When the file is full
+ * the store starts a new generation from offset zero: the magic there is cleared first
+ * and the index dropped, so the previous generation cannot be mistaken for live records.
+ */
+final class MappedResponseStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedResponseStore.class);
+
+    private static final int MAGIC = 0x45444243;
+    private static final int KEY_BYTES = 32;
+    private static final int EXPIRES_AT = 4 + KEY_BYTES;
+    private static final int LENGTH = EXPIRES_AT + 8;
+    private static final int CHECKSUM = LENGTH + 4;
+    private static final int HEADER_BYTES = CHECKSUM + 4;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Integer> index = new HashMap<>();
+    private int writePosition;
+
+    /**
+     * @param capacityBytes file size; one mapping holds at most {@link Integer#MAX_VALUE} bytes
+     */
+    MappedResponseStore(Path path, long capacityBytes) throws IOException {
+        if (capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Disk cache capacity must be between 1 byte and 2 GB, was " + capacityBytes);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        recover();
+        logger.info("Recovered {} cached AI responses from {}", index.size(), path);
+    }
+
+    /**
+     * The live record for {@code key}, with the expiry it was written with, or null.
+     */
+    synchronized Record get(String key, long now) {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            return null;
+        }
+        long expiresAt = buffer.getLong(offset + EXPIRES_AT);
+        if (expiresAt <= now) {
+            index.remove(key);
+            return null;
+        }
+        int length = buffer.getInt(offset + LENGTH);
+        byte[] body = new byte[length];
+        buffer.get(offset + HEADER_BYTES, body);
+        return new Record(new String(body, StandardCharsets.UTF_8), expiresAt);
+    }
+
+    /**
+     * Appends a record, returning the number of entries dropped because the file had to roll over.
+     */
+    synchronized int put(String key, String value, long expiresAt) {
+        byte[] body = value.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = HEADER_BYTES + body.length;
+        if (recordBytes > buffer.capacity()) {
+            return 0;
+        }
+
+        int dropped = 0;
+        if (writePosition + recordBytes > buffer.capacity()) {
+            dropped = index.size();
+            index.clear();
+            writePosition = 0;
+            buffer.putInt(0, 0);
+            logger.info("AI response disk cache full; starting a new generation ({} entries dropped).", dropped);
+        }
+
+        int offset = writePosition;
+        byte[] keyBytes = HEX.parseHex(key);
+        buffer.put(offset + 4, keyBytes);
+        buffer.putLong(offset + EXPIRES_AT, expiresAt);
+        buffer.putInt(offset + LENGTH, body.length);
+        buffer.putInt(offset + CHECKSUM, checksum(keyBytes, expiresAt, body));
+        buffer.put(offset + HEADER_BYTES, body);
+
+        writePosition = offset + recordBytes;
+        if (writePosition + 4 <= buffer.capacity()) {
+            buffer.putInt(writePosition, 0);
+        }
+        buffer.putInt(offset, MAGIC);
+        index.put(key, offset);
+        return dropped;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized void clear() {
+        index.clear();
+        writePosition = 0;
+        buffer.putInt(0, 0);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    static final class Record {
+        final String body;
+        final long expiresAt;
+
+        private Record(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private void recover() {
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity() && buffer.getInt(position) == MAGIC) {
+            int length = buffer.getInt(position + LENGTH);
+            if (length < 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            byte[] key = new byte[KEY_BYTES];
+            buffer.get(position + 4, key);
+            byte[] body = new byte[length];
+            buffer.get(position + HEADER_BYTES, body);
+            if (buffer.getInt(position + CHECKSUM) != checksum(key, buffer.getLong(position + EXPIRES_AT), body)) {
+                logger.warn("Discarding torn AI response disk cache record at offset {}", position);
+                break;
+            }
+            index.put(HEX.formatHex(key), position);
+            position += HEADER_BYTES + length;
+        }
+        writePosition = position;
+    }
+
+    private static int checksum(byte[] key, long expiresAt, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(ByteBuffer.allocate(12).putLong(expiresAt).putInt(body.length).flip());
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,208 @@
+package com.edubot.service.ai;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects requests for the same AI endpoint over a short window and sends them
+ * upstream as one batch. A batch is flushed when it reaches {@code maxBatchSize}
+ * or {@code maxWaitMillis} after its first request, whichever comes first.
+ *
+ * Endpoints that answer a batch with {@link BatchingUnsupportedException} are
+ * remembered and served with single requests from then on.
+ */
+@Component
+public class MicroBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private final boolean enabled;
+    private final Set<String> batchableTasks;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, PendingBatch> openBatches = new HashMap<>();
+    private final Set<String> unsupportedEndpoints = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder requestsBatched = new LongAdder();
+    private final LongAdder singleFallbacks = new LongAdder();
+
+    @Autowired
+    public MicroBatcher(
+            @Value("${ai.batching.enabled:true}") boolean enabled,
+            @Value("${ai.batching.tasks:summary,content}") String batchableTasks,
+            @Value("${ai.batching.max-batch-size:16}") int maxBatchSize,
+            @Value("${ai.batching.max-wait-ms:15}") long maxWaitMillis) {
+        this.enabled = enabled;
+        this.batchableTasks = Arrays.stream(batchableTasks.split(","))
+                .map(String::trim)
+                .filter(task -> !task.isEmpty())
+                .collect(Collectors.toSet());
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-micro-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isBatchable(String task) {
+        return enabled && maxBatchSize > 1 && batchableTasks.contains(task);
+    }
+
+    /**
+     * Queues {@code payload} for the next batch to {@code endpoint}.
+     *
+     * @param batchCall  sends a list of payloads and returns one response per payload, in order
+     * @param singleCall sends one payload; used for lone requests and as the fallback
+     */
+    public CompletableFuture<String> submit(String endpoint, String payload,
+                                            Function<List<String>, CompletableFuture<List<String>>> batchCall,
+                                            Function<String, CompletableFuture<String>> singleCall) {
+        if (unsupportedEndpoints.contains(endpoint)) {
+            singleFallbacks.increment();
+            return singleCall.apply(payload);
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        PendingBatch ready = null;
+
+        synchronized (openBatches) {
+            PendingBatch batch = openBatches.get(endpoint);
+            if (batch == null) {
+                PendingBatch created = new PendingBatch(endpoint, batchCall, singleCall);
+                openBatches.put(endpoint, created);
+                scheduler.schedule(() -> flush(created), maxWaitMillis, TimeUnit.MILLISECONDS);
+                batch = created;
+            }
+            batch.payloads.add(payload);
+            batch.results.add(result);
+            if (batch.payloads.size() >= maxBatchSize) {
+                openBatches.remove(endpoint);
+                ready = batch;
+            }
+        }
+
+        if (ready != null) {
+            send(ready);
+        }
+        return result;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("batchesSent", batchesSent.sum());
+        stats.put("requestsBatched", requestsBatched.sum());
+        stats.put("singleFallbacks", singleFallbacks.sum());
+        stats.put("unsupportedEndpoints", (long) unsupportedEndpoints.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ========================= INTERNALS =========================
+
+    private void flush(PendingBatch batch) {
+        synchronized (openBatches) {
+            if (!openBatches.remove(batch.endpoint, batch)) {
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    private void send(PendingBatch batch) {
+        if (batch.payloads.size() == 1) {
+            forward(batch.singleCall.apply(batch.payloads.get(0)), batch.results.get(0));
+            return;
+        }
+
+        batchesSent.increment();
+        requestsBatched.add(batch.payloads.size());
+
+        CompletableFuture<List<String>> response;
+        try {
+            response = batch.batchCall.apply(batch.payloads);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((responses, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof BatchingUnsupportedException) {
+                logger.info("Endpoint {} does not support batching; using single requests.", batch.endpoint);
+                unsupportedEndpoints.add(batch.endpoint);
+                sendIndividually(batch);
+            } else if (cause != null) {
+                batch.results.forEach(result -> result.completeExceptionally(cause));
+            } else if (responses == null || responses.size() != batch.payloads.size()) {
+                logger.warn("Batch response from {} did not match request count; resending individually.", batch.endpoint);
+                sendIndividually(batch);
+            } else {
+                for (int i = 0; i < responses.size(); i++) {
+                    batch.results.get(i).complete(responses.get(i));
+                }
+            }
+        });
+    }
+
+    private void sendIndividually(PendingBatch batch) {
+        singleFallbacks.add(batch.payloads.size());
+        for (int i = 0; i < batch.payloads.size(); i++) {
+            forward(batch.singleCall.apply(batch.payloads.get(i)), batch.results.get(i));
+        }
+    }
+
+    private static void forward(CompletableFuture<String> source, CompletableFuture<String> target) {
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                target.completeExceptionally(error);
+            } else {
+                target.complete(value);
+            }
+        });
+    }
+
+    private static final class PendingBatch {
+        private final String endpoint;
+        private final Function<List<String>, CompletableFuture<List<String>>> batchCall;
+        private final Function<String, CompletableFuture<String>> singleCall;
+        private final List<String> payloads = new ArrayList<>();
+        private final List<CompletableFuture<String>> results = new ArrayList<>();
+
+        private PendingBatch(String endpoint,
+                             Function<List<String>, CompletableFuture<List<String>>> batchCall,
+                             Function<String, CompletableFuture<String>> singleCall) {
+            this.endpoint = endpoint;
+            this.batchCall = batchCall;
+            this.singleCall = singleCall;
+        }
+    }
+}
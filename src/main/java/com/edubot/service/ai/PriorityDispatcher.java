@@ -0,0 +1,208 @@
+package com.edubot.service.ai;
+
+import com.edubot.exception.AiServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Priority-aware queue in front of upstream AI calls. Every endpoint group (see
+ * {@link BulkheadRegistry}) has its own lane with at most {@code maxConcurrent} calls
+ * running at once, so batch work piling up on one group never holds the slots another
+ * group's interactive calls need. Within a lane, when a slot frees up the next job is
+ * picked by smooth weighted round-robin across the non-empty classes, so interactive
+ * work goes first but normal and batch work always get their share and cannot starve.
+ */
+@Component
+public class PriorityDispatcher {
+
+    private final int maxConcurrent;
+    private final int maxQueueDepth;
+    private final EnumMap<AiPriority, Integer> weights = new EnumMap<>(AiPriority.class);
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PriorityDispatcher(
+            @Value("${ai.priority.max-concurrent:32}") int maxConcurrent,
+            @Value("${ai.priority.max-queue-depth:500}") int maxQueueDepth,
+            @Value("${ai.priority.weight.interactive:10}") int interactiveWeight,
+            @Value("${ai.priority.weight.normal:4}") int normalWeight,
+            @Value("${ai.priority.weight.batch:1}") int batchWeight) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueueDepth = maxQueueDepth;
+        weights.put(AiPriority.INTERACTIVE, interactiveWeight);
+        weights.put(AiPriority.NORMAL, normalWeight);
+        weights.put(AiPriority.BATCH, batchWeight);
+    }
+
+    /**
+     * Queues {@code call} on the lane of endpoint group {@code group}; the returned future
+     * completes with the call's own result once it has been dispatched and finished.
+     */
+    public <T> CompletableFuture<T> submit(String group, AiPriority priority, Supplier<CompletableFuture<T>> call) {
+        Lane lane = lanes.computeIfAbsent(group, name -> new Lane());
+        Job<T> job = new Job<>(priority, call, System.nanoTime());
+        synchronized (lane) {
+            ArrayDeque<Job<?>> queue = lane.queues.get(priority);
+            if (queue.size() >= maxQueueDepth) {
+                lane.stats.get(priority).rejected++;
+                return CompletableFuture.failedFuture(new AiServiceUnavailableException(
+                        "The AI " + priority.name().toLowerCase() + " queue is full. Please retry shortly."));
+            }
+            queue.addLast(job);
+        }
+        drain(lane);
+        return job.result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxConcurrentPerGroup", maxConcurrent);
+        for (Map.Entry<String, Lane> entry : new TreeMap<>(lanes).entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().getStats());
+        }
+        return snapshot;
+    }
+
+    // ========================= INTERNALS =========================
+
+    /**
+     * Starts queued jobs while the lane has free slots. Only one thread drains a lane at
+     * a time: a call that completes inline, or a submit racing with the drainer, just
+     * returns and leaves the work to the loop already running, which re-checks the lane
+     * on every iteration. The stack therefore stays flat however many calls complete
+     * immediately.
+     */
+    private void drain(Lane lane) {
+        synchronized (lane) {
+            if (lane.draining) {
+                return;
+            }
+            lane.draining = true;
+        }
+        while (true) {
+            Job<?> job;
+            synchronized (lane) {
+                job = lane.running < maxConcurrent ? lane.next() : null;
+                if (job == null) {
+                    lane.draining = false;
+                    return;
+                }
+                lane.running++;
+                ClassStats classStats = lane.stats.get(job.priority);
+                long waited = System.nanoTime() - job.enqueuedAt;
+                classStats.dispatched++;
+                classStats.totalWaitNanos += waited;
+                classStats.maxWaitNanos = Math.max(classStats.maxWaitNanos, waited);
+            }
+            start(lane, job);
+        }
+    }
+
+    private <T> void start(Lane lane, Job<T> job) {
+        CompletableFuture<T> call;
+        try {
+            call = job.call.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((value, error) -> {
+            synchronized (lane) {
+                lane.running--;
+            }
+            if (error != null) {
+                job.result.completeExceptionally(error);
+            } else {
+                job.result.complete(value);
+            }
+            drain(lane);
+        });
+    }
+
+    private final class Lane {
+        private final EnumMap<AiPriority, ArrayDeque<Job<?>>> queues = new EnumMap<>(AiPriority.class);
+        private final EnumMap<AiPriority, Integer> currentWeights = new EnumMap<>(AiPriority.class);
+        private final EnumMap<AiPriority, ClassStats> stats = new EnumMap<>(AiPriority.class);
+        private int running;
+        private boolean draining;
+
+        private Lane() {
+            for (AiPriority priority : AiPriority.values()) {
+                queues.put(priority, new ArrayDeque<>());
+                currentWeights.put(priority, 0);
+                stats.put(priority, new ClassStats());
+            }
+        }
+
+        /**
+         * Smooth weighted round-robin: every non-empty class earns its weight, the richest
+         * class is served and pays back the total, so each class is picked in proportion to its weight.
+         */
+        private Job<?> next() {
+            AiPriority selected = null;
+            int totalWeight = 0;
+            for (AiPriority priority : AiPriority.values()) {
+                if (queues.get(priority).isEmpty()) {
+                    currentWeights.put(priority, 0);
+                    continue;
+                }
+                int weight = weights.get(priority);
+                totalWeight += weight;
+                currentWeights.merge(priority, weight, Integer::sum);
+                if (selected == null || currentWeights.get(priority) > currentWeights.get(selected)) {
+                    selected = priority;
+                }
+            }
+            if (selected == null) {
+                return null;
+            }
+            currentWeights.merge(selected, -totalWeight, Integer::sum);
+            return queues.get(selected).pollFirst();
+        }
+
+        private synchronized Map<String, Object> getStats() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("running", running);
+            for (AiPriority priority : AiPriority.values()) {
+                ClassStats classStats = stats.get(priority);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("queueDepth", queues.get(priority).size());
+                entry.put("dispatched", classStats.dispatched);
+                entry.put("rejected", classStats.rejected);
+                entry.put("avgWaitMillis", classStats.dispatched == 0 ? 0 : classStats.totalWaitNanos / classStats.dispatched / 1_000_000);
+                entry.put("maxWaitMillis", classStats.maxWaitNanos / 1_000_000);
+                snapshot.put(priority.name().toLowerCase(), entry);
+            }
+            return snapshot;
+        }
+    }
+
+    private static final class Job<T> {
+        private final AiPriority priority;
+        private final Supplier<CompletableFuture<T>> call;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Job(AiPriority priority, Supplier<CompletableFuture<T>> call, long enqueuedAt) {
+            this.priority = priority;
+            this.call = call;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static final class ClassStats {
+        private long dispatched;
+        private long rejected;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+    }
+}
@@ -0,0 +1,86 @@
+package com.edubot.service.ai;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Single-flight deduplication for AI calls. Concurrent requests with the same
+ * task and normalized payload share one upstream call and one result; the
+ * entry is dropped as soon as that call completes, so nothing is cached.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalescedHits = new LongAdder();
+
+    /**
+     * Runs {@code call} unless an identical request is already in flight, in which
+     * case the caller joins that request instead. Each caller gets its own copy of
+     * the shared future, so cancelling one does not affect the others.
+     */
+    public CompletableFuture<String> execute(String task, String payload, Supplier<CompletableFuture<String>> call) {
+        String key = key(task, payload);
+        CompletableFuture<String> promise = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, promise);
+
+        if (existing != null) {
+            coalescedHits.increment();
+            logger.debug("Coalesced {} request onto in-flight call.", task);
+            return existing.copy();
+        }
+
+        leaders.increment();
+        try {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(key, promise);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise.copy();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("upstreamCalls", leaders.sum());
+        stats.put("coalescedHits", coalescedHits.sum());
+        stats.put("inFlight", (long) inFlight.size());
+        return stats;
+    }
+
+    static String key(String task, String payload) {
+        return task + '\u0000' + normalize(payload);
+    }
+
+    /**
+     * Payloads differing only in Unicode form or surrounding/repeated whitespace are treated as identical.
+     */
+    static String normalize(String payload) {
+        if (payload == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(payload, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(normalized.trim()).replaceAll(" ");
+    }
+}
@@ -0,0 +1,66 @@
+package com.edubot.service.ai;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Global budget shared by retries and hedged requests. Every original request
+ * deposits {@code ratio} tokens and a small floor refills over time; each extra
+ * attempt withdraws one. During an outage the deposits stop covering withdrawals,
+ * so extra attempts are capped at roughly {@code ratio} of real traffic.
+ */
+@Component
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxTokens;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefill;
+
+    @Autowired
+    public RetryBudget(
+            @Value("${ai.retry.budget.ratio:0.1}") double ratio,
+            @Value("${ai.retry.budget.min-per-second:2}") double minPerSecond,
+            @Value("${ai.retry.budget.max-tokens:100}") double maxTokens) {
+        this(ratio, minPerSecond, maxTokens, System::currentTimeMillis);
+    }
+
+    RetryBudget(double ratio, double minPerSecond, double maxTokens, LongSupplier clock) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxTokens = maxTokens;
+        this.clock = clock;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public synchronized void recordRequest() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    public synchronized double getAvailable() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefill) / 1000.0 * minPerSecond);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,214 @@
+package com.edubot.service.ai;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers previously generated for semantically similar questions.
+ *
+ * Each namespace (typically a subject) owns an {@link HnswIndex} over question
+ * embeddings. A lookup returns the stored answer of the nearest question when its
+ * cosine similarity reaches the configured threshold. Memory is bounded twice: a
+ * namespace holds at most {@code maxEntriesPerNamespace} answers (when full it is
+ * rebuilt from its newest half), and at most {@code maxNamespaces} namespaces are
+ * kept, least recently used first out.
+ */
+@Component
+public class SemanticAnswerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticAnswerCache.class);
+
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int maxEntriesPerNamespace;
+    private final int maxNamespaces;
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int efSearch;
+
+    private final LinkedHashMap<String, Namespace> namespaces = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder evictedNamespaces = new LongAdder();
+
+    @Autowired
+    public SemanticAnswerCache(
+            @Value("${ai.semantic-cache.enabled:true}") boolean enabled,
+            @Value("${ai.semantic-cache.similarity-threshold:0.92}") double similarityThreshold,
+            @Value("${ai.semantic-cache.max-entries-per-namespace:2000}") int maxEntriesPerNamespace,
+            @Value("${ai.semantic-cache.max-namespaces:16}") int maxNamespaces,
+            @Value("${ai.semantic-cache.hnsw.m:16}") int maxConnections,
+            @Value("${ai.semantic-cache.hnsw.ef-construction:100}") int efConstruction,
+            @Value("${ai.semantic-cache.hnsw.ef-search:64}") int efSearch) {
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerNamespace = Math.max(2, maxEntriesPerNamespace);
+        this.maxNamespaces = Math.max(1, maxNamespaces);
+        this.maxConnections = Math.max(2, maxConnections);
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the answer stored for the most similar question in {@code namespace},
+     * if it is at least as similar as the configured threshold.
+     */
+    public Optional<String> lookup(String namespace, float[] embedding) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Namespace target = existing(namespace);
+        Optional<String> answer = target == null ? Optional.empty() : target.lookup(embedding);
+        if (answer.isPresent()) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return answer;
+    }
+
+    public void store(String namespace, float[] embedding, String answer) {
+        if (!enabled || answer == null) {
+            return;
+        }
+        Namespace target = namespaceFor(namespace, embedding.length);
+        if (target.dimension() != embedding.length) {
+            logger.warn("Ignoring embedding of dimension {} for namespace {} (expected {})",
+                    embedding.length, namespace, target.dimension());
+            return;
+        }
+        target.store(embedding, answer);
+        stores.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("stores", stores.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("evictedNamespaces", evictedNamespaces.sum());
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        synchronized (namespaces) {
+            namespaces.forEach((name, namespace) -> sizes.put(name, namespace.size()));
+        }
+        stats.put("namespaces", sizes);
+        return stats;
+    }
+
+    private Namespace existing(String namespace) {
+        synchronized (namespaces) {
+            return namespaces.get(namespace);
+        }
+    }
+
+    private Namespace namespaceFor(String namespace, int dimension) {
+        synchronized (namespaces) {
+            Namespace target = namespaces.get(namespace);
+            if (target == null) {
+                target = new Namespace(dimension);
+                namespaces.put(namespace, target);
+                if (namespaces.size() > maxNamespaces) {
+                    String eldest = namespaces.keySet().iterator().next();
+                    namespaces.remove(eldest);
+                    evictedNamespaces.increment();
+                    logger.info("Evicted semantic cache namespace {}", eldest);
+                }
+            }
+            return target;
+        }
+    }
+
+    // ========================= NAMESPACE =========================
+
+    private final class Namespace {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int dimension;
+        private HnswIndex index;
+        private String[] answers;
+
+        Namespace(int dimension) {
+            this.dimension = dimension;
+            this.index = newIndex();
+            this.answers = new String[maxEntriesPerNamespace];
+        }
+
+        int dimension() {
+            return dimension;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return index.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Optional<String> lookup(float[] embedding) {
+            if (embedding.length != dimension) {
+                return Optional.empty();
+            }
+            lock.readLock().lock();
+            try {
+                HnswIndex.Candidate nearest = index.nearest(embedding, efSearch);
+                if (nearest == null || nearest.similarity < similarityThreshold) {
+                    return Optional.empty();
+                }
+                return Optional.of(answers[nearest.id]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void store(float[] embedding, String answer) {
+            lock.writeLock().lock();
+            try {
+                if (index.isFull()) {
+                    rebuildFromNewestHalf();
+                }
+                int id = index.add(embedding);
+                answers[id] = answer;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Ids are assigned in insertion order, so the newest half is simply the upper half of the id range.
+         */
+        private void rebuildFromNewestHalf() {
+            HnswIndex previous = index;
+            String[] previousAnswers = answers;
+            index = newIndex();
+            answers = new String[maxEntriesPerNamespace];
+            for (int id = previous.size() / 2; id < previous.size(); id++) {
+                answers[index.add(previous.vector(id))] = previousAnswers[id];
+            }
+            rebuilds.increment();
+        }
+
+        private HnswIndex newIndex() {
+            return new HnswIndex(dimension, maxEntriesPerNamespace, maxConnections, efConstruction, System.nanoTime());
+        }
+    }
+}
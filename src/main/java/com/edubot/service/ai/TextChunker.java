@@ -0,0 +1,170 @@
+package com.edubot.service.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits extracted document text into chunks no longer than a character budget.
+ *
+ * Page breaks (form feeds, as emitted by PDF text extraction) are preferred split
+ * points, then blank-line section breaks, then sentence ends, then whitespace; a
+ * hard cut is only made when a single run of text exceeds the budget on its own.
+ * Adjacent short pages are packed into one chunk.
+ *
+ * {@link #spans} cuts at the same boundaries but returns character offsets into the
+ * original text and lets consecutive chunks overlap, for retrieval over stored material.
+ */
+public final class TextChunker {
+
+    private static final char PAGE_BREAK = '\f';
+
+    private TextChunker() {
+    }
+
+    public static List<String> split(String text, int maxChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (String page : text.split(String.valueOf(PAGE_BREAK))) {
+            if (page.isBlank()) {
+                continue;
+            }
+            if (page.length() > maxChars) {
+                flush(current, chunks);
+                splitOversized(page, maxChars, chunks);
+                continue;
+            }
+            if (current.length() > 0 && current.length() + 1 + page.length() > maxChars) {
+                flush(current, chunks);
+            }
+            if (current.length() > 0) {
+                current.append(PAGE_BREAK);
+            }
+            current.append(page);
+        }
+        flush(current, chunks);
+        return chunks;
+    }
+
+    /**
+     * Splits {@code text} into spans of at most {@code maxChars}, each starting up to
+     * {@code overlapChars} before the previous one ended (moved forward to a word start).
+     * The overlap must stay under half of {@code maxChars}, so every span still moves the
+     * window forward by at least half a chunk and the text is not stored several times over.
+     */
+    public static List<Span> spans(String text, int maxChars, int overlapChars) {
+        if (maxChars <= 0 || overlapChars < 0 || overlapChars * 2 >= maxChars) {
+            throw new IllegalArgumentException("maxChars must be positive and more than twice overlapChars");
+        }
+        List<Span> spans = new ArrayList<>();
+        if (text == null) {
+            return spans;
+        }
+        int length = text.length();
+        int start = skipWhitespace(text, 0);
+        while (start < length) {
+            int end = length - start <= maxChars ? length : boundary(text, start, start + maxChars);
+            int trimmedEnd = end;
+            while (trimmedEnd > start && Character.isWhitespace(text.charAt(trimmedEnd - 1))) {
+                trimmedEnd--;
+            }
+            if (trimmedEnd > start) {
+                spans.add(new Span(start, trimmedEnd));
+            }
+            if (end >= length) {
+                break;
+            }
+            int next = Math.max(start + 1, end - overlapChars);
+            if (next < end && next > 0 && !Character.isWhitespace(text.charAt(next - 1))) {
+                while (next < end && !Character.isWhitespace(text.charAt(next))) {
+                    next++;
+                }
+            }
+            start = skipWhitespace(text, next);
+        }
+        return spans;
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void splitOversized(String page, int maxChars, List<String> chunks) {
+        int start = 0;
+        while (page.length() - start > maxChars) {
+            int end = boundary(page, start, start + maxChars);
+            addTrimmed(page.substring(start, end), chunks);
+            start = end;
+        }
+        addTrimmed(page.substring(start), chunks);
+    }
+
+    /**
+     * Finds the best split point in {@code (from, limit]}, searching backwards from the limit.
+     */
+    private static int boundary(String text, int from, int limit) {
+        int minimum = from + (limit - from) / 2;
+
+        int section = text.lastIndexOf("\n\n", limit - 2);
+        if (section >= minimum) {
+            return section + 2;
+        }
+        for (int i = limit - 1; i >= minimum; i--) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '?' || c == '!') && i + 1 < text.length() && Character.isWhitespace(text.charAt(i + 1))) {
+                return i + 1;
+            }
+        }
+        for (int i = limit - 1; i >= minimum; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static void flush(StringBuilder current, List<String> chunks) {
+        if (current.length() > 0) {
+            addTrimmed(current.toString(), chunks);
+            current.setLength(0);
+        }
+    }
+
+    private static void addTrimmed(String chunk, List<String> chunks) {
+        String trimmed = chunk.strip();
+        if (!trimmed.isEmpty()) {
+            chunks.add(trimmed);
+        }
+    }
+
+    /**
+     * A half-open {@code [start, end)} range of the chunked text.
+     */
+    public static final class Span {
+        private final int start;
+        private final int end;
+
+        public Span(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+    }
+}
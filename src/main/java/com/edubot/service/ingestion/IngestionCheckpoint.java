@@ -0,0 +1,72 @@
+package com.edubot.service.ingestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only record of files the directory watcher has finished ingesting.
+ *
+ * A file is identified by absolute path, size and modification time, so replacing a
+ * PDF with a new version makes it eligible again. Entries are written only once the
+ * file's job completes. A job that is journaled but not yet checkpointed when the
+ * service stops is resumed by {@link IngestionJobService} on restart, and the watcher
+ * adopts it by file path and writes the entry when it completes, rather than
+ * submitting the file again.
+ */
+public class IngestionCheckpoint {
+
+    private final Path file;
+    private final Set<String> processed = new HashSet<>();
+
+    public IngestionCheckpoint(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        processed.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read ingestion checkpoint " + file, e);
+            }
+        }
+    }
+
+    public synchronized boolean isProcessed(Path pdf, BasicFileAttributes attributes) {
+        return processed.contains(key(pdf, attributes));
+    }
+
+    public synchronized void markProcessed(Path pdf, BasicFileAttributes attributes) {
+        String key = key(pdf, attributes);
+        if (!processed.add(key)) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, key + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            processed.remove(key);
+            throw new UncheckedIOException("Could not update ingestion checkpoint " + file, e);
+        }
+    }
+
+    public synchronized int size() {
+        return processed.size();
+    }
+
+    private static String key(Path pdf, BasicFileAttributes attributes) {
+        return pdf.toAbsolutePath().normalize() + "\t" + attributes.size() + "\t" + attributes.lastModifiedTime().toMillis();
+    }
+}
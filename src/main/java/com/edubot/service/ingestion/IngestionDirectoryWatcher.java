@@ -0,0 +1,281 @@
+package com.edubot.service.ingestion;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk ingestion daemon: watches configured directories for new PDFs and feeds them
+ * through {@link IngestionJobService}, the same path as teacher uploads.
+ *
+ * Events are collected and flushed in batches every {@code batchWindowMillis}; a file
+ * is only submitted once its size and modification time have been stable for one
+ * window, so PDFs still being copied are not picked up half-written. At most
+ * {@code maxInFlight} watcher jobs run at a time; the rest wait for the next batch.
+ * A file is recorded in the {@link IngestionCheckpoint} once its job completes, so a
+ * crash mid-ingestion picks it up again; files that appeared while the service was down
+ * are found by a scan on startup. Before that scan, unfinished jobs that
+ * {@link IngestionJobService} recovered from its journal for a watched file are adopted
+ * as running, so the file is checkpointed when the resumed job completes instead of
+ * being submitted a second time. A file whose job failed is not retried until it
+ * changes or the service restarts.
+ */
+@Component
+public class IngestionDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionDirectoryWatcher.class);
+
+    private final IngestionJobService ingestionJobService;
+    private final boolean enabled;
+    private final List<Path> directories;
+    private final String subject;
+    private final boolean useSummarization;
+    private final long batchWindowMillis;
+    private final Semaphore inFlight;
+    private final IngestionCheckpoint checkpoint;
+
+    /** Candidate files and the attributes seen at the previous flush, in arrival order. */
+    private final Map<Path, BasicFileAttributes> pending = new LinkedHashMap<>();
+    /** Files with a job in flight and files whose job failed, with the attributes they were submitted with. */
+    private final Map<Path, BasicFileAttributes> running = new ConcurrentHashMap<>();
+    private final Map<Path, BasicFileAttributes> failed = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService batcher;
+
+    @Autowired
+    public IngestionDirectoryWatcher(
+            IngestionJobService ingestionJobService,
+            @Value("${ingestion.watch.enabled:false}") boolean enabled,
+            @Value("${ingestion.watch.directories:}") String directories,
+            @Value("${ingestion.watch.subject:General}") String subject,
+            @Value("${ingestion.watch.summarize:true}") boolean useSummarization,
+            @Value("${ingestion.watch.batch-window-ms:2000}") long batchWindowMillis,
+            @Value("${ingestion.watch.max-in-flight:4}") int maxInFlight,
+            @Value("${ingestion.watch.checkpoint-path:data/jobs/watch-checkpoint.tsv}") String checkpointPath) {
+        this.ingestionJobService = ingestionJobService;
+        this.enabled = enabled;
+        this.directories = Arrays.stream(directories.split(","))
+                .map(String::trim)
+                .filter(directory -> !directory.isEmpty())
+                .map(Paths::get)
+                .collect(Collectors.toList());
+        this.subject = subject;
+        this.useSummarization = useSummarization;
+        this.batchWindowMillis = batchWindowMillis;
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.checkpoint = new IngestionCheckpoint(Paths.get(checkpointPath));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled || directories.isEmpty()) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        adoptRecoveredJobs();
+        for (Path directory : directories) {
+            scan(directory);
+        }
+
+        watchThread = new Thread(this::watchLoop, "ingestion-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        batcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingestion-watch-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batcher.scheduleWithFixedDelay(this::flush, batchWindowMillis, batchWindowMillis, TimeUnit.MILLISECONDS);
+        logger.info("Watching {} for new PDFs ({} already processed)", directories, checkpoint.size());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (batcher != null) {
+            batcher.shutdownNow();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Tracks jobs resumed from the journal for files in a watched directory as running.
+     * They take an in-flight slot when one is free but are adopted either way.
+     */
+    private void adoptRecoveredJobs() {
+        for (IngestionJob job : ingestionJobService.getUnfinishedJobs()) {
+            Path jobFile = Paths.get(job.getFilePath()).toAbsolutePath().normalize();
+            for (Path directory : directories) {
+                if (!directory.toAbsolutePath().normalize().equals(jobFile.getParent())) {
+                    continue;
+                }
+                Path file = directory.resolve(jobFile.getFileName());
+                try {
+                    track(file, Files.readAttributes(file, BasicFileAttributes.class), job.getId(), inFlight.tryAcquire());
+                    logger.info("Adopted resumed ingestion job {} for watched {}", job.getId(), file);
+                } catch (IOException e) {
+                    logger.warn("Could not adopt resumed ingestion job {} for {}: {}", job.getId(), file, e.getMessage());
+                }
+                break;
+            }
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scan(directory);
+                    } else {
+                        offer(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scan(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::offer);
+        } catch (IOException e) {
+            logger.warn("Could not scan {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private synchronized void offer(Path file) {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+            pending.putIfAbsent(file, null);
+        }
+    }
+
+    /**
+     * Submits every pending file whose attributes did not change since the previous flush, up to the in-flight limit.
+     */
+    synchronized void flush() {
+        List<Path> submitted = new ArrayList<>();
+        Iterator<Map.Entry<Path, BasicFileAttributes>> candidates = pending.entrySet().iterator();
+        while (candidates.hasNext()) {
+            Map.Entry<Path, BasicFileAttributes> candidate = candidates.next();
+            Path file = candidate.getKey();
+            BasicFileAttributes current;
+            try {
+                current = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                candidates.remove();
+                continue;
+            }
+            if (!current.isRegularFile() || checkpoint.isProcessed(file, current) || isStable(failed.get(file), current)) {
+                candidates.remove();
+                continue;
+            }
+            if (running.containsKey(file)) {
+                continue;
+            }
+            if (!isStable(candidate.getValue(), current)) {
+                candidate.setValue(current);
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                break;
+            }
+            try {
+                submit(file, current);
+                submitted.add(file);
+                candidates.remove();
+            } catch (RuntimeException e) {
+                inFlight.release();
+                logger.error("Could not queue {} for ingestion: {}", file, e.getMessage());
+            }
+        }
+        if (!submitted.isEmpty()) {
+            logger.info("Queued {} watched PDFs for ingestion, {} still pending", submitted.size(), pending.size());
+        }
+    }
+
+    private void submit(Path file, BasicFileAttributes attributes) {
+        String fileName = file.getFileName().toString();
+        String title = fileName.substring(0, fileName.length() - ".pdf".length());
+        IngestionJob job = ingestionJobService.submit(title, file.toAbsolutePath().toString(), subject, useSummarization);
+        track(file, attributes, job.getId(), true);
+    }
+
+    /**
+     * Marks the file running until its job finishes, then checkpoints or records the failure.
+     */
+    private void track(Path file, BasicFileAttributes attributes, String jobId, boolean holdsPermit) {
+        running.put(file, attributes);
+        ingestionJobService.whenFinished(jobId).whenComplete((finished, error) -> {
+            try {
+                if (error == null && finished.getState() == IngestionJob.State.COMPLETED) {
+                    failed.remove(file);
+                    checkpoint.markProcessed(file, attributes);
+                } else {
+                    failed.put(file, attributes);
+                    logger.warn("Ingestion of watched {} failed: {}", file,
+                            error != null ? error.getMessage() : finished.getError());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not record {} as processed: {}", file, e.getMessage());
+            } finally {
+                running.remove(file);
+                if (holdsPermit) {
+                    inFlight.release();
+                }
+            }
+        });
+    }
+
+    private static boolean isStable(BasicFileAttributes previous, BasicFileAttributes current) {
+        return previous != null
+                && previous.size() == current.size()
+                && previous.lastModifiedTime().equals(current.lastModifiedTime());
+    }
+}
@@ -0,0 +1,123 @@
+package com.edubot.service.ingestion;
+
+import org.json.JSONObject;
+
+import java.time.Instant;
+
+/**
+ * A teacher material upload being processed in the background.
+ *
+ * Instances are mutated only by {@link IngestionJobService}; every state change is
+ * journaled by {@link IngestionJobStore} so jobs survive a restart.
+ */
+public class IngestionJob {
+
+    public enum State {
+        QUEUED, EXTRACTING, SUMMARIZING, COMPLETED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final String title;
+    private final String filePath;
+    private final String subject;
+    private final boolean useSummarization;
+    private final Instant createdAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile int attempts;
+    private volatile String error;
+    private volatile Instant updatedAt;
+
+    public IngestionJob(String id, String title, String filePath, String subject, boolean useSummarization, Instant createdAt) {
+        this.id = id;
+        this.title = title;
+        this.filePath = filePath;
+        this.subject = subject;
+        this.useSummarization = useSummarization;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public boolean isUseSummarization() {
+        return useSummarization;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    void transition(State state, String error) {
+        this.state = state;
+        this.error = error;
+        this.updatedAt = Instant.now();
+    }
+
+    void startAttempt() {
+        attempts++;
+    }
+
+    JSONObject toJson() {
+        return new JSONObject()
+                .put("id", id)
+                .put("title", title)
+                .put("filePath", filePath)
+                .put("subject", subject)
+                .put("useSummarization", useSummarization)
+                .put("createdAt", createdAt.toString())
+                .put("state", state.name())
+                .put("attempts", attempts)
+                .put("error", error == null ? JSONObject.NULL : error)
+                .put("updatedAt", updatedAt.toString());
+    }
+
+    static IngestionJob fromJson(JSONObject json) {
+        IngestionJob job = new IngestionJob(
+                json.getString("id"),
+                json.getString("title"),
+                json.getString("filePath"),
+                json.getString("subject"),
+                json.getBoolean("useSummarization"),
+                Instant.parse(json.getString("createdAt")));
+        job.state = State.valueOf(json.getString("state"));
+        job.attempts = json.getInt("attempts");
+        job.error = json.isNull("error") ? null : json.getString("error");
+        job.updatedAt = Instant.parse(json.getString("updatedAt"));
+        return job;
+    }
+}
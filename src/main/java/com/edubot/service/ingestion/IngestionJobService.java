@@ -0,0 +1,218 @@
+package com.edubot.service.ingestion;
+
+import com.edubot.service.BotActivationService;
+import com.edubot.service.StudyMaterialService;
+import com.edubot.service.ai.AiPriority;
+import com.edubot.service.pdf.PdfDeduplicationService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs teacher material uploads (PDF extraction and optional summarization) on a
+ * background worker pool instead of the request thread. Files already seen under
+ * another path are served from {@link PdfDeduplicationService} without an AI call.
+ *
+ * Jobs are journaled by {@link IngestionJobStore}. On startup every unfinished job
+ * is queued again; a job that has already been started {@code maxAttempts} times
+ * is marked failed instead, so a document that crashes the worker cannot loop forever.
+ * Finished jobs stay queryable for {@code ingestion.retention-days}, like the journal,
+ * and are then evicted from memory by a sweep that runs at most once a minute on submit.
+ */
+@Service
+public class IngestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobService.class);
+    private static final Duration EVICTION_INTERVAL = Duration.ofMinutes(1);
+
+    private final BotActivationService botActivationService;
+    private final StudyMaterialService studyMaterialService;
+    private final PdfDeduplicationService pdfDeduplicationService;
+    private final IngestionJobStore store;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final ExecutorService workers;
+
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<IngestionJob>> completions = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong();
+
+    @Autowired
+    public IngestionJobService(
+            BotActivationService botActivationService,
+            StudyMaterialService studyMaterialService,
+            PdfDeduplicationService pdfDeduplicationService,
+            @Value("${ingestion.workers:2}") int workerCount,
+            @Value("${ingestion.journal-path:data/jobs/ingestion-jobs.jsonl}") String journalPath,
+            @Value("${ingestion.retention-days:7}") int retentionDays,
+            @Value("${ingestion.max-attempts:3}") int maxAttempts) {
+        this.botActivationService = botActivationService;
+        this.studyMaterialService = studyMaterialService;
+        this.pdfDeduplicationService = pdfDeduplicationService;
+        this.retention = Duration.ofDays(retentionDays);
+        this.store = new IngestionJobStore(Paths.get(journalPath), retention);
+        this.maxAttempts = maxAttempts;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "ingestion-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void recover() {
+        int resumed = 0;
+        for (IngestionJob job : store.load()) {
+            jobs.put(job.getId(), job);
+            if (job.getState().isTerminal()) {
+                continue;
+            }
+            if (job.getAttempts() >= maxAttempts) {
+                update(job, IngestionJob.State.FAILED, "Gave up after " + job.getAttempts() + " attempts");
+                continue;
+            }
+            update(job, IngestionJob.State.QUEUED, null);
+            workers.execute(() -> run(job));
+            resumed++;
+        }
+        if (resumed > 0) {
+            logger.info("Resumed {} unfinished ingestion jobs", resumed);
+        }
+    }
+
+    /**
+     * Journals and queues an upload, returning as soon as it is durable.
+     */
+    public IngestionJob submit(String title, String filePath, String subject, boolean useSummarization) {
+        evictFinishedJobs();
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), title, filePath, subject, useSummarization, Instant.now());
+        jobs.put(job.getId(), job);
+        store.save(job);
+        workers.execute(() -> run(job));
+        logger.info("Queued ingestion job {} for '{}'", job.getId(), title);
+        return job;
+    }
+
+    /**
+     * Jobs not yet {@code COMPLETED} or {@code FAILED}, including those resumed from the journal on startup.
+     */
+    public List<IngestionJob> getUnfinishedJobs() {
+        return jobs.values().stream()
+                .filter(job -> !job.getState().isTerminal())
+                .collect(Collectors.toList());
+    }
+
+    public Optional<IngestionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Completes when the job reaches {@code COMPLETED} or {@code FAILED} in this process.
+     */
+    public CompletableFuture<IngestionJob> whenFinished(String jobId) {
+        IngestionJob job = jobs.get(jobId);
+        if (job == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown ingestion job: " + jobId));
+        }
+        CompletableFuture<IngestionJob> completion = completions.computeIfAbsent(jobId, id -> new CompletableFuture<>());
+        if (job.getState().isTerminal()) {
+            completions.remove(jobId);
+            completion.complete(job);
+        }
+        return completion;
+    }
+
+    /**
+     * Chunk-level summarization progress for a job in the {@code SUMMARIZING} state.
+     */
+    public Optional<Map<String, Object>> getSummaryProgress(String jobId) {
+        return botActivationService.getSummaryProgress(summaryKey(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stay unfinished in the journal and are resumed on the next start.
+        workers.shutdownNow();
+    }
+
+    /**
+     * Drops finished jobs older than the retention period from memory, at most once per {@link #EVICTION_INTERVAL}.
+     */
+    private void evictFinishedJobs() {
+        long now = System.currentTimeMillis();
+        long due = nextEviction.get();
+        if (now < due || !nextEviction.compareAndSet(due, now + EVICTION_INTERVAL.toMillis())) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (!job.getState().isTerminal() || !job.getUpdatedAt().isBefore(cutoff)) {
+                return false;
+            }
+            completions.remove(job.getId());
+            return true;
+        });
+    }
+
+    private void run(IngestionJob job) {
+        job.startAttempt();
+        update(job, IngestionJob.State.EXTRACTING, null);
+        try {
+            String content = requireSuccess(pdfDeduplicationService.extractText(job.getFilePath(), AiPriority.BATCH));
+            if (job.isUseSummarization()) {
+                update(job, IngestionJob.State.SUMMARIZING, null);
+                content = requireSuccess(pdfDeduplicationService.summarize(job.getFilePath(), summaryKey(job.getId()),
+                        content, AiPriority.BATCH));
+            }
+            studyMaterialService.addMaterial(job.getTitle(), content, job.getSubject());
+            update(job, IngestionJob.State.COMPLETED, null);
+            logger.info("Ingestion job {} completed", job.getId());
+        } catch (RuntimeException e) {
+            logger.error("Ingestion job {} failed: {}", job.getId(), e.getMessage());
+            update(job, IngestionJob.State.FAILED, e.getMessage());
+        }
+    }
+
+    private void update(IngestionJob job, IngestionJob.State state, String error) {
+        job.transition(state, error);
+        store.save(job);
+        if (state.isTerminal()) {
+            CompletableFuture<IngestionJob> completion = completions.remove(job.getId());
+            if (completion != null) {
+                completion.complete(job);
+            }
+        }
+    }
+
+    private static String requireSuccess(String response) {
+        if (BotActivationService.isErrorResponse(response)) {
+            throw new IllegalStateException(response);
+        }
+        return response;
+    }
+
+    private static String summaryKey(String jobId) {
+        return "ingestion:" + jobId;
+    }
+}
@@ -0,0 +1,133 @@
+package com.edubot.service.ingestion;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only JSON-lines journal of {@link IngestionJob} states.
+ *
+ * Each state change appends the whole job record and is synced to disk before
+ * returning; on load the last record per job wins. The journal is compacted on load
+ * and again whenever it holds more than twice as many records as there are jobs,
+ * dropping finished jobs older than the retention period each time. A torn last line
+ * from a crash mid-write is skipped.
+ */
+public class IngestionJobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobStore.class);
+
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 256;
+
+    private final Path journal;
+    private final Duration retention;
+    private final Map<String, IngestionJob> journaled = new LinkedHashMap<>();
+    private int records;
+
+    public IngestionJobStore(Path journal, Duration retention) {
+        this.journal = journal;
+        this.retention = retention;
+    }
+
+    public synchronized List<IngestionJob> load() {
+        Map<String, IngestionJob> jobs = new LinkedHashMap<>();
+        if (Files.exists(journal)) {
+            try {
+                for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        IngestionJob job = IngestionJob.fromJson(new JSONObject(line));
+                        jobs.put(job.getId(), job);
+                    } catch (JSONException | IllegalArgumentException e) {
+                        logger.warn("Skipping unreadable ingestion journal entry: {}", e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read ingestion journal " + journal, e);
+            }
+        }
+
+        journaled.clear();
+        journaled.putAll(jobs);
+        compact();
+        return new ArrayList<>(journaled.values());
+    }
+
+    public synchronized void save(IngestionJob job) {
+        try {
+            createParent();
+            Files.writeString(journal, job.toJson().toString() + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal ingestion job " + job.getId(), e);
+        }
+        journaled.put(job.getId(), job);
+        records++;
+        if (records >= MIN_RECORDS_BEFORE_COMPACTION && records >= 2 * journaled.size()) {
+            try {
+                compact();
+            } catch (UncheckedIOException e) {
+                // the record itself is durable; compaction is retried on a later save
+                logger.warn("{}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Number of records currently in the journal file.
+     */
+    synchronized int recordCount() {
+        return records;
+    }
+
+    /**
+     * Rewrites the journal with one record per retained job and atomically replaces it.
+     */
+    private void compact() {
+        Instant cutoff = Instant.now().minus(retention);
+        journaled.values().removeIf(job -> job.getState().isTerminal() && job.getUpdatedAt().isBefore(cutoff));
+        try {
+            createParent();
+            Path compacted = journal.resolveSibling(journal.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (IngestionJob job : journaled.values()) {
+                    writer.write(job.toJson().toString());
+                    writer.newLine();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = journaled.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact ingestion journal " + journal, e);
+        }
+    }
+
+    private void createParent() throws IOException {
+        Path parent = journal.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
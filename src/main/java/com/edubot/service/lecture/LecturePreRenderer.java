@@ -0,0 +1,331 @@
+package com.edubot.service.lecture;
+
+import com.edubot.model.lecture.LectureContent;
+import com.edubot.repository.LectureContentRepository;
+import com.edubot.service.BotActivationService;
+import com.edubot.service.ai.AiPriority;
+import com.edubot.service.pdf.PdfDeduplicationService;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Prepares classroom delivery content before a lecture starts, so the burst of
+ * students joining at {@code scheduledTime} is served from memory instead of
+ * waiting on PDF processing and the AI formatter.
+ *
+ * A periodic scan picks up lectures scheduled within {@code lecture.prerender.lead-minutes}
+ * and renders them on a small background pool at {@link AiPriority#BATCH}. Each result
+ * is stored with a fingerprint of the lecture body and attached material; a result whose
+ * fingerprint no longer matches the lecture is never served. {@code LectureService}
+ * also calls {@link #invalidate} when a lecture is edited or deleted.
+ *
+ * Lectures are copied into a {@link Source} on the calling thread, so the render pool
+ * never touches lazily loaded entity state. A render requested on demand runs on the
+ * caller's thread at {@link AiPriority#INTERACTIVE} rather than queueing behind the
+ * background pool; if a background render of the same version is already running, the
+ * caller waits for it for at most {@code lecture.prerender.on-demand-wait-ms} before
+ * rendering on its own.
+ */
+@Component
+public class LecturePreRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LecturePreRenderer.class);
+
+    private final LectureContentRepository lectureContentRepository;
+    private final BiFunction<Source, AiPriority, String> formatter;
+    private final boolean enabled;
+    private final Duration leadTime;
+    private final Duration retention;
+    private final ExecutorService workers;
+    private final long onDemandWaitMillis;
+
+    private final Map<Long, Rendered> rendered = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Rendered>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder preRendered = new LongAdder();
+    private final LongAdder servedFromStore = new LongAdder();
+    private final LongAdder renderedOnDemand = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Autowired
+    public LecturePreRenderer(
+            LectureContentRepository lectureContentRepository,
+            PdfDeduplicationService pdfDeduplicationService,
+            BotActivationService botActivationService,
+            @Value("${lecture.prerender.enabled:true}") boolean enabled,
+            @Value("${lecture.prerender.lead-minutes:30}") long leadMinutes,
+            @Value("${lecture.prerender.retain-hours:6}") long retainHours,
+            @Value("${lecture.prerender.workers:2}") int workerCount,
+            @Value("${lecture.prerender.on-demand-wait-ms:10000}") long onDemandWaitMillis) {
+        this(lectureContentRepository,
+                (source, priority) -> format(pdfDeduplicationService, botActivationService, source, priority),
+                enabled, Duration.ofMinutes(leadMinutes), Duration.ofHours(retainHours),
+                newWorkerPool(workerCount), onDemandWaitMillis);
+    }
+
+    LecturePreRenderer(LectureContentRepository lectureContentRepository,
+                       BiFunction<Source, AiPriority, String> formatter,
+                       boolean enabled,
+                       Duration leadTime,
+                       Duration retention,
+                       ExecutorService workers,
+                       long onDemandWaitMillis) {
+        this.lectureContentRepository = lectureContentRepository;
+        this.formatter = formatter;
+        this.enabled = enabled;
+        this.leadTime = leadTime;
+        this.retention = retention;
+        this.workers = workers;
+        this.onDemandWaitMillis = onDemandWaitMillis;
+    }
+
+    /**
+     * Renders every lecture starting within the lead time that has no current result,
+     * and drops results for lectures that ended more than the retention period ago.
+     */
+    @Scheduled(fixedDelayString = "${lecture.prerender.scan-interval-ms:60000}",
+            initialDelayString = "${lecture.prerender.initial-delay-ms:15000}")
+    public void scan() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int queued = 0;
+        for (LectureContent lecture : lectureContentRepository.findByScheduledTimeBetween(now, now.plus(leadTime))) {
+            if (prerender(Source.of(lecture))) {
+                queued++;
+            }
+        }
+        LocalDateTime cutoff = now.minus(retention);
+        rendered.values().removeIf(entry -> entry.scheduledTime != null && entry.scheduledTime.isBefore(cutoff));
+        if (queued > 0) {
+            logger.info("Queued {} upcoming lectures for pre-rendering.", queued);
+        }
+    }
+
+    /**
+     * Returns the delivery content for {@code lecture}, rendering it now (at interactive
+     * priority) if no current pre-rendered result exists.
+     */
+    public String getDeliveryContent(LectureContent lecture) {
+        return getDeliveryContent(Source.of(lecture));
+    }
+
+    String getDeliveryContent(Source source) {
+        Optional<String> stored = current(source);
+        if (stored.isPresent()) {
+            servedFromStore.increment();
+            return stored.get();
+        }
+        renderedOnDemand.increment();
+        String key = renderKey(source);
+        CompletableFuture<Rendered> created = new CompletableFuture<>();
+        CompletableFuture<Rendered> running = inFlight.putIfAbsent(key, created);
+        if (running == null) {
+            return renderShared(key, created, source, AiPriority.INTERACTIVE).content;
+        }
+        try {
+            return running.get(onDemandWaitMillis, TimeUnit.MILLISECONDS).content;
+        } catch (TimeoutException e) {
+            logger.info("Pre-render of lecture {} still running after {} ms, rendering on demand.",
+                    source.lectureId, onDemandWaitMillis);
+            return render(source, AiPriority.INTERACTIVE).content;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for lecture " + source.lectureId + " to render", e);
+        }
+    }
+
+    public void invalidate(Long lectureId) {
+        rendered.remove(lectureId);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stored", rendered.size());
+        stats.put("inFlight", inFlight.size());
+        stats.put("preRendered", preRendered.sum());
+        stats.put("servedFromStore", servedFromStore.sum());
+        stats.put("renderedOnDemand", renderedOnDemand.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // ========================= RENDERING =========================
+
+    private Optional<String> current(Source source) {
+        Rendered entry = rendered.get(source.lectureId);
+        if (entry == null || !entry.fingerprint.equals(source.fingerprint)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.content);
+    }
+
+    /**
+     * Queues a background render unless a current result exists or this version of the
+     * lecture is already being rendered.
+     *
+     * @return whether a render was queued
+     */
+    boolean prerender(Source source) {
+        if (current(source).isPresent()) {
+            return false;
+        }
+        String key = renderKey(source);
+        CompletableFuture<Rendered> created = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, created) != null) {
+            return false;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    renderShared(key, created, source, AiPriority.BATCH);
+                } catch (RuntimeException ignored) {
+                    // logged and counted by renderShared
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Renders on the current thread and publishes the outcome to callers sharing {@code created}.
+     */
+    private Rendered renderShared(String key, CompletableFuture<Rendered> created, Source source, AiPriority priority) {
+        try {
+            Rendered result = render(source, priority);
+            created.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("Rendering lecture {} failed: {}", source.lectureId, e.getMessage());
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private Rendered render(Source source, AiPriority priority) {
+        String content = formatter.apply(source, priority);
+        if (BotActivationService.isErrorResponse(content)) {
+            throw new IllegalStateException(content);
+        }
+        Rendered result = new Rendered(source.fingerprint, content, source.scheduledTime);
+        rendered.put(source.lectureId, result);
+        if (priority == AiPriority.BATCH) {
+            preRendered.increment();
+        }
+        return result;
+    }
+
+    private static String format(PdfDeduplicationService pdfDeduplicationService, BotActivationService botActivationService,
+                                 Source source, AiPriority priority) {
+        String text = source.materialPath != null
+                ? pdfDeduplicationService.processPDF(source.materialPath, priority)
+                : source.contentBody;
+        return BotActivationService.isErrorResponse(text)
+                ? text
+                : botActivationService.formatForClassroomDelivery(text, priority);
+    }
+
+    private static String renderKey(Source source) {
+        return source.lectureId + ":" + source.fingerprint;
+    }
+
+    private static String fingerprint(String contentBody, String materialPath) {
+        String material = materialPath == null ? "" : materialPath;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(contentBody).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(material.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int workerCount) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "lecture-prerender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The parts of a lecture a render depends on, copied while the entity is still attached.
+     */
+    static final class Source {
+        final Long lectureId;
+        final String contentBody;
+        final String materialPath;
+        final LocalDateTime scheduledTime;
+        final String fingerprint;
+
+        Source(Long lectureId, String contentBody, String materialPath, LocalDateTime scheduledTime) {
+            this.lectureId = lectureId;
+            this.contentBody = contentBody;
+            this.materialPath = materialPath;
+            this.scheduledTime = scheduledTime;
+            this.fingerprint = fingerprint(contentBody, materialPath);
+        }
+
+        static Source of(LectureContent lecture) {
+            String materialPath = lecture.getStudyMaterial() == null ? null : lecture.getStudyMaterial().getFilePath();
+            return new Source(lecture.getId(), lecture.getContentBody(), materialPath, lecture.getScheduledTime());
+        }
+    }
+
+    private static final class Rendered {
+        final String fingerprint;
+        final String content;
+        final LocalDateTime scheduledTime;
+
+        Rendered(String fingerprint, String content, LocalDateTime scheduledTime) {
+            this.fingerprint = fingerprint;
+            this.content = content;
+            this.scheduledTime = scheduledTime;
+        }
+    }
+}
@@ -0,0 +1,675 @@
+package com.edubot.service.lecture;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented store for lecture recordings: transcript events and media
+ * blobs written sequentially while a lecture runs, and read back through memory maps.
+ *
+ * Each lecture gets a directory under {@code lecture.recording.dir} holding numbered
+ * segment files of at most {@code lecture.recording.segment-bytes} and a sparse time
+ * index. Records are laid out as {@code [magic][timestamp][kind][length][crc32][payload]};
+ * the segments concatenated form the recording stream that players fetch with HTTP
+ * range requests. The index holds a {@code (timestamp, position)} pair for the first
+ * record of every segment and at least every {@code lecture.recording.index-interval-ms},
+ * so seeking to a time offset scans at most one interval of records.
+ *
+ * Segments that have rolled over never change again and are mapped once at their final
+ * length; the active segment is read through a {@link FileChannel} instead, so appends
+ * never force a remap. On startup sealed segments are trusted as they are; only the
+ * last segment is scanned, and a torn record at its end is truncated.
+ */
+@Component
+public class LectureRecordingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LectureRecordingStore.class);
+
+    private static final int MAGIC = 0x4C524543;
+    static final int HEADER_BYTES = 4 + 8 + 1 + 4 + 4;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".rec";
+    private static final String INDEX_FILE = "index.idx";
+
+    private final Path root;
+    private final long segmentBytes;
+    private final long indexIntervalMillis;
+    private final LongSupplier clock;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    private final LongAdder recordsAppended = new LongAdder();
+    private final LongAdder bytesAppended = new LongAdder();
+    private final LongAdder segmentsRolled = new LongAdder();
+    private final LongAdder seeks = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    @Autowired
+    public LectureRecordingStore(
+            @Value("${lecture.recording.dir:data/recordings}") String directory,
+            @Value("${lecture.recording.segment-bytes:67108864}") long segmentBytes,
+            @Value("${lecture.recording.index-interval-ms:5000}") long indexIntervalMillis) {
+        this(Path.of(directory), segmentBytes, indexIntervalMillis, System::currentTimeMillis);
+    }
+
+    LectureRecordingStore(Path root, long segmentBytes, long indexIntervalMillis, LongSupplier clock) {
+        if (segmentBytes <= HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment-bytes must be between " + (HEADER_BYTES + 1)
+                    + " and " + Integer.MAX_VALUE);
+        }
+        this.root = root;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalMillis = indexIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Appends a record stamped with the current time and returns it.
+     */
+    public RecordingEvent append(Long lectureId, RecordingEvent.Kind kind, byte[] payload) {
+        try {
+            return recording(lectureId, true).append(kind, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to recording of lecture " + lectureId, e);
+        }
+    }
+
+    public boolean exists(Long lectureId) {
+        return recording(lectureId, false) != null;
+    }
+
+    /**
+     * Length of the recording stream in bytes.
+     */
+    public long size(Long lectureId) {
+        Recording recording = recording(lectureId, false);
+        return recording == null ? 0 : recording.snapshot().size;
+    }
+
+    /**
+     * Returns the stream position of the first record at or after {@code offsetMillis}
+     * into the recording, or the stream length if there is none.
+     */
+    public long seek(Long lectureId, long offsetMillis) {
+        Recording recording = recording(lectureId, false);
+        if (recording == null) {
+            return 0;
+        }
+        seeks.increment();
+        try {
+            return seek(recording, recording.snapshot(), offsetMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording of lecture " + lectureId, e);
+        }
+    }
+
+    /**
+     * Returns up to {@code maxEvents} records starting at {@code fromOffsetMillis}.
+     * Transcript records carry their text; media records only their payload location.
+     */
+    public List<RecordingEvent> events(Long lectureId, long fromOffsetMillis, int maxEvents) {
+        Recording recording = recording(lectureId, false);
+        List<RecordingEvent> events = new ArrayList<>();
+        if (recording == null) {
+            return events;
+        }
+        seeks.increment();
+        try {
+            Snapshot snapshot = recording.snapshot();
+            long position = seek(recording, snapshot, fromOffsetMillis);
+            while (events.size() < maxEvents && position < snapshot.size) {
+                RecordHeader header = readHeader(snapshot, position);
+                String text = null;
+                if (header.kind == RecordingEvent.Kind.TRANSCRIPT) {
+                    byte[] payload = new byte[header.length];
+                    read(snapshot, position + HEADER_BYTES, payload);
+                    text = new String(payload, StandardCharsets.UTF_8);
+                }
+                events.add(new RecordingEvent(header.kind, header.timestamp - snapshot.firstTimestamp, position,
+                        position + HEADER_BYTES, header.length, text));
+                position += HEADER_BYTES + header.length;
+            }
+            return events;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording of lecture " + lectureId, e);
+        }
+    }
+
+    /**
+     * Copies {@code length} bytes of the recording stream starting at {@code position} to {@code out}.
+     */
+    public void transferTo(Long lectureId, long position, long length, OutputStream out) throws IOException {
+        Recording recording = recording(lectureId, false);
+        Snapshot snapshot = recording == null ? Snapshot.EMPTY : recording.snapshot();
+        if (position < 0 || length < 0 || position + length > snapshot.size) {
+            throw new IllegalArgumentException("Range " + position + "+" + length
+                    + " is outside the recording of lecture " + lectureId);
+        }
+        byte[] chunk = new byte[(int) Math.min(COPY_BUFFER_BYTES, Math.max(1, length))];
+        long remaining = length;
+        while (remaining > 0) {
+            int count = (int) Math.min(remaining, chunk.length);
+            count = read(snapshot, position, chunk, 0, count);
+            out.write(chunk, 0, count);
+            position += count;
+            remaining -= count;
+        }
+        bytesServed.add(length);
+    }
+
+    /**
+     * Flushes the recording and releases its file handles; it stays readable and can be appended to again.
+     */
+    public void close(Long lectureId) {
+        Recording recording = recordings.get(lectureId);
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public void delete(Long lectureId) {
+        Recording recording = recordings.remove(lectureId);
+        if (recording != null) {
+            recording.close();
+        }
+        Path directory = root.resolve(String.valueOf(lectureId));
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete recording of lecture {}: {}", lectureId, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openRecordings", recordings.size());
+        stats.put("recordsAppended", recordsAppended.sum());
+        stats.put("bytesAppended", bytesAppended.sum());
+        stats.put("segmentsRolled", segmentsRolled.sum());
+        stats.put("seeks", seeks.sum());
+        stats.put("bytesServed", bytesServed.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recordings.values().forEach(Recording::close);
+    }
+
+    // ========================= READING =========================
+
+    private Recording recording(Long lectureId, boolean create) {
+        Recording existing = recordings.get(lectureId);
+        if (existing != null) {
+            return existing;
+        }
+        Path directory = root.resolve(String.valueOf(lectureId));
+        if (!create && !Files.isDirectory(directory)) {
+            return null;
+        }
+        return recordings.computeIfAbsent(lectureId, id -> {
+            try {
+                return new Recording(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open recording of lecture " + id, e);
+            }
+        });
+    }
+
+    private long seek(Recording recording, Snapshot snapshot, long offsetMillis) throws IOException {
+        if (snapshot.size == 0) {
+            return 0;
+        }
+        long target = snapshot.firstTimestamp + Math.max(0, offsetMillis);
+        long position = recording.floorPosition(target);
+        while (position < snapshot.size) {
+            RecordHeader header = readHeader(snapshot, position);
+            if (header.timestamp >= target) {
+                break;
+            }
+            position += HEADER_BYTES + header.length;
+        }
+        return position;
+    }
+
+    private static RecordHeader readHeader(Snapshot snapshot, long position) throws IOException {
+        byte[] bytes = new byte[HEADER_BYTES];
+        read(snapshot, position, bytes);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("No recording record at position " + position);
+        }
+        long timestamp = header.getLong();
+        RecordingEvent.Kind kind = RecordingEvent.Kind.of(header.get());
+        int length = header.getInt();
+        return new RecordHeader(timestamp, kind, length);
+    }
+
+    private static void read(Snapshot snapshot, long position, byte[] destination) throws IOException {
+        int done = 0;
+        while (done < destination.length) {
+            done += read(snapshot, position + done, destination, done, destination.length - done);
+        }
+    }
+
+    /**
+     * Reads up to {@code count} bytes from the segment holding {@code position}; returns the number read.
+     */
+    private static int read(Snapshot snapshot, long position, byte[] destination, int offset, int count)
+            throws IOException {
+        int segmentIndex = snapshot.segmentAt(position);
+        Segment segment = snapshot.segments.get(segmentIndex);
+        long segmentEnd = segmentIndex + 1 < snapshot.segments.size()
+                ? snapshot.segments.get(segmentIndex + 1).base
+                : snapshot.size;
+        int local = (int) (position - segment.base);
+        int available = (int) Math.min(count, segmentEnd - position);
+        segment.read(local, destination, offset, available);
+        return available;
+    }
+
+    // ========================= RECORDINGS =========================
+
+    private final class Recording {
+        private final Path directory;
+        private final List<Segment> segments = new ArrayList<>();
+        private long[] indexTimes = new long[64];
+        private long[] indexPositions = new long[64];
+        private int indexSize;
+        private FileChannel indexChannel;
+        private long size;
+        private long firstTimestamp = -1;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private boolean indexNextAppend;
+
+        private Recording(Path directory) throws IOException {
+            this.directory = directory;
+            Files.createDirectories(directory);
+            recover();
+        }
+
+        synchronized RecordingEvent append(RecordingEvent.Kind kind, byte[] payload) throws IOException {
+            int recordBytes = HEADER_BYTES + payload.length;
+            if (recordBytes > segmentBytes) {
+                throw new IllegalArgumentException("Recording record of " + payload.length
+                        + " bytes does not fit in a segment");
+            }
+            Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (active == null || (active.length > 0 && active.length + recordBytes > segmentBytes)) {
+                if (active != null) {
+                    active.rollOver();
+                    segmentsRolled.increment();
+                }
+                active = new Segment(segmentPath(segments.size()), size);
+                segments.add(active);
+                indexNextAppend = true;
+            }
+
+            long timestamp = Math.max(clock.getAsLong(), lastTimestamp);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putLong(timestamp)
+                    .put(kind.code())
+                    .putInt(payload.length)
+                    .putInt((int) crc.getValue())
+                    .flip();
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            FileChannel writer = active.writer();
+            writer.position(active.length);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                writer.write(new ByteBuffer[] {header, body});
+            }
+
+            long position = size;
+            active.length += recordBytes;
+            size += recordBytes;
+            if (firstTimestamp < 0) {
+                firstTimestamp = timestamp;
+            }
+            lastTimestamp = timestamp;
+            if (indexNextAppend || indexSize == 0 || timestamp - indexTimes[indexSize - 1] >= indexIntervalMillis) {
+                addIndexEntry(timestamp, position);
+                writeIndexEntry(timestamp, position);
+                indexNextAppend = false;
+            }
+            recordsAppended.increment();
+            bytesAppended.add(recordBytes);
+            String text = kind == RecordingEvent.Kind.TRANSCRIPT ? new String(payload, StandardCharsets.UTF_8) : null;
+            return new RecordingEvent(kind, timestamp - firstTimestamp, position, position + HEADER_BYTES,
+                    payload.length, text);
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(new ArrayList<>(segments), size, firstTimestamp);
+        }
+
+        /**
+         * Position of the last index entry at or before {@code timestamp}.
+         */
+        synchronized long floorPosition(long timestamp) {
+            int low = 0;
+            int high = indexSize - 1;
+            long position = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (indexTimes[mid] <= timestamp) {
+                    position = indexPositions[mid];
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return position;
+        }
+
+        synchronized void close() {
+            try {
+                if (!segments.isEmpty()) {
+                    segments.get(segments.size() - 1).seal();
+                }
+                if (indexChannel != null) {
+                    indexChannel.force(false);
+                    indexChannel.close();
+                    indexChannel = null;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not close recording in {}: {}", directory, e.getMessage());
+            }
+        }
+
+        private Path segmentPath(int number) {
+            return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        }
+
+        private void addIndexEntry(long timestamp, long position) {
+            if (indexSize == indexTimes.length) {
+                indexTimes = Arrays.copyOf(indexTimes, indexSize * 2);
+                indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+            }
+            indexTimes[indexSize] = timestamp;
+            indexPositions[indexSize] = position;
+            indexSize++;
+        }
+
+        private void writeIndexEntry(long timestamp, long position) throws IOException {
+            if (indexChannel == null) {
+                indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putLong(timestamp).putLong(position).flip();
+            while (entry.hasRemaining()) {
+                indexChannel.write(entry);
+            }
+        }
+
+        private void recover() throws IOException {
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing
+                        .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                                && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                Segment segment = new Segment(file, size);
+                segment.length = Files.size(file);
+                segments.add(segment);
+                size += segment.length;
+            }
+            if (segments.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < segments.size() - 1; i++) {
+                segments.get(i).full = true;
+            }
+
+            Segment last = segments.get(segments.size() - 1);
+            Path indexPath = directory.resolve(INDEX_FILE);
+            if (Files.exists(indexPath)) {
+                ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+                while (entries.remaining() >= INDEX_ENTRY_BYTES) {
+                    long timestamp = entries.getLong();
+                    long position = entries.getLong();
+                    if (position >= last.base) {
+                        break;
+                    }
+                    addIndexEntry(timestamp, position);
+                }
+            }
+            if (indexSize > 0) {
+                lastTimestamp = indexTimes[indexSize - 1];
+            }
+            scanLastSegment(last);
+
+            ByteBuffer rewritten = ByteBuffer.allocate(indexSize * INDEX_ENTRY_BYTES);
+            for (int i = 0; i < indexSize; i++) {
+                rewritten.putLong(indexTimes[i]).putLong(indexPositions[i]);
+            }
+            Files.write(indexPath, rewritten.array(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            if (size > 0) {
+                byte[] header = new byte[HEADER_BYTES];
+                segments.get(0).read(0, header, 0, HEADER_BYTES);
+                firstTimestamp = ByteBuffer.wrap(header).getLong(4);
+            }
+            indexNextAppend = last.length == 0;
+            logger.info("Recovered lecture recording {} ({} segments, {} bytes).", directory, segments.size(), size);
+        }
+
+        /**
+         * Validates the records of the last segment, rebuilding its index entries and
+         * truncating anything after the last complete record.
+         */
+        private void scanLastSegment(Segment last) throws IOException {
+            long valid = 0;
+            try (FileChannel channel = FileChannel.open(last.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (last.length > 0) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, last.length);
+                    while (valid + HEADER_BYTES <= last.length && buffer.getInt((int) valid) == MAGIC) {
+                        int offset = (int) valid;
+                        long timestamp = buffer.getLong(offset + 4);
+                        byte kind = buffer.get(offset + 12);
+                        int length = buffer.getInt(offset + 13);
+                        int checksum = buffer.getInt(offset + 17);
+                        if (kind < 1 || kind > RecordingEvent.Kind.values().length
+                                || length < 0 || valid + HEADER_BYTES + length > last.length) {
+                            break;
+                        }
+                        byte[] payload = new byte[length];
+                        buffer.get(offset + HEADER_BYTES, payload);
+                        CRC32 crc = new CRC32();
+                        crc.update(payload);
+                        if ((int) crc.getValue() != checksum) {
+                            break;
+                        }
+                        if (valid == 0 || timestamp - indexTimes[indexSize - 1] >= indexIntervalMillis) {
+                            addIndexEntry(timestamp, last.base + valid);
+                        }
+                        lastTimestamp = timestamp;
+                        valid += HEADER_BYTES + length;
+                    }
+                }
+                if (valid < last.length) {
+                    logger.warn("Truncating {} torn bytes from {}.", last.length - valid, last.path);
+                    channel.truncate(valid);
+                }
+            }
+            size = last.base + valid;
+            last.length = valid;
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long base;
+        private volatile long length;
+        private volatile boolean full;
+        private FileChannel writer;
+        private FileChannel reader;
+        private MappedByteBuffer mapped;
+
+        private Segment(Path path, long base) {
+            this.path = path;
+            this.base = base;
+        }
+
+        synchronized FileChannel writer() throws IOException {
+            if (writer == null) {
+                writer = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            return writer;
+        }
+
+        synchronized void seal() throws IOException {
+            if (writer != null) {
+                writer.force(false);
+                writer.close();
+                writer = null;
+            }
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+
+        /**
+         * Seals a segment that the recording has moved past; it is never appended to again.
+         */
+        void rollOver() throws IOException {
+            seal();
+            full = true;
+        }
+
+        /**
+         * Copies {@code count} bytes at {@code local} into {@code destination}.
+         */
+        void read(int local, byte[] destination, int offset, int count) throws IOException {
+            if (full) {
+                mapping().get(local, destination, offset, count);
+                return;
+            }
+            ByteBuffer target = ByteBuffer.wrap(destination, offset, count);
+            long position = local;
+            while (target.hasRemaining()) {
+                FileChannel channel = reader();
+                try {
+                    int read = channel.read(target, position);
+                    if (read < 0) {
+                        throw new EOFException("Recording segment " + path + " ends before " + (local + count));
+                    }
+                    position += read;
+                } catch (ClosedByInterruptException e) {
+                    throw e;
+                } catch (ClosedChannelException e) {
+                    // sealed under us; reopen and carry on
+                    dropReader(channel);
+                }
+            }
+        }
+
+        private synchronized MappedByteBuffer mapping() throws IOException {
+            if (mapped == null) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                }
+            }
+            return mapped;
+        }
+
+        private synchronized FileChannel reader() throws IOException {
+            if (reader == null) {
+                reader = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            return reader;
+        }
+
+        private synchronized void dropReader(FileChannel closed) {
+            if (reader == closed) {
+                reader = null;
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(List.of(), 0, -1);
+
+        private final List<Segment> segments;
+        private final long size;
+        private final long firstTimestamp;
+
+        private Snapshot(List<Segment> segments, long size, long firstTimestamp) {
+            this.segments = segments;
+            this.size = size;
+            this.firstTimestamp = firstTimestamp;
+        }
+
+        /**
+         * Index of the segment holding {@code position}.
+         */
+        private int segmentAt(long position) {
+            int low = 0;
+            int high = segments.size() - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (segments.get(mid).base <= position) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class RecordHeader {
+        private final long timestamp;
+        private final RecordingEvent.Kind kind;
+        private final int length;
+
+        private RecordHeader(long timestamp, RecordingEvent.Kind kind, int length) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.length = length;
+        }
+    }
+}
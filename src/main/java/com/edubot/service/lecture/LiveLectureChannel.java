@@ -0,0 +1,170 @@
+package com.edubot.service.lecture;
+
+import com.edubot.model.lecture.LectureContent;
+import com.edubot.service.LectureService;
+import com.edubot.service.ai.TextChunker;
+
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes lecture events to the live-lecture connections: the monologue, streamed
+ * segment by segment every {@code lecture.live.monologue-interval-ms}, and rule changes.
+ * Q&A answers are published by {@link LiveQuestionAggregator} through {@link #publish}.
+ *
+ * While a monologue runs for a lecture whose rules ask for recording, every published
+ * event is also appended to its {@link LectureRecordingStore} recording as a transcript record.
+ */
+@Component
+public class LiveLectureChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveLectureChannel.class);
+
+    private final LectureService lectureService;
+    private final LiveLectureSessions sessions;
+    private final LectureRecordingStore recordingStore;
+    private final int segmentChars;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, Monologue> monologues = new ConcurrentHashMap<>();
+    private final Set<Long> recording = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LiveLectureChannel(
+            LectureService lectureService,
+            LiveLectureSessions sessions,
+            LectureRecordingStore recordingStore,
+            @Value("${lecture.live.monologue-segment-chars:600}") int segmentChars,
+            @Value("${lecture.live.monologue-interval-ms:4000}") long intervalMillis) {
+        this.lectureService = lectureService;
+        this.sessions = sessions;
+        this.recordingStore = recordingStore;
+        this.segmentChars = segmentChars;
+        this.intervalMillis = intervalMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-lecture-monologue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts streaming the lecture's delivery content, replacing a monologue already running.
+     *
+     * @return the number of segments that will be published
+     */
+    public int startMonologue(Long lectureId) {
+        LectureContent lecture = lectureService.getLectureById(lectureId);
+        List<String> segments = TextChunker.split(lectureService.processLectureContent(lectureId), segmentChars);
+        Monologue monologue = new Monologue(lectureId, segments);
+        Monologue previous = monologues.put(lectureId, monologue);
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (lectureService.isRecordingEnabled(lecture)) {
+            recording.add(lectureId);
+        } else {
+            stopRecording(lectureId);
+        }
+        monologue.future = scheduler.scheduleAtFixedRate(monologue, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Streaming lecture {} in {} segments to {} connections.",
+                lectureId, segments.size(), sessions.subscriberCount(lectureId));
+        return segments.size();
+    }
+
+    public boolean stopMonologue(Long lectureId) {
+        Monologue monologue = monologues.remove(lectureId);
+        if (monologue == null) {
+            return false;
+        }
+        monologue.cancel();
+        publish(lectureId, "monologueEnd", new JSONObject().put("completed", false));
+        stopRecording(lectureId);
+        return true;
+    }
+
+    public void publishRuleChange(Long lectureId, String ruleKey, String ruleValue) {
+        JSONObject fields = new JSONObject().put("ruleKey", ruleKey);
+        if (ruleValue != null) {
+            fields.put("ruleValue", ruleValue);
+        }
+        publish(lectureId, "ruleChange", fields);
+    }
+
+    /**
+     * Broadcasts an event to the lecture and records it if the lecture is being recorded.
+     */
+    public void publish(Long lectureId, String type, JSONObject fields) {
+        String payload = sessions.publish(lectureId, type, fields);
+        if (!recording.contains(lectureId)) {
+            return;
+        }
+        try {
+            recordingStore.append(lectureId, RecordingEvent.Kind.TRANSCRIPT, payload.getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            logger.warn("Could not record {} event for lecture {}: {}", type, lectureId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void stopRecording(Long lectureId) {
+        if (recording.remove(lectureId)) {
+            recordingStore.close(lectureId);
+        }
+    }
+
+    private final class Monologue implements Runnable {
+        private final Long lectureId;
+        private final List<String> segments;
+        private volatile ScheduledFuture<?> future;
+        private int next;
+
+        private Monologue(Long lectureId, List<String> segments) {
+            this.lectureId = lectureId;
+            this.segments = segments;
+        }
+
+        @Override
+        public void run() {
+            if (next < segments.size()) {
+                publish(lectureId, "monologue", new JSONObject()
+                        .put("index", next)
+                        .put("total", segments.size())
+                        .put("text", segments.get(next)));
+                next++;
+                return;
+            }
+            if (monologues.remove(lectureId, this)) {
+                publish(lectureId, "monologueEnd", new JSONObject().put("completed", true));
+                stopRecording(lectureId);
+            }
+            cancel();
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.edubot.service.lecture;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.RemoteEndpoint;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.NativeWebSocketSession;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcast engine for live lectures: tracks the WebSocket connections subscribed to
+ * each lecture and delivers monologue segments, Q&A answers and rule changes to them.
+ *
+ * A broadcast serializes its payload once into a single {@link TextMessage} and only
+ * enqueues that shared message on each connection, so the caller's cost is one queue
+ * offer per recipient. Every connection has a bounded queue of
+ * {@code lecture.live.queue-capacity} messages drained by a small writer pool, with at
+ * most one send in flight per connection. Connections backed by a JSR-356 session are
+ * written with its async remote, so a writer thread only starts a send and a dead peer
+ * cannot pin it; other connections fall back to blocking sends on the writer thread.
+ * When a queue is full the oldest message is dropped; a connection that keeps dropping
+ * ({@code lecture.live.max-consecutive-drops}) or whose current send has been pending
+ * longer than {@code lecture.live.send-time-limit-ms} is closed as a slow consumer, so
+ * it never holds up the rest of the class.
+ */
+@Component
+public class LiveLectureSessions {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveLectureSessions.class);
+    private static final int DRAIN_BATCH = 32;
+
+    private final int queueCapacity;
+    private final int maxConsecutiveDrops;
+    private final long sendTimeLimitMillis;
+    private final ExecutorService writers;
+
+    private final Map<Long, Set<Connection>> connectionsByLecture = new ConcurrentHashMap<>();
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder recipients = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder messagesDropped = new LongAdder();
+    private final LongAdder slowConsumersClosed = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder fanOutNanos = new LongAdder();
+    private final LongAccumulator maxFanOutNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder sendNanos = new LongAdder();
+    private final LongAccumulator maxSendNanos = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    public LiveLectureSessions(
+            @Value("${lecture.live.queue-capacity:256}") int queueCapacity,
+            @Value("${lecture.live.max-consecutive-drops:256}") int maxConsecutiveDrops,
+            @Value("${lecture.live.send-time-limit-ms:5000}") long sendTimeLimitMillis,
+            @Value("${lecture.live.writer-threads:8}") int writerThreads) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxConsecutiveDrops = Math.max(1, maxConsecutiveDrops);
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "live-lecture-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void join(Long lectureId, WebSocketSession session) {
+        Connection connection = new Connection(lectureId, session, asyncRemote(session));
+        connections.put(session.getId(), connection);
+        connectionsByLecture.computeIfAbsent(lectureId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+    }
+
+    public void leave(Long lectureId, WebSocketSession session) {
+        Connection connection = connections.remove(session.getId());
+        if (connection == null) {
+            return;
+        }
+        connection.queue.clear();
+        unsubscribe(connection);
+    }
+
+    /**
+     * Broadcasts an event to the lecture as {@code {"type", "lectureId", "seq", ...fields}}.
+     * {@code seq} increases by one with every event of the lecture, so clients can spot
+     * messages dropped for them; numbering restarts once the lecture has no connections.
+     *
+     * @return the serialized event, as sent to the connections
+     */
+    public String publish(Long lectureId, String type, JSONObject fields) {
+        String payload = fields.put("type", type)
+                .put("lectureId", lectureId)
+                .put("seq", sequences.computeIfAbsent(lectureId, id -> new AtomicLong()).incrementAndGet())
+                .toString();
+        broadcast(lectureId, payload);
+        return payload;
+    }
+
+    /**
+     * Queues {@code payload} for every connection of the lecture; the message is built once and shared.
+     */
+    public void broadcast(Long lectureId, String payload) {
+        Set<Connection> subscribers = connectionsByLecture.get(lectureId);
+        if (subscribers == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        TextMessage message = new TextMessage(payload);
+        int count = 0;
+        for (Connection connection : subscribers) {
+            connection.enqueue(message);
+            count++;
+        }
+        long elapsed = System.nanoTime() - start;
+        broadcasts.increment();
+        recipients.add(count);
+        fanOutNanos.add(elapsed);
+        maxFanOutNanos.accumulate(elapsed);
+    }
+
+    /**
+     * Sends an event to one connection, e.g. an acknowledgement to the student who asked,
+     * in the same envelope as {@link #publish} plus {@code "direct": true}. Its {@code seq}
+     * is the lecture's last broadcast one, so it orders the event without opening a gap.
+     */
+    public void sendTo(String sessionId, String type, JSONObject fields) {
+        Connection connection = connections.get(sessionId);
+        if (connection == null) {
+            return;
+        }
+        AtomicLong sequence = sequences.get(connection.lectureId);
+        String payload = fields.put("type", type)
+                .put("lectureId", connection.lectureId)
+                .put("seq", sequence == null ? 0 : sequence.get())
+                .put("direct", true)
+                .toString();
+        connection.enqueue(new TextMessage(payload));
+    }
+
+    public int subscriberCount(Long lectureId) {
+        Set<Connection> subscribers = connectionsByLecture.get(lectureId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long broadcastCount = broadcasts.sum();
+        long sentCount = messagesSent.sum();
+        int queued = 0;
+        for (Connection connection : connections.values()) {
+            queued += connection.queue.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lectures", connectionsByLecture.size());
+        stats.put("connections", connections.size());
+        stats.put("queuedMessages", queued);
+        stats.put("broadcasts", broadcastCount);
+        stats.put("recipients", recipients.sum());
+        stats.put("messagesSent", sentCount);
+        stats.put("messagesDropped", messagesDropped.sum());
+        stats.put("slowConsumersClosed", slowConsumersClosed.sum());
+        stats.put("sendFailures", sendFailures.sum());
+        stats.put("avgFanOutMicros", broadcastCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(fanOutNanos.sum() / broadcastCount));
+        stats.put("maxFanOutMicros", TimeUnit.NANOSECONDS.toMicros(maxFanOutNanos.get()));
+        stats.put("avgSendMicros", sentCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sendNanos.sum() / sentCount));
+        stats.put("maxSendMicros", TimeUnit.NANOSECONDS.toMicros(maxSendNanos.get()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    // ========================= INTERNALS =========================
+
+    /**
+     * The session's JSR-356 async remote with the send time limit applied, or null when the
+     * session is not backed by one (e.g. SockJS) and has to be written with blocking sends.
+     */
+    private RemoteEndpoint.Async asyncRemote(WebSocketSession session) {
+        if (!(session instanceof NativeWebSocketSession)) {
+            return null;
+        }
+        jakarta.websocket.Session nativeSession =
+                ((NativeWebSocketSession) session).getNativeSession(jakarta.websocket.Session.class);
+        if (nativeSession == null) {
+            return null;
+        }
+        RemoteEndpoint.Async remote = nativeSession.getAsyncRemote();
+        remote.setSendTimeout(sendTimeLimitMillis);
+        return remote;
+    }
+
+    private void unsubscribe(Connection connection) {
+        connectionsByLecture.computeIfPresent(connection.lectureId, (id, subscribers) -> {
+            subscribers.remove(connection);
+            if (!subscribers.isEmpty()) {
+                return subscribers;
+            }
+            sequences.remove(id);
+            return null;
+        });
+    }
+
+    private void closeSlowConsumer(Connection connection) {
+        if (connections.remove(connection.session.getId(), connection)) {
+            slowConsumersClosed.increment();
+            logger.info("Closing slow live lecture connection {} (lecture {}).",
+                    connection.session.getId(), connection.lectureId);
+            unsubscribe(connection);
+        }
+        connection.queue.clear();
+        close(connection.session);
+    }
+
+    private static void close(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException | RuntimeException ignored) {
+            // already closing
+        }
+    }
+
+    private final class Connection {
+        private final Long lectureId;
+        private final WebSocketSession session;
+        private final RemoteEndpoint.Async asyncRemote;
+        private final ArrayBlockingQueue<TextMessage> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger consecutiveDrops = new AtomicInteger();
+        private volatile long sendStartedAt;
+
+        private Connection(Long lectureId, WebSocketSession session, RemoteEndpoint.Async asyncRemote) {
+            this.lectureId = lectureId;
+            this.session = session;
+            this.asyncRemote = asyncRemote;
+        }
+
+        private void enqueue(TextMessage message) {
+            if (!session.isOpen()) {
+                return;
+            }
+            while (!queue.offer(message)) {
+                if (queue.poll() == null) {
+                    continue;
+                }
+                messagesDropped.increment();
+                if (consecutiveDrops.incrementAndGet() >= maxConsecutiveDrops || stalled()) {
+                    closeSlowConsumer(this);
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private boolean stalled() {
+            long started = sendStartedAt;
+            return started != 0 && System.nanoTime() - started > TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // pool shut down
+                    draining.set(false);
+                }
+            }
+        }
+
+        /**
+         * Sends up to {@link #DRAIN_BATCH} messages, then yields the writer thread to other connections.
+         */
+        private void drain() {
+            if (asyncRemote != null) {
+                sendNextAsync(0);
+                return;
+            }
+            try {
+                TextMessage message;
+                int sent = 0;
+                while (sent < DRAIN_BATCH && session.isOpen() && (message = queue.poll()) != null) {
+                    long start = System.nanoTime();
+                    sendStartedAt = start;
+                    session.sendMessage(message);
+                    sent(start);
+                    sent++;
+                }
+            } catch (IOException | RuntimeException e) {
+                failed(e);
+            } finally {
+                sendStartedAt = 0;
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && session.isOpen()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Starts the next async send; its completion, on the container's thread, starts the
+         * one after. After {@link #DRAIN_BATCH} sends the connection goes back to the writer pool.
+         */
+        private void sendNextAsync(int sent) {
+            TextMessage message = sent < DRAIN_BATCH && session.isOpen() ? queue.poll() : null;
+            if (message == null) {
+                draining.set(false);
+                if (!queue.isEmpty() && session.isOpen()) {
+                    schedule();
+                }
+                return;
+            }
+            long start = System.nanoTime();
+            sendStartedAt = start;
+            try {
+                asyncRemote.sendText(message.getPayload(), result -> {
+                    sendStartedAt = 0;
+                    if (!result.isOK()) {
+                        failed(result.getException());
+                        draining.set(false);
+                        return;
+                    }
+                    sent(start);
+                    sendNextAsync(sent + 1);
+                });
+            } catch (RuntimeException e) {
+                sendStartedAt = 0;
+                failed(e);
+                draining.set(false);
+            }
+        }
+
+        private void sent(long start) {
+            long elapsed = System.nanoTime() - start;
+            sendNanos.add(elapsed);
+            maxSendNanos.accumulate(elapsed);
+            messagesSent.increment();
+            consecutiveDrops.set(0);
+        }
+
+        private void failed(Throwable error) {
+            sendFailures.increment();
+            logger.debug("Dropping live lecture connection {}: {}", session.getId(),
+                    error == null ? "send failed" : error.getMessage());
+            queue.clear();
+            close(session);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.edubot.service.lecture;
+
+import com.edubot.service.BotActivationService;
+import com.edubot.service.LectureService;
+import com.edubot.service.search.TextAnalyzer;
+
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Collects live-lecture questions over a short window, clusters near-duplicates and
+ * answers each cluster once, broadcasting the answer to every student in the lecture.
+ *
+ * Questions are compared by their analyzed terms (stemmed, stop words removed); two
+ * questions belong to the same cluster when the Jaccard similarity of their term sets
+ * reaches {@code lecture.live.cluster-threshold}. A duplicate of a cluster that is still
+ * being answered just waits for the broadcast, and clusters answered recently are
+ * remembered for {@code lecture.live.answer-ttl-seconds}, so a late duplicate is
+ * answered from that instead of asking the AI service again. Questions with no terms
+ * left after analysis only cluster with identical questions (compared case- and
+ * punctuation-insensitively).
+ *
+ * Closing a window only hands it to a small answer pool, so the one timer thread shared
+ * by all lectures never waits on the database; the pool loads the lecture once per window
+ * and sends all of its clusters together. When a cluster cannot be answered, the students
+ * who asked it are told so directly and nothing is broadcast.
+ */
+@Component
+public class LiveQuestionAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveQuestionAggregator.class);
+
+    private final BiFunction<Long, List<String>, List<CompletableFuture<String>>> answerer;
+    private final LiveLectureSessions sessions;
+    private final BiConsumer<Long, JSONObject> publisher;
+    private final long windowMillis;
+    private final double clusterThreshold;
+    private final int maxPendingPerLecture;
+    private final long answerTtlMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService answerPool;
+
+    private final Map<Long, Window> openWindows = new HashMap<>();
+    private final Map<Long, List<AnsweredCluster>> recentAnswers = new ConcurrentHashMap<>();
+    private final AtomicLong clusterIds = new AtomicLong();
+
+    private final LongAdder questionsReceived = new LongAdder();
+    private final LongAdder questionsRejected = new LongAdder();
+    private final LongAdder clustersAnswered = new LongAdder();
+    private final LongAdder clustersFailed = new LongAdder();
+    private final LongAdder answeredFromRecent = new LongAdder();
+
+    @Autowired
+    public LiveQuestionAggregator(
+            LectureService lectureService,
+            LiveLectureSessions sessions,
+            LiveLectureChannel channel,
+            @Value("${lecture.live.window-ms:1000}") long windowMillis,
+            @Value("${lecture.live.cluster-threshold:0.6}") double clusterThreshold,
+            @Value("${lecture.live.max-pending:500}") int maxPendingPerLecture,
+            @Value("${lecture.live.answer-ttl-seconds:120}") long answerTtlSeconds,
+            @Value("${lecture.live.answer-threads:4}") int answerThreads) {
+        this(lectureService::handleClassroomQuestionsAsync,
+                sessions,
+                (lectureId, fields) -> channel.publish(lectureId, "answer", fields),
+                windowMillis, clusterThreshold, maxPendingPerLecture,
+                TimeUnit.SECONDS.toMillis(answerTtlSeconds), answerThreads);
+    }
+
+    LiveQuestionAggregator(BiFunction<Long, List<String>, List<CompletableFuture<String>>> answerer,
+                           LiveLectureSessions sessions,
+                           BiConsumer<Long, JSONObject> publisher,
+                           long windowMillis,
+                           double clusterThreshold,
+                           int maxPendingPerLecture,
+                           long answerTtlMillis,
+                           int answerThreads) {
+        this.answerer = answerer;
+        this.sessions = sessions;
+        this.publisher = publisher;
+        this.windowMillis = windowMillis;
+        this.clusterThreshold = clusterThreshold;
+        this.maxPendingPerLecture = maxPendingPerLecture;
+        this.answerTtlMillis = answerTtlMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-question-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.answerPool = Executors.newFixedThreadPool(Math.max(1, answerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "live-question-answer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a question for the lecture's current window.
+     *
+     * @return false if the lecture already has {@code lecture.live.max-pending} questions waiting
+     */
+    public boolean submit(Long lectureId, String sessionId, String question) {
+        if (question == null || question.isBlank()) {
+            return false;
+        }
+        Set<String> terms = terms(question);
+        AnsweredCluster recent = findRecent(lectureId, terms, sessionId);
+        if (recent != null) {
+            answeredFromRecent.increment();
+            String answer = recent.answer;
+            if (answer != null) {
+                sessions.sendTo(sessionId, "answer", answerFields(recent.clusterId, recent.question, 1, answer));
+            }
+            return true;
+        }
+
+        synchronized (openWindows) {
+            Window window = openWindows.get(lectureId);
+            if (window == null) {
+                Window created = new Window(lectureId);
+                openWindows.put(lectureId, created);
+                scheduler.schedule(() -> close(created), windowMillis, TimeUnit.MILLISECONDS);
+                window = created;
+            }
+            if (window.size >= maxPendingPerLecture) {
+                questionsRejected.increment();
+                return false;
+            }
+            window.add(question.strip(), terms, sessionId);
+        }
+        questionsReceived.increment();
+        return true;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("questionsReceived", questionsReceived.sum());
+        stats.put("questionsRejected", questionsRejected.sum());
+        stats.put("clustersAnswered", clustersAnswered.sum());
+        stats.put("clustersFailed", clustersFailed.sum());
+        stats.put("answeredFromRecent", answeredFromRecent.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        answerPool.shutdownNow();
+    }
+
+    // ========================= INTERNALS =========================
+
+    /**
+     * Runs on the timer thread: closes the window and hands it to the answer pool.
+     */
+    private void close(Window window) {
+        synchronized (openWindows) {
+            if (!openWindows.remove(window.lectureId, window)) {
+                return;
+            }
+        }
+        try {
+            answerPool.execute(() -> flush(window));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dropping {} live questions for lecture {}: shutting down.", window.size, window.lectureId);
+        }
+    }
+
+    private void flush(Window window) {
+        List<AnsweredCluster> answered = recentAnswers.computeIfAbsent(window.lectureId, id -> new ArrayList<>());
+        List<AnsweredCluster> pending = new ArrayList<>(window.clusters.size());
+        List<String> questions = new ArrayList<>(window.clusters.size());
+        synchronized (answered) {
+            for (Cluster cluster : window.clusters) {
+                AnsweredCluster entry = new AnsweredCluster(clusterIds.incrementAndGet(), cluster.question, cluster.terms);
+                entry.askers.addAll(cluster.askers);
+                answered.add(entry);
+                pending.add(entry);
+                questions.add(cluster.question);
+            }
+        }
+
+        List<CompletableFuture<String>> answers;
+        try {
+            answers = answerer.apply(window.lectureId, questions);
+        } catch (RuntimeException e) {
+            answers = new ArrayList<>();
+            for (int i = 0; i < questions.size(); i++) {
+                answers.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            AnsweredCluster entry = pending.get(i);
+            int askedBy = window.clusters.get(i).askers.size();
+            answers.get(i).whenComplete((text, error) -> {
+                boolean failed = error != null || text == null || BotActivationService.isErrorResponse(text);
+                List<String> askers;
+                synchronized (answered) {
+                    if (failed) {
+                        answered.remove(entry);
+                    } else {
+                        entry.complete(text);
+                    }
+                    askers = new ArrayList<>(entry.askers);
+                }
+                if (failed) {
+                    clustersFailed.increment();
+                    logger.warn("Live question for lecture {} failed: {}", window.lectureId,
+                            error != null ? error.getMessage() : text == null ? "no answer" : text);
+                    askers.forEach(sessionId -> sessions.sendTo(sessionId, "answerFailed", new JSONObject()
+                            .put("clusterId", entry.clusterId)
+                            .put("question", entry.question)));
+                    return;
+                }
+                clustersAnswered.increment();
+                publisher.accept(window.lectureId, answerFields(entry.clusterId, entry.question, askedBy, text));
+            });
+        }
+    }
+
+    /**
+     * Finds a recent or in-flight cluster for the question. A duplicate of a cluster that
+     * is still being answered is added to its askers, so it hears about a failure too.
+     */
+    private AnsweredCluster findRecent(Long lectureId, Set<String> terms, String sessionId) {
+        List<AnsweredCluster> answered = recentAnswers.get(lectureId);
+        if (answered == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (answered) {
+            answered.removeIf(cluster -> cluster.answer != null && now - cluster.answeredAt > answerTtlMillis);
+            for (AnsweredCluster cluster : answered) {
+                if (similarity(cluster.terms, terms) >= clusterThreshold) {
+                    if (cluster.answer == null) {
+                        cluster.askers.add(sessionId);
+                    }
+                    return cluster;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JSONObject answerFields(long clusterId, String question, int askedBy, String answer) {
+        return new JSONObject()
+                .put("clusterId", clusterId)
+                .put("question", question)
+                .put("askedBy", askedBy)
+                .put("answer", answer);
+    }
+
+    /**
+     * The question's analyzed terms; a question made only of stop words falls back to its
+     * normalized text as a single term, so it only matches the same question.
+     */
+    static Set<String> terms(String question) {
+        Set<String> terms = new HashSet<>(TextAnalyzer.analyze(question));
+        if (terms.isEmpty()) {
+            String normalized = question.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+            terms.add(normalized);
+        }
+        return terms;
+    }
+
+    /**
+     * Jaccard similarity of two term sets; empty sets are never similar to anything.
+     */
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int shared = 0;
+        for (String term : a) {
+            if (b.contains(term)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private final class Window {
+        private final Long lectureId;
+        private final List<Cluster> clusters = new ArrayList<>();
+        private int size;
+
+        private Window(Long lectureId) {
+            this.lectureId = lectureId;
+        }
+
+        private void add(String question, Set<String> terms, String sessionId) {
+            size++;
+            for (Cluster cluster : clusters) {
+                if (similarity(cluster.terms, terms) >= clusterThreshold) {
+                    cluster.askers.add(sessionId);
+                    return;
+                }
+            }
+            Cluster cluster = new Cluster(question, terms);
+            cluster.askers.add(sessionId);
+            clusters.add(cluster);
+        }
+    }
+
+    private static final class Cluster {
+        private final String question;
+        private final Set<String> terms;
+        private final List<String> askers = new ArrayList<>();
+
+        private Cluster(String question, Set<String> terms) {
+            this.question = question;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * A cluster sent to the AI service; {@code answer} stays null until the answer arrives.
+     * {@code askers} is guarded by the lecture's recent-answer list.
+     */
+    private static final class AnsweredCluster {
+        private final long clusterId;
+        private final String question;
+        private final Set<String> terms;
+        private final List<String> askers = new ArrayList<>();
+        private volatile String answer;
+        private volatile long answeredAt;
+
+        private AnsweredCluster(long clusterId, String question, Set<String> terms) {
+            this.clusterId = clusterId;
+            this.question = question;
+            this.terms = terms;
+        }
+
+        private void complete(String answer) {
+            this.answeredAt = System.currentTimeMillis();
+            this.answer = answer;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.edubot.service.lecture;
+
+/**
+ * One record of a lecture recording, as returned by {@link LectureRecordingStore}.
+ *
+ * {@code position} is the record's byte offset in the recording stream; the raw payload
+ * (e.g. a media blob) can be fetched with a range request for
+ * {@code payloadPosition .. payloadPosition + payloadLength - 1}.
+ */
+public class RecordingEvent {
+
+    public enum Kind {
+        TRANSCRIPT, MEDIA;
+
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        static Kind of(byte code) {
+            Kind[] kinds = values();
+            if (code < 1 || code > kinds.length) {
+                throw new IllegalArgumentException("Unknown recording record kind: " + code);
+            }
+            return kinds[code - 1];
+        }
+    }
+
+    private final Kind kind;
+    private final long offsetMillis;
+    private final long position;
+    private final long payloadPosition;
+    private final int payloadLength;
+    private final String text;
+
+    RecordingEvent(Kind kind, long offsetMillis, long position, long payloadPosition, int payloadLength, String text) {
+        this.kind = kind;
+        this.offsetMillis = offsetMillis;
+        this.position = position;
+        this.payloadPosition = payloadPosition;
+        this.payloadLength = payloadLength;
+        this.text = text;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Milliseconds since the first record of the recording.
+     */
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getPayloadPosition() {
+        return payloadPosition;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+
+    /**
+     * The transcript text; null for media records.
+     */
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,255 @@
+package com.edubot.service.pdf;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-process text and metadata extraction for born-digital PDFs using PDFBox.
+ *
+ * Text is stripped on a dedicated pool in page ranges of {@code pagesPerTask}, ranges
+ * running in parallel. PDFBox documents are not thread-safe, so every range task loads
+ * its own {@link PDDocument}; the first range also learns the page count and fans out
+ * the rest, so a document within one range is loaded only once. Pages are separated by
+ * form feeds so downstream chunking can split on page boundaries.
+ *
+ * The text layer is checked page by page: a page with fewer than
+ * {@code minCharsPerPage} characters that draws an image is a scanned page. A document
+ * is sent to the remote OCR-capable service, by reporting it as empty, when scanned
+ * pages make up more than {@code maxScannedShare} of its pages or no page has enough
+ * text at all; below that share, figures and covers are kept as the little text they
+ * carry. Blank pages without images do not count against a document. Any extraction
+ * error is reported the same way.
+ */
+@Component
+public class LocalPdfExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalPdfExtractor.class);
+    private static final String PAGE_BREAK = "\f";
+
+    private final boolean enabled;
+    private final int pagesPerTask;
+    private final int minCharsPerPage;
+    private final double maxScannedShare;
+    private final ExecutorService pool;
+
+    private final LongAdder localExtractions = new LongAdder();
+    private final LongAdder scannedFallbacks = new LongAdder();
+    private final LongAdder errorFallbacks = new LongAdder();
+
+    @Autowired
+    public LocalPdfExtractor(
+            @Value("${pdf.local-extraction.enabled:true}") boolean enabled,
+            @Value("${pdf.local-extraction.pages-per-task:25}") int pagesPerTask,
+            @Value("${pdf.local-extraction.min-chars-per-page:40}") int minCharsPerPage,
+            @Value("${pdf.local-extraction.max-scanned-share:0.25}") double maxScannedShare,
+            @Value("${pdf.local-extraction.threads:0}") int threads) {
+        this.enabled = enabled;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.minCharsPerPage = minCharsPerPage;
+        this.maxScannedShare = maxScannedShare;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "pdf-extractor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Extracts the text layer, or completes empty if the file should go to the remote service.
+     */
+    public CompletableFuture<Optional<String>> extractText(String filePath) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        File file = new File(filePath);
+        return CompletableFuture.supplyAsync(() -> strip(file, 1), pool)
+                .thenCompose(first -> remainingRanges(file, first))
+                .thenApply(ranges -> combine(filePath, ranges))
+                .exceptionally(e -> {
+                    errorFallbacks.increment();
+                    logger.warn("Local extraction failed for {}, using remote service: {}", filePath, e.getMessage());
+                    return Optional.empty();
+                })
+                .whenComplete((text, error) -> {
+                    if (text != null && text.isPresent()) {
+                        localExtractions.increment();
+                    }
+                });
+    }
+
+    /**
+     * Reads the document information dictionary as JSON with the {@code PDFMetadata} field names.
+     */
+    public CompletableFuture<Optional<String>> extractMetadata(String filePath) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try (PDDocument document = Loader.loadPDF(new File(filePath))) {
+                PDDocumentInformation info = document.getDocumentInformation();
+                JSONObject metadata = new JSONObject()
+                        .put("title", orNull(info.getTitle()))
+                        .put("author", orNull(info.getAuthor()))
+                        .put("subject", orNull(info.getSubject()))
+                        .put("pageCount", document.getNumberOfPages())
+                        .put("pdfCreatedDate", orNull(toLocalDateTime(info.getCreationDate())))
+                        .put("pdfModifiedDate", orNull(toLocalDateTime(info.getModificationDate())));
+                return Optional.of(metadata.toString());
+            } catch (IOException e) {
+                errorFallbacks.increment();
+                logger.warn("Local metadata extraction failed for {}, using remote service: {}", filePath, e.getMessage());
+                return Optional.<String>empty();
+            }
+        }, pool);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("localExtractions", localExtractions.sum());
+        stats.put("scannedFallbacks", scannedFallbacks.sum());
+        stats.put("errorFallbacks", errorFallbacks.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Strips every range after {@code first} in parallel, each from its own load of the file.
+     */
+    private CompletableFuture<List<PageRange>> remainingRanges(File file, PageRange first) {
+        List<CompletableFuture<PageRange>> ranges = new ArrayList<>();
+        ranges.add(CompletableFuture.completedFuture(first));
+        for (int start = first.lastPage + 1; start <= first.documentPages; start += pagesPerTask) {
+            int from = start;
+            ranges.add(CompletableFuture.supplyAsync(() -> strip(file, from), pool));
+        }
+        return CompletableFuture.allOf(ranges.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> ranges.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private PageRange strip(File file, int firstPage) {
+        try (PDDocument document = Loader.loadPDF(file)) {
+            if (document.isEncrypted() && !document.getCurrentAccessPermission().canExtractContent()) {
+                throw new IllegalStateException("Text extraction is not permitted for " + file);
+            }
+            int pages = document.getNumberOfPages();
+            int lastPage = Math.min(pages, firstPage + pagesPerTask - 1);
+            PageRange range = new PageRange(pages, lastPage);
+            if (firstPage > lastPage) {
+                return range;
+            }
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            stripper.setPageEnd(PAGE_BREAK);
+            stripper.setStartPage(firstPage);
+            stripper.setEndPage(lastPage);
+            range.text = stripper.getText(document);
+            String[] pageTexts = range.text.split(PAGE_BREAK, -1);
+            for (int page = firstPage; page <= lastPage; page++) {
+                int index = page - firstPage;
+                if (index < pageTexts.length && visibleChars(pageTexts[index]) >= minCharsPerPage) {
+                    range.textPages++;
+                } else if (hasImages(document.getPage(page - 1))) {
+                    range.scannedPages++;
+                }
+            }
+            return range;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<String> combine(String filePath, List<PageRange> ranges) {
+        int pages = ranges.get(0).documentPages;
+        int textPages = 0;
+        int scannedPages = 0;
+        StringBuilder text = new StringBuilder();
+        for (PageRange range : ranges) {
+            textPages += range.textPages;
+            scannedPages += range.scannedPages;
+            text.append(range.text);
+        }
+        if (textPages == 0 || scannedPages > pages * maxScannedShare) {
+            return scanned(filePath);
+        }
+        return Optional.of(text.toString());
+    }
+
+    private static long visibleChars(String text) {
+        return text.chars().filter(c -> !Character.isWhitespace(c)).count();
+    }
+
+    private static boolean hasImages(PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        if (resources == null) {
+            return false;
+        }
+        for (COSName name : resources.getXObjectNames()) {
+            if (resources.isImageXObject(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<String> scanned(String filePath) {
+        scannedFallbacks.increment();
+        logger.info("{} has no usable text layer, sending it to the OCR service", filePath);
+        return Optional.empty();
+    }
+
+    private static final class PageRange {
+        private final int documentPages;
+        private final int lastPage;
+        private String text = "";
+        private int textPages;
+        private int scannedPages;
+
+        private PageRange(int documentPages, int lastPage) {
+            this.documentPages = documentPages;
+            this.lastPage = lastPage;
+        }
+    }
+
+    private static Object orNull(Object value) {
+        return value == null ? JSONObject.NULL : value;
+    }
+
+    private static String toLocalDateTime(Calendar calendar) {
+        return calendar == null ? null : LocalDateTime.ofInstant(calendar.toInstant(), ZoneId.systemDefault()).toString();
+    }
+}
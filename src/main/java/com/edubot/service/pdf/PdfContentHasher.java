@@ -0,0 +1,40 @@
+package com.edubot.service.pdf;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the SHA-256 of a file by mapping it into memory window by window, so
+ * large PDFs are hashed without copying them through a heap buffer.
+ */
+public final class PdfContentHasher {
+
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private PdfContentHasher() {
+    }
+
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW_BYTES) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, size - position));
+                digest.update(window);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
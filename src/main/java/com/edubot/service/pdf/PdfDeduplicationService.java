@@ -0,0 +1,144 @@
+package com.edubot.service.pdf;
+
+import com.edubot.model.content.PDFMetadata;
+import com.edubot.repository.PDFMetadataRepository;
+import com.edubot.service.BotActivationService;
+import com.edubot.service.ai.AiPriority;
+
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reuses extraction and summary results for PDFs whose bytes have been seen before.
+ *
+ * Files are identified by the SHA-256 stored on {@link PDFMetadata}; a textbook
+ * uploaded by a second teacher under a different path is served from the first
+ * upload's results without calling the AI service. Error responses are never recorded.
+ * A path seen for the first time gets its title, author, subject, page count and dates
+ * from {@link LocalPdfExtractor}; fields the PDF does not declare are left null.
+ */
+@Service
+public class PdfDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfDeduplicationService.class);
+
+    private final PDFMetadataRepository pdfMetadataRepository;
+    private final BotActivationService botActivationService;
+    private final PdfInvertedIndex pdfInvertedIndex;
+    private final LocalPdfExtractor localPdfExtractor;
+
+    @Autowired
+    public PdfDeduplicationService(PDFMetadataRepository pdfMetadataRepository, BotActivationService botActivationService,
+                                   PdfInvertedIndex pdfInvertedIndex, LocalPdfExtractor localPdfExtractor) {
+        this.pdfMetadataRepository = pdfMetadataRepository;
+        this.botActivationService = botActivationService;
+        this.pdfInvertedIndex = pdfInvertedIndex;
+        this.localPdfExtractor = localPdfExtractor;
+    }
+
+    public String contentHash(String filePath) {
+        try {
+            return PdfContentHasher.sha256(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not hash PDF " + filePath, e);
+        }
+    }
+
+    public String extractText(String filePath, AiPriority priority) {
+        String hash = contentHash(filePath);
+        Optional<String> known = pdfMetadataRepository.findFirstByContentHashAndExtractedTextIsNotNull(hash)
+                .map(PDFMetadata::getExtractedText);
+        if (known.isPresent()) {
+            logger.info("Reusing extracted text for {} (content hash {})", filePath, hash);
+            pdfInvertedIndex.index(filePath, new File(filePath).lastModified(), known.get());
+            return known.get();
+        }
+        String text = botActivationService.extractText(filePath, priority);
+        record(filePath, hash, metadata -> metadata.setExtractedText(text), text);
+        return text;
+    }
+
+    /**
+     * Summarizes already-extracted text of {@code filePath}, reusing the summary of an identical file if one exists.
+     */
+    public String summarize(String filePath, String documentKey, String text, AiPriority priority) {
+        return summarizeOnce(filePath, () -> botActivationService.summarizeDocument(documentKey, text, priority));
+    }
+
+    /**
+     * Extracts and summarizes {@code filePath} like {@link BotActivationService#processPDF}, skipping both steps for known content.
+     */
+    public String processPDF(String filePath, AiPriority priority) {
+        return summarizeOnce(filePath, () -> botActivationService.processPDF(filePath, priority));
+    }
+
+    private String summarizeOnce(String filePath, Supplier<String> summarize) {
+        String hash = contentHash(filePath);
+        Optional<String> known = pdfMetadataRepository.findFirstByContentHashAndSummaryIsNotNull(hash)
+                .map(PDFMetadata::getSummary);
+        if (known.isPresent()) {
+            logger.info("Reusing summary for {} (content hash {})", filePath, hash);
+            return known.get();
+        }
+        String summary = summarize.get();
+        record(filePath, hash, metadata -> metadata.setSummary(summary), summary);
+        return summary;
+    }
+
+    private void record(String filePath, String hash, Consumer<PDFMetadata> update, String result) {
+        if (result == null || BotActivationService.isErrorResponse(result)) {
+            return;
+        }
+        Optional<PDFMetadata> existing = pdfMetadataRepository.findByFilePath(filePath);
+        PDFMetadata metadata = existing.orElseGet(() -> declaredMetadata(filePath));
+        if (!hash.equals(metadata.getContentHash())) {
+            metadata.setExtractedText(null);
+            metadata.setSummary(null);
+            metadata.setContentHash(hash);
+            if (existing.isPresent()) {
+                // The file at this path changed since its results were recorded.
+                PDFMetadata declared = declaredMetadata(filePath);
+                metadata.updateMetadata(declared.getTitle(), declared.getAuthor(), declared.getSubject(), declared.getPageCount());
+                metadata.setPdfCreatedDate(declared.getPdfCreatedDate());
+                metadata.setPdfModifiedDate(declared.getPdfModifiedDate());
+            }
+        }
+        update.accept(metadata);
+        pdfMetadataRepository.save(metadata);
+    }
+
+    /**
+     * Metadata as declared by the PDF itself; fields it does not declare, or all of them if it cannot be read, are null.
+     */
+    private PDFMetadata declaredMetadata(String filePath) {
+        Optional<String> local = localPdfExtractor.extractMetadata(filePath).join();
+        if (local.isEmpty()) {
+            return new PDFMetadata(null, null, null, null, filePath, null, null);
+        }
+        JSONObject info = new JSONObject(local.get());
+        return new PDFMetadata(
+                info.optString("title", null),
+                info.optString("author", null),
+                info.optString("subject", null),
+                info.has("pageCount") ? info.getInt("pageCount") : null,
+                filePath,
+                dateOrNull(info.optString("pdfCreatedDate", null)),
+                dateOrNull(info.optString("pdfModifiedDate", null)));
+    }
+
+    private static LocalDateTime dateOrNull(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
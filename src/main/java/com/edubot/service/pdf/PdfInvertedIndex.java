@@ -0,0 +1,347 @@
+package com.edubot.service.pdf;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over extracted PDF text.
+ *
+ * Text is tokenized into lower-cased runs of letters and digits; pages are separated
+ * by form feeds. Each term maps to a {@link PostingList} of delta+varint compressed
+ * postings carrying token index, page and character offset, which is enough to answer
+ * single keywords and exact phrases without touching the text again.
+ *
+ * Documents are keyed by file path and versioned by modification time (the value
+ * recorded as {@code PDFMetadata.pdfModifiedDate}). Re-indexing a changed file appends
+ * it under a new internal id and tombstones the old one; posting lists are compacted
+ * once tombstones make up a quarter of all indexed documents.
+ */
+@Component
+public class PdfInvertedIndex {
+
+    private static final char PAGE_BREAK = '\f';
+    private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, PostingList> postings = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> liveDocuments = new HashMap<>();
+    private int tombstones;
+
+    /**
+     * Indexes {@code text} for {@code filePath} unless this version is already indexed.
+     *
+     * @return true if the index changed
+     */
+    public boolean index(String filePath, long version, String text) {
+        if (isCurrent(filePath, version)) {
+            return false;
+        }
+        Map<String, Occurrences> terms = tokenize(text);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = liveDocuments.get(filePath);
+            if (existing != null) {
+                if (documents.get(existing).version == version) {
+                    return false;
+                }
+                tombstone(existing);
+            }
+            int docId = documents.size();
+            documents.add(new Document(filePath, version));
+            liveDocuments.put(filePath, docId);
+            terms.forEach((term, occurrences) -> postings.computeIfAbsent(term, t -> new PostingList())
+                    .add(docId, occurrences.tokens, occurrences.pages, occurrences.offsets, occurrences.count));
+
+            if (tombstones >= MIN_TOMBSTONES_BEFORE_COMPACTION && tombstones * 4 >= documents.size()) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isCurrent(String filePath, long version) {
+        lock.readLock().lock();
+        try {
+            Integer docId = liveDocuments.get(filePath);
+            return docId != null && documents.get(docId).version == version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String filePath) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = liveDocuments.remove(filePath);
+            if (docId != null) {
+                tombstone(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every occurrence of {@code query} in the file; multi-word queries match as exact phrases.
+     */
+    public List<Match> find(String filePath, String query) {
+        String[] terms = queryTerms(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Integer docId = liveDocuments.get(filePath);
+            if (docId == null) {
+                return List.of();
+            }
+            Positions[] positions = new Positions[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                positions[i] = positions(terms[i], docId);
+                if (positions[i] == null) {
+                    return List.of();
+                }
+            }
+            return phraseMatches(positions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts occurrences of {@code query} per indexed file, most matches first.
+     */
+    public Map<String, Integer> search(String query, int limit) {
+        String[] terms = queryTerms(query);
+        if (terms.length == 0) {
+            return Map.of();
+        }
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            PostingList first = postings.get(terms[0]);
+            if (first == null) {
+                return Map.of();
+            }
+            PostingList.Cursor cursor = first.cursor();
+            while (cursor.nextDoc()) {
+                Document document = documents.get(cursor.docId());
+                if (document.deleted) {
+                    continue;
+                }
+                int matches = terms.length == 1 ? cursor.count() : find(document.filePath, query).size();
+                if (matches > 0) {
+                    counts.add(Map.entry(document.filePath, matches));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> ranked = new LinkedHashMap<>();
+        counts.stream().limit(limit).forEach(entry -> ranked.put(entry.getKey(), entry.getValue()));
+        return ranked;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = postings.values().stream().mapToLong(PostingList::sizeInBytes).sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", liveDocuments.size());
+            stats.put("tombstones", tombstones);
+            stats.put("terms", postings.size());
+            stats.put("postingBytes", bytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= QUERY EVALUATION =========================
+
+    private Positions positions(String term, int docId) {
+        PostingList list = postings.get(term);
+        if (list == null) {
+            return null;
+        }
+        PostingList.Cursor cursor = list.cursor();
+        if (!cursor.advance(docId) || cursor.docId() != docId) {
+            return null;
+        }
+        Positions positions = new Positions(cursor.count());
+        cursor.positions(positions.tokens, positions.pages, positions.offsets);
+        return positions;
+    }
+
+    /**
+     * Keeps occurrences of the first term followed by each later term at consecutive token indexes.
+     */
+    private static List<Match> phraseMatches(Positions[] terms) {
+        List<Match> matches = new ArrayList<>();
+        Positions first = terms[0];
+        for (int i = 0; i < first.tokens.length; i++) {
+            int token = first.tokens[i];
+            boolean phrase = true;
+            for (int t = 1; t < terms.length && phrase; t++) {
+                phrase = Arrays.binarySearch(terms[t].tokens, token + t) >= 0;
+            }
+            if (phrase) {
+                matches.add(new Match(first.pages[i] + 1, first.offsets[i]));
+            }
+        }
+        return matches;
+    }
+
+    // ========================= MAINTENANCE =========================
+
+    private void tombstone(int docId) {
+        documents.get(docId).deleted = true;
+        tombstones++;
+    }
+
+    /**
+     * Rewrites every posting list without tombstoned documents. Ids are kept, so
+     * live documents need no remapping; empty terms are dropped.
+     */
+    private void compact() {
+        Map<String, PostingList> compacted = new HashMap<>();
+        postings.forEach((term, list) -> {
+            PostingList rewritten = new PostingList();
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.nextDoc()) {
+                if (documents.get(cursor.docId()).deleted) {
+                    continue;
+                }
+                Positions positions = new Positions(cursor.count());
+                cursor.positions(positions.tokens, positions.pages, positions.offsets);
+                rewritten.add(cursor.docId(), positions.tokens, positions.pages, positions.offsets, cursor.count());
+            }
+            if (rewritten.documentCount() > 0) {
+                compacted.put(term, rewritten);
+            }
+        });
+        postings = compacted;
+        tombstones = 0;
+    }
+
+    // ========================= TOKENIZATION =========================
+
+    private static Map<String, Occurrences> tokenize(String text) {
+        Map<String, Occurrences> terms = new HashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        int page = 0;
+        int pageStart = 0;
+        int tokenIndex = 0;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == PAGE_BREAK) {
+                page++;
+                pageStart = i + 1;
+                i++;
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+            terms.computeIfAbsent(term, t -> new Occurrences()).add(tokenIndex++, page, start - pageStart);
+        }
+        return terms;
+    }
+
+    private static String[] queryTerms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(term -> !term.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // ========================= TYPES =========================
+
+    /**
+     * One occurrence of a query; {@code page} is 1-based, {@code offset} is the character offset within that page.
+     */
+    public static final class Match {
+        private final int page;
+        private final int offset;
+
+        public Match(int page, int offset) {
+            this.page = page;
+            this.offset = offset;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    private static final class Document {
+        final String filePath;
+        final long version;
+        boolean deleted;
+
+        Document(String filePath, long version) {
+            this.filePath = filePath;
+            this.version = version;
+        }
+    }
+
+    private static final class Positions {
+        final int[] tokens;
+        final int[] pages;
+        final int[] offsets;
+
+        Positions(int count) {
+            tokens = new int[count];
+            pages = new int[count];
+            offsets = new int[count];
+        }
+    }
+
+    private static final class Occurrences {
+        int[] tokens = new int[4];
+        int[] pages = new int[4];
+        int[] offsets = new int[4];
+        int count;
+
+        void add(int token, int page, int offset) {
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);
+                pages = Arrays.copyOf(pages, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            tokens[count] = token;
+            pages[count] = page;
+            offsets[count] = offset;
+            count++;
+        }
+    }
+}
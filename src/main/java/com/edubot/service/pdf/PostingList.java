@@ -0,0 +1,210 @@
+package com.edubot.service.pdf;
+
+import java.util.Arrays;
+
+/**
+ * Append-only, compressed postings for one term.
+ *
+ * Layout per document: {@code docGap, occurrences, blockLength, positions...}, every
+ * field an unsigned LEB128 varint. Document ids are delta-encoded against the previous
+ * document in the list, so ids must be appended in increasing order. Each position is
+ * {@code tokenGap, pageGap, offset}, where {@code offset} is a delta from the previous
+ * occurrence on the same page and absolute when the page changes. {@code blockLength}
+ * lets a cursor skip a document's positions without decoding them.
+ *
+ * Every {@value #SKIP_INTERVAL} documents a skip entry records the id of the document
+ * before the next entry and that entry's byte offset, so {@link Cursor#advance} can
+ * binary-search to the right stretch of the list and decode at most one interval.
+ */
+final class PostingList {
+
+    static final int SKIP_INTERVAL = 64;
+
+    private byte[] data = new byte[16];
+    private int length;
+    private int[] skipDocIds = new int[0];
+    private int[] skipPositions = new int[0];
+    private int skipCount;
+    private int lastDocId = -1;
+    private int documentCount;
+
+    /**
+     * Appends one document's occurrences; positions must be sorted by token index.
+     */
+    void add(int docId, int[] tokens, int[] pages, int[] offsets, int count) {
+        if (docId <= lastDocId) {
+            throw new IllegalArgumentException("Documents must be appended in increasing id order");
+        }
+        byte[] block = new byte[count * 6 + 8];
+        int blockLength = 0;
+        int previousToken = 0;
+        int previousPage = 0;
+        int previousOffset = 0;
+        for (int i = 0; i < count; i++) {
+            if (block.length - blockLength < 15) {
+                block = Arrays.copyOf(block, block.length * 2);
+            }
+            int pageGap = pages[i] - previousPage;
+            blockLength = writeVarInt(block, blockLength, tokens[i] - previousToken);
+            blockLength = writeVarInt(block, blockLength, pageGap);
+            blockLength = writeVarInt(block, blockLength, pageGap == 0 ? offsets[i] - previousOffset : offsets[i]);
+            previousToken = tokens[i];
+            previousPage = pages[i];
+            previousOffset = offsets[i];
+        }
+
+        ensureCapacity(15 + blockLength);
+        if (documentCount > 0 && documentCount % SKIP_INTERVAL == 0) {
+            addSkip(lastDocId, length);
+        }
+        length = writeVarInt(data, length, docId - lastDocId - 1);
+        length = writeVarInt(data, length, count);
+        length = writeVarInt(data, length, blockLength);
+        System.arraycopy(block, 0, data, length, blockLength);
+        length += blockLength;
+        lastDocId = docId;
+        documentCount++;
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (data.length - length < extra) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    private void addSkip(int previousDocId, int position) {
+        if (skipCount == skipDocIds.length) {
+            int capacity = Math.max(4, skipCount * 2);
+            skipDocIds = Arrays.copyOf(skipDocIds, capacity);
+            skipPositions = Arrays.copyOf(skipPositions, capacity);
+        }
+        skipDocIds[skipCount] = previousDocId;
+        skipPositions[skipCount] = position;
+        skipCount++;
+    }
+
+    static int writeVarInt(byte[] target, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Forward-only iterator over documents; positions are decoded on request.
+     */
+    final class Cursor {
+
+        private int position;
+        private int docId = -1;
+        private int count;
+        private int blockStart;
+        private int blockEnd;
+
+        boolean nextDoc() {
+            position = blockEnd;
+            if (position >= length) {
+                return false;
+            }
+            docId += readVarInt() + 1;
+            count = readVarInt();
+            int blockLength = readVarInt();
+            blockStart = position;
+            blockEnd = position + blockLength;
+            return true;
+        }
+
+        /**
+         * Advances to the first document with id {@code >= target}.
+         */
+        boolean advance(int target) {
+            if (docId >= target) {
+                return true;
+            }
+            skipTo(target);
+            while (docId < target) {
+                if (!nextDoc()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Jumps to the last skip entry ahead of the cursor whose preceding document is
+         * still before {@code target}; the following {@link #nextDoc()} decodes from there.
+         */
+        private void skipTo(int target) {
+            int low = 0;
+            int high = skipCount - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (skipDocIds[mid] < target) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found >= 0 && skipPositions[found] > blockEnd) {
+                docId = skipDocIds[found];
+                blockEnd = skipPositions[found];
+            }
+        }
+
+        int docId() {
+            return docId;
+        }
+
+        int count() {
+            return count;
+        }
+
+        /**
+         * Decodes this document's positions into arrays of at least {@link #count()} entries.
+         */
+        void positions(int[] tokens, int[] pages, int[] offsets) {
+            position = blockStart;
+            int token = 0;
+            int page = 0;
+            int offset = 0;
+            for (int i = 0; i < count; i++) {
+                token += readVarInt();
+                int pageGap = readVarInt();
+                page += pageGap;
+                int offsetValue = readVarInt();
+                offset = pageGap == 0 ? offset + offsetValue : offsetValue;
+                tokens[i] = token;
+                pages[i] = page;
+                offsets[i] = offset;
+            }
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
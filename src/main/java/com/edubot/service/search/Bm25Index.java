@@ -0,0 +1,400 @@
+package com.edubot.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory BM25F index over documents with a title and a body field.
+ *
+ * Documents are keyed by caller-chosen strings and can be replaced or removed at any
+ * time: a replaced document is appended under a new internal id and the old one is
+ * tombstoned. Once tombstones make up a quarter of all documents the index is compacted,
+ * as in {@code PdfInvertedIndex}: tombstoned documents are dropped and the live ones
+ * renumbered, so neither the posting lists nor the document table keep growing.
+ *
+ * Searches use MaxScore: each posting list remembers its largest field frequencies and
+ * shortest field lengths, which bound the score the term can contribute to any document.
+ * Once the top-k heap is full, terms whose combined bound cannot beat the k-th score no
+ * longer nominate candidates and are only probed for documents that other terms found,
+ * so only documents containing at least one "essential" term are scored.
+ */
+public final class Bm25Index {
+
+    private static final int TITLE = 0;
+    private static final int BODY = 1;
+    private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 16;
+
+    private final double titleWeight;
+    private final double bodyWeight;
+    private final double k1;
+    private final double b;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Postings> postings = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> liveDocuments = new HashMap<>();
+    private final long[] totalFieldLength = new long[2];
+    private int tombstones;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder documentsScored = new LongAdder();
+
+    public Bm25Index(double titleWeight, double bodyWeight, double k1, double b) {
+        this.titleWeight = titleWeight;
+        this.bodyWeight = bodyWeight;
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Indexes or replaces the document stored under {@code key}.
+     */
+    public void put(String key, String title, String body) {
+        TextAnalyzer.Language language = TextAnalyzer.detect((title == null ? "" : title) + " " + (body == null ? "" : body));
+        List<String> titleTerms = TextAnalyzer.analyze(title, language);
+        List<String> bodyTerms = TextAnalyzer.analyze(body, language);
+        Map<String, int[]> frequencies = new HashMap<>();
+        titleTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[TITLE]++);
+        bodyTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[BODY]++);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = liveDocuments.get(key);
+            if (existing != null) {
+                tombstone(existing);
+            }
+            int docId = documents.size();
+            documents.add(new Document(key, titleTerms.size(), bodyTerms.size(), frequencies.keySet().toArray(new String[0])));
+            liveDocuments.put(key, docId);
+            totalFieldLength[TITLE] += titleTerms.size();
+            totalFieldLength[BODY] += bodyTerms.size();
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings())
+                    .add(docId, tf[TITLE], tf[BODY], titleTerms.size(), bodyTerms.size()));
+
+            if (tombstones >= MIN_TOMBSTONES_BEFORE_COMPACTION && tombstones * 4 >= documents.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = liveDocuments.remove(key);
+            if (docId != null) {
+                tombstone(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return liveDocuments.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} document keys ranked by BM25F score for {@code query}, best first.
+     */
+    public List<Hit> search(String query, int k) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyzeQuery(query));
+        if (terms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        searches.increment();
+
+        lock.readLock().lock();
+        try {
+            int liveCount = liveDocuments.size();
+            if (liveCount == 0) {
+                return List.of();
+            }
+            double averageTitle = Math.max(1.0, (double) totalFieldLength[TITLE] / liveCount);
+            double averageBody = Math.max(1.0, (double) totalFieldLength[BODY] / liveCount);
+
+            List<TermCursor> cursors = new ArrayList<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null && list.liveDocuments > 0) {
+                    double idf = Math.log(1 + (liveCount - list.liveDocuments + 0.5) / (list.liveDocuments + 0.5));
+                    double bound = saturate(idf, list.maxTitleFrequency, list.minTitleLength, averageTitle,
+                            list.maxBodyFrequency, list.minBodyLength, averageBody);
+                    cursors.add(new TermCursor(list, idf, bound));
+                }
+            }
+            if (cursors.isEmpty()) {
+                return List.of();
+            }
+            cursors.sort(Comparator.comparingDouble(cursor -> cursor.bound));
+            double[] boundPrefix = new double[cursors.size() + 1];
+            for (int i = 0; i < cursors.size(); i++) {
+                boundPrefix[i + 1] = boundPrefix[i] + cursors.get(i).bound;
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::getScore));
+            int firstEssential = 0;
+            long scored = 0;
+            while (true) {
+                int candidate = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    candidate = Math.min(candidate, cursors.get(i).doc());
+                }
+                if (candidate == Integer.MAX_VALUE) {
+                    break;
+                }
+                Document document = documents.get(candidate);
+                double score = 0;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    TermCursor cursor = cursors.get(i);
+                    if (cursor.doc() == candidate) {
+                        if (!document.deleted) {
+                            score += termScore(cursor, document, averageTitle, averageBody);
+                        }
+                        cursor.next();
+                    }
+                }
+                if (document.deleted) {
+                    continue;
+                }
+                scored++;
+                double threshold = top.size() < k ? 0 : top.peek().getScore();
+                for (int i = firstEssential - 1; i >= 0 && score + boundPrefix[i + 1] > threshold; i--) {
+                    TermCursor cursor = cursors.get(i);
+                    if (cursor.advance(candidate) && cursor.doc() == candidate) {
+                        score += termScore(cursor, document, averageTitle, averageBody);
+                    }
+                }
+                if (top.size() < k) {
+                    top.add(new Hit(document.key, score));
+                } else if (score > top.peek().getScore()) {
+                    top.poll();
+                    top.add(new Hit(document.key, score));
+                }
+                if (top.size() == k) {
+                    double minimum = top.peek().getScore();
+                    while (firstEssential < cursors.size() && boundPrefix[firstEssential + 1] <= minimum) {
+                        firstEssential++;
+                    }
+                }
+            }
+            documentsScored.add(scored);
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(Hit::getScore).reversed());
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", liveDocuments.size());
+            stats.put("tombstones", tombstones);
+            stats.put("storedDocuments", documents.size());
+            stats.put("terms", postings.size());
+            stats.put("searches", searches.sum());
+            stats.put("documentsScored", documentsScored.sum());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= SCORING =========================
+
+    private double termScore(TermCursor cursor, Document document, double averageTitle, double averageBody) {
+        Postings list = cursor.postings;
+        int index = cursor.position;
+        return saturate(cursor.idf, list.titleFrequencies[index], document.titleLength, averageTitle,
+                list.bodyFrequencies[index], document.bodyLength, averageBody);
+    }
+
+    /**
+     * BM25F term weight without the constant {@code (k1 + 1)} factor, which does not change
+     * the ranking. It grows with frequency and shrinks with length, so feeding it a term's
+     * largest frequencies and shortest lengths gives that term's upper bound.
+     */
+    private double saturate(double idf, int titleFrequency, int titleLength, double averageTitle,
+                            int bodyFrequency, int bodyLength, double averageBody) {
+        double tf = titleWeight * titleFrequency / (1 - b + b * titleLength / averageTitle)
+                + bodyWeight * bodyFrequency / (1 - b + b * bodyLength / averageBody);
+        return idf * tf / (k1 + tf);
+    }
+
+    // ========================= MAINTENANCE =========================
+
+    private void tombstone(int docId) {
+        Document document = documents.get(docId);
+        document.deleted = true;
+        totalFieldLength[TITLE] -= document.titleLength;
+        totalFieldLength[BODY] -= document.bodyLength;
+        for (String term : document.terms) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                list.liveDocuments--;
+            }
+        }
+        document.terms = null;
+        tombstones++;
+    }
+
+    /**
+     * Drops tombstoned documents and renumbers the live ones in their current order, then
+     * rewrites every posting list with the new ids; empty terms are dropped.
+     */
+    private void compact() {
+        int[] remap = new int[documents.size()];
+        List<Document> live = new ArrayList<>(liveDocuments.size());
+        for (int docId = 0; docId < documents.size(); docId++) {
+            Document document = documents.get(docId);
+            remap[docId] = document.deleted ? -1 : live.size();
+            if (!document.deleted) {
+                live.add(document);
+            }
+        }
+
+        Map<String, Postings> compacted = new HashMap<>();
+        postings.forEach((term, list) -> {
+            Postings rewritten = new Postings();
+            for (int i = 0; i < list.size; i++) {
+                int docId = remap[list.docs[i]];
+                if (docId >= 0) {
+                    Document document = live.get(docId);
+                    rewritten.add(docId, list.titleFrequencies[i], list.bodyFrequencies[i],
+                            document.titleLength, document.bodyLength);
+                }
+            }
+            if (rewritten.size > 0) {
+                compacted.put(term, rewritten);
+            }
+        });
+        postings = compacted;
+        documents.clear();
+        documents.addAll(live);
+        liveDocuments.replaceAll((key, docId) -> remap[docId]);
+        tombstones = 0;
+    }
+
+    // ========================= TYPES =========================
+
+    public static final class Hit {
+        private final String key;
+        private final double score;
+
+        public Hit(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final class Document {
+        final String key;
+        final int titleLength;
+        final int bodyLength;
+        String[] terms;
+        boolean deleted;
+
+        Document(String key, int titleLength, int bodyLength, String[] terms) {
+            this.key = key;
+            this.titleLength = titleLength;
+            this.bodyLength = bodyLength;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Doc ids in increasing order with the term's frequency in each field. The maxima and
+     * minima cover every document ever added since the last compaction, so they stay valid
+     * bounds after removals.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] titleFrequencies = new int[4];
+        int[] bodyFrequencies = new int[4];
+        int size;
+        int liveDocuments;
+        int maxTitleFrequency;
+        int maxBodyFrequency;
+        int minTitleLength = Integer.MAX_VALUE;
+        int minBodyLength = Integer.MAX_VALUE;
+
+        void add(int docId, int titleFrequency, int bodyFrequency, int titleLength, int bodyLength) {
+            maxTitleFrequency = Math.max(maxTitleFrequency, titleFrequency);
+            maxBodyFrequency = Math.max(maxBodyFrequency, bodyFrequency);
+            minTitleLength = Math.min(minTitleLength, titleLength);
+            minBodyLength = Math.min(minBodyLength, bodyLength);
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                titleFrequencies = Arrays.copyOf(titleFrequencies, size * 2);
+                bodyFrequencies = Arrays.copyOf(bodyFrequencies, size * 2);
+            }
+            docs[size] = docId;
+            titleFrequencies[size] = titleFrequency;
+            bodyFrequencies[size] = bodyFrequency;
+            size++;
+            liveDocuments++;
+        }
+    }
+
+    private static final class TermCursor {
+        final Postings postings;
+        final double idf;
+        final double bound;
+        int position;
+
+        TermCursor(Postings postings, double idf, double bound) {
+            this.postings = postings;
+            this.idf = idf;
+            this.bound = bound;
+        }
+
+        int doc() {
+            return position < postings.size ? postings.docs[position] : Integer.MAX_VALUE;
+        }
+
+        void next() {
+            position++;
+        }
+
+        /**
+         * Moves to the first posting at or after {@code docId}; false when the list is exhausted.
+         */
+        boolean advance(int docId) {
+            if (doc() >= docId) {
+                return position < postings.size;
+            }
+            int found = Arrays.binarySearch(postings.docs, position, postings.size, docId);
+            position = found >= 0 ? found : -found - 1;
+            return position < postings.size;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.edubot.service.search;
+
+/**
+ * Light English stemmer: strips plurals, {@code -ly}, {@code -ness}, {@code -ing} and
+ * {@code -ed}, maps {@code -ation} onto {@code -ate} and drops a final silent {@code e},
+ * so "relation", "related" and "relate" share the stem "relat". It is deliberately
+ * conservative; words of four letters or fewer are left alone.
+ */
+final class EnglishStemmer {
+
+    private static final int MIN_STEM = 3;
+
+    private EnglishStemmer() {
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 4 || !isAlphabetic(word)) {
+            return word;
+        }
+        String s = plural(word);
+        s = replaceSuffix(s, "ational", "ate");
+        s = replaceSuffix(s, "ation", "ate");
+        s = replaceSuffix(s, "ness", "");
+        s = replaceSuffix(s, "ly", "");
+        s = verbSuffix(s, "ing");
+        String beforeEd = s;
+        s = verbSuffix(s, "ed");
+        if (s != beforeEd && s.endsWith("i")) {
+            s = s.substring(0, s.length() - 1) + "y";
+        }
+        if (s.length() > 4 && s.endsWith("e") && !s.endsWith("ee")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    private static String plural(String s) {
+        if (s.endsWith("ies")) {
+            return s.substring(0, s.length() - 3) + "y";
+        }
+        if (s.endsWith("sses") || s.endsWith("xes") || s.endsWith("ches") || s.endsWith("shes") || s.endsWith("zes")) {
+            return s.substring(0, s.length() - 2);
+        }
+        if (s.endsWith("s") && !s.endsWith("ss") && !s.endsWith("us") && !s.endsWith("is")) {
+            return s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    private static String replaceSuffix(String s, String suffix, String replacement) {
+        if (s.endsWith(suffix) && s.length() - suffix.length() >= MIN_STEM) {
+            return s.substring(0, s.length() - suffix.length()) + replacement;
+        }
+        return s;
+    }
+
+    /**
+     * Removes {@code -ing}/{@code -ed} when a vowel remains, undoubling "stopp" to "stop".
+     */
+    private static String verbSuffix(String s, String suffix) {
+        if (!s.endsWith(suffix)) {
+            return s;
+        }
+        String stem = s.substring(0, s.length() - suffix.length());
+        if (stem.length() < MIN_STEM || !hasVowel(stem)) {
+            return s;
+        }
+        int n = stem.length();
+        char last = stem.charAt(n - 1);
+        if (last == stem.charAt(n - 2) && !isVowel(last) && last != 'l' && last != 's' && last != 'z') {
+            stem = stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+
+    private static boolean hasVowel(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isVowel(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static boolean isAlphabetic(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < 'a' || s.charAt(i) > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,240 @@
+package com.edubot.service.search;
+
+import com.edubot.model.content.MaterialChunk;
+import com.edubot.model.material.StudyMaterial;
+import com.edubot.repository.MaterialChunkRepository;
+import com.edubot.service.ai.TextChunker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Splits study materials into overlapping chunks, persists them with
+ * {@link MaterialChunkRepository} and answers "which passages are relevant to this
+ * question" from a BM25F index over the chunks, so prompts carry a few kilobytes of
+ * material instead of whole documents.
+ *
+ * Re-chunking a material only writes chunks whose id or position changed; unchanged
+ * passages keep their ids and rows.
+ */
+@Component
+public class MaterialChunkStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterialChunkStore.class);
+    private static final int ID_HASH_CHARS = 16;
+
+    private final MaterialChunkRepository chunkRepository;
+    private final int maxChars;
+    private final int overlapChars;
+    private final int defaultTopK;
+    private final int contextChars;
+    private final Bm25Index index;
+
+    private final Map<String, MaterialChunk> chunksById = new ConcurrentHashMap<>();
+    private final Map<Long, List<String>> chunkIdsByMaterial = new ConcurrentHashMap<>();
+    private final Map<Long, String> materialTitles = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MaterialChunkStore(
+            MaterialChunkRepository chunkRepository,
+            @Value("${search.chunks.max-chars:1200}") int maxChars,
+            @Value("${search.chunks.overlap-chars:200}") int overlapChars,
+            @Value("${search.chunks.top-k:4}") int defaultTopK,
+            @Value("${search.chunks.context-chars:6000}") int contextChars,
+            @Value("${search.bm25.title-weight:2.0}") double titleWeight,
+            @Value("${search.bm25.body-weight:1.0}") double bodyWeight,
+            @Value("${search.bm25.k1:1.2}") double k1,
+            @Value("${search.bm25.b:0.75}") double b) {
+        if (maxChars <= 0 || overlapChars < 0 || overlapChars * 2 >= maxChars) {
+            throw new IllegalArgumentException("search.chunks.overlap-chars must be under half of search.chunks.max-chars");
+        }
+        this.chunkRepository = chunkRepository;
+        this.maxChars = maxChars;
+        this.overlapChars = overlapChars;
+        this.defaultTopK = defaultTopK;
+        this.contextChars = contextChars;
+        this.index = new Bm25Index(titleWeight, bodyWeight, k1, b);
+    }
+
+    /**
+     * Loads stored chunks for {@code materials} in one query and chunks any material that has none yet.
+     */
+    public void load(Collection<StudyMaterial> materials) {
+        Map<Long, List<MaterialChunk>> stored = chunkRepository.findAll().stream()
+                .collect(Collectors.groupingBy(MaterialChunk::getMaterialId));
+        int chunked = 0;
+        for (StudyMaterial material : materials) {
+            if (material.getId() == null) {
+                continue;
+            }
+            List<MaterialChunk> chunks = stored.get(material.getId());
+            if (chunks == null) {
+                index(material.getId(), material.getTitle(), material.getContent());
+                chunked++;
+            } else {
+                chunks.sort(Comparator.comparingInt(MaterialChunk::getOrdinal));
+                materialTitles.put(material.getId(), material.getTitle());
+                register(material.getTitle(), chunks);
+                chunkIdsByMaterial.put(material.getId(), ids(chunks));
+            }
+        }
+        logger.info("Loaded chunks for {} study materials ({} chunked on startup).", materials.size(), chunked);
+    }
+
+    /**
+     * Re-chunks one material and stores the result. Returns the material's chunks in reading order.
+     */
+    public List<MaterialChunk> index(Long materialId, String title, String content) {
+        List<MaterialChunk> chunks = split(materialId, content);
+        Map<String, MaterialChunk> previous = new HashMap<>();
+        chunkIdsByMaterial.getOrDefault(materialId, List.of())
+                .forEach(id -> previous.put(id, chunksById.get(id)));
+
+        List<MaterialChunk> changed = chunks.stream()
+                .filter(chunk -> !samePosition(previous.get(chunk.getId()), chunk))
+                .collect(Collectors.toList());
+        Set<String> currentIds = new HashSet<>(ids(chunks));
+        List<String> removed = previous.keySet().stream()
+                .filter(id -> !currentIds.contains(id))
+                .collect(Collectors.toList());
+
+        if (!removed.isEmpty()) {
+            chunkRepository.deleteAllById(removed);
+        }
+        if (!changed.isEmpty()) {
+            chunkRepository.saveAll(changed);
+        }
+
+        removed.forEach(id -> {
+            index.remove(id);
+            chunksById.remove(id);
+        });
+        boolean retitled = !Objects.equals(materialTitles.put(materialId, title), title);
+        register(title, retitled ? chunks : changed);
+        chunkIdsByMaterial.put(materialId, ids(chunks));
+        return chunks;
+    }
+
+    public void remove(Long materialId) {
+        List<String> ids = chunkIdsByMaterial.remove(materialId);
+        materialTitles.remove(materialId);
+        chunkRepository.deleteByMaterialId(materialId);
+        if (ids != null) {
+            ids.forEach(id -> {
+                index.remove(id);
+                chunksById.remove(id);
+            });
+        }
+    }
+
+    public List<MaterialChunk> getChunks(Long materialId) {
+        return chunkIdsByMaterial.getOrDefault(materialId, List.of()).stream()
+                .map(chunksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public List<MaterialChunk> topChunks(String question) {
+        return topChunks(question, defaultTopK);
+    }
+
+    public List<MaterialChunk> topChunks(String question, int k) {
+        return index.search(question, k).stream()
+                .map(hit -> chunksById.get(hit.getKey()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Formats the chunks most relevant to {@code question} as prompt context, best first,
+     * stopping before {@code search.chunks.context-chars} is exceeded.
+     */
+    public String buildContext(String question) {
+        StringBuilder context = new StringBuilder();
+        for (MaterialChunk chunk : topChunks(question)) {
+            String header = "[" + materialTitles.getOrDefault(chunk.getMaterialId(), "Material " + chunk.getMaterialId())
+                    + ", chars " + chunk.getStartOffset() + "-" + chunk.getEndOffset() + "]\n";
+            if (context.length() > 0 && context.length() + header.length() + chunk.getText().length() + 2 > contextChars) {
+                break;
+            }
+            if (context.length() > 0) {
+                context.append("\n\n");
+            }
+            context.append(header).append(chunk.getText());
+        }
+        return context.toString();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(index.getStats());
+        stats.put("materials", chunkIdsByMaterial.size());
+        stats.put("chunks", chunksById.size());
+        return stats;
+    }
+
+    // ========================= INTERNALS =========================
+
+    private List<MaterialChunk> split(Long materialId, String content) {
+        List<MaterialChunk> chunks = new ArrayList<>();
+        if (content == null) {
+            return chunks;
+        }
+        Map<String, Integer> seen = new HashMap<>();
+        for (TextChunker.Span span : TextChunker.spans(content, maxChars, overlapChars)) {
+            String text = content.substring(span.getStart(), span.getEnd());
+            String id = materialId + ":" + hash(text);
+            int duplicate = seen.merge(id, 1, Integer::sum);
+            if (duplicate > 1) {
+                id = id + "-" + duplicate;
+            }
+            chunks.add(new MaterialChunk(id, materialId, chunks.size(), span.getStart(), span.getEnd(), text));
+        }
+        return chunks;
+    }
+
+    private void register(String title, List<MaterialChunk> chunks) {
+        for (MaterialChunk chunk : chunks) {
+            chunksById.put(chunk.getId(), chunk);
+            index.put(chunk.getId(), title, chunk.getText());
+        }
+    }
+
+    private static List<String> ids(List<MaterialChunk> chunks) {
+        return chunks.stream().map(MaterialChunk::getId).collect(Collectors.toList());
+    }
+
+    private static boolean samePosition(MaterialChunk previous, MaterialChunk current) {
+        return previous != null
+                && previous.getOrdinal() == current.getOrdinal()
+                && previous.getStartOffset() == current.getStartOffset()
+                && previous.getEndOffset() == current.getEndOffset();
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, ID_HASH_CHARS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
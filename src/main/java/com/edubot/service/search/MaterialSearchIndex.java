@@ -0,0 +1,65 @@
+package com.edubot.service.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Relevance index over study materials and the per-subject content tables.
+ *
+ * Owners keep it current: {@code StudyMaterialService} and the subject services call
+ * {@link #put} and {@link #remove} from their write paths and load their rows at
+ * startup. Entries are identified by a source ("material", "math", ...) and that
+ * source's id.
+ */
+@Component
+public class MaterialSearchIndex {
+
+    private final Bm25Index index;
+    private final Map<String, SearchHit> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MaterialSearchIndex(
+            @Value("${search.bm25.title-weight:2.0}") double titleWeight,
+            @Value("${search.bm25.body-weight:1.0}") double bodyWeight,
+            @Value("${search.bm25.k1:1.2}") double k1,
+            @Value("${search.bm25.b:0.75}") double b) {
+        this.index = new Bm25Index(titleWeight, bodyWeight, k1, b);
+    }
+
+    public void put(String source, Object id, String title, String body) {
+        String key = key(source, id);
+        index.put(key, title, body);
+        entries.put(key, new SearchHit(source, String.valueOf(id), title, 0));
+    }
+
+    public void remove(String source, Object id) {
+        String key = key(source, id);
+        index.remove(key);
+        entries.remove(key);
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        return index.search(query, limit).stream()
+                .map(hit -> {
+                    SearchHit entry = entries.get(hit.getKey());
+                    return entry == null ? null : entry.withScore(hit.getScore());
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> getStats() {
+        return index.getStats();
+    }
+
+    private static String key(String source, Object id) {
+        return source + ":" + id;
+    }
+}
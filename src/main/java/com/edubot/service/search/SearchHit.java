@@ -0,0 +1,39 @@
+package com.edubot.service.search;
+
+/**
+ * One ranked result from {@link MaterialSearchIndex}: where the content lives and how well it matched.
+ */
+public final class SearchHit {
+
+    private final String source;
+    private final String id;
+    private final String title;
+    private final double score;
+
+    public SearchHit(String source, String id, String title, double score) {
+        this.source = source;
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    SearchHit withScore(double score) {
+        return new SearchHit(source, id, title, score);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,56 @@
+package com.edubot.service.search;
+
+/**
+ * Light Spanish stemmer after Savoy: folds accents, strips {@code -mente} adverbs and
+ * then plural and gender endings, so "niño", "niños" and "niña" share "niñ".
+ */
+final class SpanishStemmer {
+
+    private SpanishStemmer() {
+    }
+
+    static String stem(String word) {
+        char[] s = word.toCharArray();
+        for (int i = 0; i < s.length; i++) {
+            s[i] = fold(s[i]);
+        }
+        int len = s.length;
+        if (len > 7 && endsWith(s, len, "mente")) {
+            len -= 5;
+        }
+        if (len > 5 && endsWith(s, len, "eses")) {
+            len -= 2;
+        } else if (len > 4 && endsWith(s, len, "ces")) {
+            s[len - 3] = 'z';
+            len -= 2;
+        } else if (len > 4 && s[len - 1] == 's' && (s[len - 2] == 'o' || s[len - 2] == 'a' || s[len - 2] == 'e')) {
+            len -= 2;
+        } else if (len > 3 && (s[len - 1] == 'o' || s[len - 1] == 'a' || s[len - 1] == 'e')) {
+            len -= 1;
+        }
+        return new String(s, 0, len);
+    }
+
+    private static boolean endsWith(char[] s, int len, String suffix) {
+        if (len < suffix.length()) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (s[len - suffix.length() + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fold(char c) {
+        switch (c) {
+            case 'à': case 'á': case 'â': case 'ä': return 'a';
+            case 'è': case 'é': case 'ê': case 'ë': return 'e';
+            case 'ì': case 'í': case 'î': case 'ï': return 'i';
+            case 'ò': case 'ó': case 'ô': case 'ö': return 'o';
+            case 'ù': case 'ú': case 'û': case 'ü': return 'u';
+            default: return c;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.edubot.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns text into index terms: runs of letters and digits, lower-cased, stop words
+ * removed and stemmed for the text's language.
+ *
+ * The language is guessed from stop word hits, so English and Spanish material share
+ * one index without being tagged. Queries are analyzed the same way when they carry
+ * enough stop words to tell; short queries usually do not, so {@link #analyzeQuery}
+ * then keeps both the English and the Spanish stem of every word.
+ */
+public final class TextAnalyzer {
+
+    public enum Language { ENGLISH, SPANISH }
+
+    private static final int DETECTION_SAMPLE_TOKENS = 500;
+
+    private static final Set<String> ENGLISH_STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for",
+            "from", "has", "have", "how", "i", "if", "in", "into", "is", "it", "its", "me", "my",
+            "not", "of", "on", "or", "so", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "we", "were", "what", "when", "where", "which", "who",
+            "why", "will", "with", "you", "your");
+
+    private static final Set<String> SPANISH_STOP_WORDS = Set.of(
+            "a", "al", "como", "con", "cual", "cuando", "de", "del", "donde", "el", "ella",
+            "en", "es", "esta", "este", "esto", "fue", "ha", "la", "las", "le", "lo", "los",
+            "mas", "más", "me", "mi", "muy", "no", "o", "para", "pero", "por", "porque", "que",
+            "qué", "se", "si", "sí", "sin", "sobre", "son", "su", "sus", "un", "una", "uno",
+            "unos", "y", "ya", "yo");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        return analyze(text, detect(text));
+    }
+
+    public static List<String> analyze(String text, Language language) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        Set<String> stopWords = language == Language.SPANISH ? SPANISH_STOP_WORDS : ENGLISH_STOP_WORDS;
+        for (String token : tokenize(text)) {
+            if (stopWords.contains(token)) {
+                continue;
+            }
+            terms.add(language == Language.SPANISH ? SpanishStemmer.stem(token) : EnglishStemmer.stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Analyzes a search query in its detected language, or with both stemmers when its
+     * stop words do not tell the languages apart, so it matches documents in either.
+     */
+    public static List<String> analyzeQuery(String query) {
+        Language language = guess(query);
+        if (language != null) {
+            return analyze(query, language);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            if (ENGLISH_STOP_WORDS.contains(token) || SPANISH_STOP_WORDS.contains(token)) {
+                continue;
+            }
+            String english = EnglishStemmer.stem(token);
+            String spanish = SpanishStemmer.stem(token);
+            terms.add(english);
+            if (!spanish.equals(english)) {
+                terms.add(spanish);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Picks Spanish when its stop words outnumber English ones in the first few hundred tokens.
+     */
+    public static Language detect(String text) {
+        Language language = guess(text);
+        return language != null ? language : Language.ENGLISH;
+    }
+
+    /**
+     * The language with more stop word hits, or null on a tie (including no hits at all).
+     */
+    private static Language guess(String text) {
+        if (text == null) {
+            return null;
+        }
+        int english = 0;
+        int spanish = 0;
+        int seen = 0;
+        for (String token : tokenize(text)) {
+            if (ENGLISH_STOP_WORDS.contains(token)) {
+                english++;
+            }
+            if (SPANISH_STOP_WORDS.contains(token)) {
+                spanish++;
+            }
+            if (++seen == DETECTION_SAMPLE_TOKENS) {
+                break;
+            }
+        }
+        if (spanish == english) {
+            return null;
+        }
+        return spanish > english ? Language.SPANISH : Language.ENGLISH;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+}
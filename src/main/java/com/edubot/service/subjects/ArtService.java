@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.ArtRequestDTO;
 import com.edubot.dto.SUBJECTS.ArtResponseDTO;
 import com.edubot.model.subjects.Art;
 import com.edubot.repository.subject.ArtRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class ArtService {
 
     private static final Logger logger = LoggerFactory.getLogger(ArtService.class);
+    private static final String SEARCH_SOURCE = "art";
 
     private final ArtRepository artRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public ArtService(ArtRepository artRepository) {
+    public ArtService(ArtRepository artRepository, MaterialSearchIndex materialSearchIndex) {
         this.artRepository = artRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexArtContent() {
+        artRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= Art Content Management =========================
@@ -45,7 +56,8 @@ public class ArtService {
                 artDTO.getFocusArea(),
                 artDTO.getProficiencyLevel()
         );
-        artRepository.save(artContent);
+        Art saved = artRepository.save(artContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("Art content '{}' created successfully.", artDTO.getTitle());
     }
 
@@ -108,6 +120,7 @@ public class ArtService {
         artContent.setProficiencyLevel(artDTO.getProficiencyLevel());
 
         artRepository.save(artContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, artContent.getTitle(), artContent.getContentBody());
         logger.info("Art content with ID {} updated successfully.", contentId);
     }
 
@@ -123,6 +136,7 @@ public class ArtService {
         }
 
         artRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("Art content with ID {} deleted successfully.", contentId);
     }
 
@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.EnglishRequestDTO;
 import com.edubot.dto.SUBJECTS.EnglishResponseDTO;
 import com.edubot.model.subjects.English;
 import com.edubot.repository.subject.EnglishRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class EnglishService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnglishService.class);
+    private static final String SEARCH_SOURCE = "english";
 
     private final EnglishRepository englishRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public EnglishService(EnglishRepository englishRepository) {
+    public EnglishService(EnglishRepository englishRepository, MaterialSearchIndex materialSearchIndex) {
         this.englishRepository = englishRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexEnglishContent() {
+        englishRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= English Content Management =========================
@@ -44,7 +55,8 @@ public class EnglishService {
                 englishDTO.getDescription(),
                 englishDTO.getContentBody()
         );
-        englishRepository.save(englishContent);
+        English saved = englishRepository.save(englishContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("English content '{}' created successfully.", englishDTO.getTitle());
     }
 
@@ -105,6 +117,7 @@ public class EnglishService {
         englishContent.setContentBody(englishDTO.getContentBody());
 
         englishRepository.save(englishContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, englishContent.getTitle(), englishContent.getContentBody());
         logger.info("English content with ID {} updated successfully.", contentId);
     }
 
@@ -120,6 +133,7 @@ public class EnglishService {
         }
 
         englishRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("English content with ID {} deleted successfully.", contentId);
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.HistoryRequestDTO;
 import com.edubot.dto.SUBJECTS.HistoryResponseDTO;
 import com.edubot.model.subjects.History;
 import com.edubot.repository.subject.HistoryRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class HistoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(HistoryService.class);
+    private static final String SEARCH_SOURCE = "history";
 
     private final HistoryRepository historyRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public HistoryService(HistoryRepository historyRepository) {
+    public HistoryService(HistoryRepository historyRepository, MaterialSearchIndex materialSearchIndex) {
         this.historyRepository = historyRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexHistoryContent() {
+        historyRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= History Content Management =========================
@@ -44,7 +55,8 @@ public class HistoryService {
                 historyDTO.getDescription(),
                 historyDTO.getContentBody()
         );
-        historyRepository.save(historyContent);
+        History saved = historyRepository.save(historyContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("History content '{}' created successfully.", historyDTO.getTitle());
     }
 
@@ -105,6 +117,7 @@ public class HistoryService {
         historyContent.setContentBody(historyDTO.getContentBody());
 
         historyRepository.save(historyContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, historyContent.getTitle(), historyContent.getContentBody());
         logger.info("History content with ID {} updated successfully.", contentId);
     }
 
@@ -120,6 +133,7 @@ public class HistoryService {
         }
 
         historyRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("History content with ID {} deleted successfully.", contentId);
     }
 }
\ No newline at end of file
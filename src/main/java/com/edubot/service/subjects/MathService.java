@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.MathRequestDTO;
 import com.edubot.dto.SUBJECTS.MathResponseDTO;
 import com.edubot.model.subjects.Math;
 import com.edubot.repository.subject.MathRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class MathService {
 
     private static final Logger logger = LoggerFactory.getLogger(MathService.class);
+    private static final String SEARCH_SOURCE = "math";
 
     private final MathRepository mathRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public MathService(MathRepository mathRepository) {
+    public MathService(MathRepository mathRepository, MaterialSearchIndex materialSearchIndex) {
         this.mathRepository = mathRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexMathContent() {
+        mathRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= Math Content Management =========================
@@ -45,7 +56,8 @@ public class MathService {
                 mathDTO.getFocusArea(),
                 mathDTO.getProficiencyLevel()
         );
-        mathRepository.save(mathContent);
+        Math saved = mathRepository.save(mathContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("Math content '{}' created successfully.", mathDTO.getTitle());
     }
 
@@ -108,6 +120,7 @@ public class MathService {
         mathContent.setProficiencyLevel(mathDTO.getProficiencyLevel());
 
         mathRepository.save(mathContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, mathContent.getTitle(), mathContent.getContentBody());
         logger.info("Math content with ID {} updated successfully.", contentId);
     }
 
@@ -123,6 +136,7 @@ public class MathService {
         }
 
         mathRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("Math content with ID {} deleted successfully.", contentId);
     }
 }
\ No newline at end of file
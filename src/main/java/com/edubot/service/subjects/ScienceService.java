@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.ScienceRequestDTO;
 import com.edubot.dto.SUBJECTS.ScienceResponseDTO;
 import com.edubot.model.subjects.Science;
 import com.edubot.repository.subject.ScienceRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class ScienceService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScienceService.class);
+    private static final String SEARCH_SOURCE = "science";
 
     private final ScienceRepository scienceRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public ScienceService(ScienceRepository scienceRepository) {
+    public ScienceService(ScienceRepository scienceRepository, MaterialSearchIndex materialSearchIndex) {
         this.scienceRepository = scienceRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexScienceContent() {
+        scienceRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= Science Content Management =========================
@@ -45,7 +56,8 @@ public class ScienceService {
                 scienceDTO.getFocusArea(),
                 scienceDTO.getProficiencyLevel()
         );
-        scienceRepository.save(scienceContent);
+        Science saved = scienceRepository.save(scienceContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("Science content '{}' created successfully.", scienceDTO.getTitle());
     }
 
@@ -108,6 +120,7 @@ public class ScienceService {
         scienceContent.setProficiencyLevel(scienceDTO.getProficiencyLevel());
 
         scienceRepository.save(scienceContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, scienceContent.getTitle(), scienceContent.getContentBody());
         logger.info("Science content with ID {} updated successfully.", contentId);
     }
 
@@ -123,6 +136,7 @@ public class ScienceService {
         }
 
         scienceRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("Science content with ID {} deleted successfully.", contentId);
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.edubot.dto.SUBJECTS.SpanishRequestDTO;
 import com.edubot.dto.SUBJECTS.SpanishResponseDTO;
 import com.edubot.model.subjects.Spanish;
 import com.edubot.repository.subject.SpanishRepository;
+import com.edubot.service.search.MaterialSearchIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +24,21 @@ import java.util.stream.Collectors;
 public class SpanishService {
 
     private static final Logger logger = LoggerFactory.getLogger(SpanishService.class);
+    private static final String SEARCH_SOURCE = "spanish";
 
     private final SpanishRepository spanishRepository;
+    private final MaterialSearchIndex materialSearchIndex;
 
     @Autowired
-    public SpanishService(SpanishRepository spanishRepository) {
+    public SpanishService(SpanishRepository spanishRepository, MaterialSearchIndex materialSearchIndex) {
         this.spanishRepository = spanishRepository;
+        this.materialSearchIndex = materialSearchIndex;
+    }
+
+    @PostConstruct
+    public void indexSpanishContent() {
+        spanishRepository.findAll().forEach(content ->
+                materialSearchIndex.put(SEARCH_SOURCE, content.getId(), content.getTitle(), content.getContentBody()));
     }
 
     // ========================= Spanish Content Management =========================
@@ -39,7 +50,8 @@ public class SpanishService {
                 spanishDTO.getDescription(),
                 spanishDTO.getContentBody()
         );
-        spanishRepository.save(spanishContent);
+        Spanish saved = spanishRepository.save(spanishContent);
+        materialSearchIndex.put(SEARCH_SOURCE, saved.getId(), saved.getTitle(), saved.getContentBody());
         logger.info("Spanish content '{}' created successfully.", spanishDTO.getTitle());
     }
 
@@ -83,6 +95,7 @@ public class SpanishService {
         spanishContent.setContentBody(spanishDTO.getContentBody());
 
         spanishRepository.save(spanishContent);
+        materialSearchIndex.put(SEARCH_SOURCE, contentId, spanishContent.getTitle(), spanishContent.getContentBody());
         logger.info("Spanish content with ID {} updated successfully.", contentId);
     }
 
@@ -93,6 +106,7 @@ public class SpanishService {
         }
 
         spanishRepository.deleteById(contentId);
+        materialSearchIndex.remove(SEARCH_SOURCE, contentId);
         logger.info("Spanish content with ID {} deleted successfully.", contentId);
     }
 }
\ No newline at end of file
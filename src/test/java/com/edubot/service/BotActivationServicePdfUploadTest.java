@@ -0,0 +1,127 @@
+package com.edubot.service;
+
+import com.edubot.service.ai.AiPriority;
+import com.edubot.service.ai.AiResponseCache;
+import com.edubot.service.ai.BulkheadRegistry;
+import com.edubot.service.ai.EndpointBulkhead;
+import com.edubot.service.ai.HedgedRequestExecutor;
+import com.edubot.service.ai.LectureContextRegistry;
+import com.edubot.service.ai.MapReduceSummarizer;
+import com.edubot.service.ai.MicroBatcher;
+import com.edubot.service.ai.PriorityDispatcher;
+import com.edubot.service.ai.RequestCoalescer;
+import com.edubot.service.ai.SemanticAnswerCache;
+import com.edubot.service.pdf.LocalPdfExtractor;
+import com.edubot.service.pdf.PdfInvertedIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BotActivationServicePdfUploadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final LocalPdfExtractor localPdfExtractor = mock(LocalPdfExtractor.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamedUploadPostsFileBodyWithPdfHeaders() throws Exception {
+        Path file = tempDir.resolve("week 1 notes.pdf");
+        byte[] content = "%PDF-1.4 scanned lecture notes".getBytes();
+        Files.write(file, content);
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn("scanned text");
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        when(localPdfExtractor.extractText(anyString())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        String text = service().extractTextAsync(file.toString(), AiPriority.NORMAL).join();
+
+        assertEquals("scanned text", text);
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).sendAsync(captor.capture(), any(HttpResponse.BodyHandler.class));
+        HttpRequest request = captor.getValue();
+        assertEquals("http://ai.test/pdf/extract", request.uri().toString());
+        assertEquals("POST", request.method());
+        assertEquals(Optional.of("application/pdf"), request.headers().firstValue("Content-Type"));
+        assertEquals(Optional.of("week+1+notes.pdf"), request.headers().firstValue("X-File-Name"));
+        HttpRequest.BodyPublisher body = request.bodyPublisher().orElseThrow();
+        assertEquals(content.length, body.contentLength());
+        assertArrayEquals(content, drain(body));
+    }
+
+    private BotActivationService service() {
+        PriorityDispatcher priorityDispatcher = mock(PriorityDispatcher.class);
+        when(priorityDispatcher.submit(anyString(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+        HedgedRequestExecutor hedgedExecutor = mock(HedgedRequestExecutor.class);
+        when(hedgedExecutor.execute(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        EndpointBulkhead bulkhead = mock(EndpointBulkhead.class);
+        when(bulkhead.execute(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        BulkheadRegistry bulkheads = mock(BulkheadRegistry.class);
+        when(bulkheads.get(anyString())).thenReturn(bulkhead);
+
+        BotActivationService service = new BotActivationService(10, mock(RequestCoalescer.class),
+                mock(AiResponseCache.class), mock(MicroBatcher.class), bulkheads, hedgedExecutor, priorityDispatcher,
+                mock(SemanticAnswerCache.class), mock(LectureContextRegistry.class), mock(MapReduceSummarizer.class),
+                localPdfExtractor, mock(PdfInvertedIndex.class), httpClient);
+        ReflectionTestUtils.setField(service, "pdfEndpoint", "http://ai.test/pdf");
+        ReflectionTestUtils.setField(service, "streamPdfUploads", true);
+        ReflectionTestUtils.setField(service, "uploadTimeout", 30);
+        return service;
+    }
+
+    private static byte[] drain(HttpRequest.BodyPublisher body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        body.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(out.toByteArray());
+            }
+        });
+        return done.join();
+    }
+}
@@ -0,0 +1,81 @@
+package com.edubot.service;
+
+import com.edubot.dto.LecturePageDTO;
+import com.edubot.dto.LectureSummaryDTO;
+import com.edubot.exception.ValidationException;
+import com.edubot.repository.LectureContentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LectureServiceTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private final LectureContentRepository repository = mock(LectureContentRepository.class);
+
+    @Test
+    void testFirstPageReturnsLimitAndCursorToContinue() {
+        when(repository.findSummaries(any())).thenReturn(List.of(summary(1L, NINE), summary(2L, NINE), summary(3L, NINE)));
+
+        LecturePageDTO page = service().getLectureSummaries(null, 2);
+
+        assertEquals(List.of(1L, 2L), ids(page));
+        assertNotNull(page.getNextCursor());
+        verify(repository).findSummaries(PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testContinuationResumesAfterLastRowAndLastPageHasNoCursor() {
+        LectureService service = service();
+        when(repository.findSummaries(any())).thenReturn(List.of(summary(1L, NINE), summary(2L, NINE), summary(3L, NINE)));
+        String cursor = service.getLectureSummaries(null, 2).getNextCursor();
+        when(repository.findSummariesAfter(eq(NINE), eq(2L), any())).thenReturn(List.of(summary(3L, NINE)));
+
+        LecturePageDTO last = service.getLectureSummaries(cursor, 2);
+
+        assertEquals(List.of(3L), ids(last));
+        assertNull(last.getNextCursor());
+        verify(repository).findSummariesAfter(NINE, 2L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testMalformedCursorIsAValidationError() {
+        LectureService service = service();
+        String badTime = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|4".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationException.class, () -> service.getLectureSummaries("not a cursor!", 10));
+        assertThrows(ValidationException.class, () -> service.getLectureSummaries(badTime, 10));
+        verify(repository, never()).findSummariesAfter(any(), any(), any());
+    }
+
+    private LectureService service() {
+        LectureService service = new LectureService();
+        ReflectionTestUtils.setField(service, "lectureContentRepository", repository);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(service, "maxPageSize", 200);
+        return service;
+    }
+
+    private static LectureSummaryDTO summary(Long id, LocalDateTime scheduledTime) {
+        return new LectureSummaryDTO(id, "Lecture " + id, "Physics", scheduledTime);
+    }
+
+    private static List<Long> ids(LecturePageDTO page) {
+        return page.getLectures().stream().map(LectureSummaryDTO::getId).toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.edubot.service;
+
+import com.edubot.model.material.StudyMaterial;
+import com.edubot.repository.MaterialChunkRepository;
+import com.edubot.repository.StudyMaterialRepository;
+import com.edubot.service.search.MaterialChunkStore;
+import com.edubot.service.search.MaterialSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StudyMaterialServiceTest {
+
+    private final StudyMaterialRepository repository = mock(StudyMaterialRepository.class);
+
+    @Test
+    void testSameTitleReplacesMaterialAndMovesSubjectIndex() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        StudyMaterialService service = service();
+
+        service.addMaterial("Cell Biology", "Cells are the basic unit of life.", "Biology");
+        service.addMaterial("  cell biology ", "Cells divide by mitosis and meiosis.", "Science");
+
+        assertEquals("Cells divide by mitosis and meiosis.", service.getMaterialByTitle("CELL BIOLOGY"));
+        assertTrue(service.getMaterialsBySubject("biology").isEmpty());
+        List<StudyMaterial> science = service.getMaterialsBySubject(" Science ");
+        assertEquals(1, science.size());
+        assertEquals("Cell Biology", science.get(0).getTitle());
+        assertEquals("Cell Biology", service.findRelevantMaterials("mitosis").get(0).getTitle());
+    }
+
+    @Test
+    void testFailedSaveLeavesCachedMaterialAndIndexesUnchanged() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        StudyMaterialService service = service();
+        service.addMaterial("Cell Biology", "Cells are the basic unit of life.", "Biology");
+
+        when(repository.save(any())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class,
+                () -> service.addMaterial("Cell Biology", "Cells divide by mitosis and meiosis.", "Science"));
+        assertThrows(IllegalStateException.class,
+                () -> service.updateMaterial("cell biology", "Rewritten while the database is down."));
+
+        assertEquals("Cells are the basic unit of life.", service.getMaterialByTitle("Cell Biology"));
+        assertEquals("Biology", service.getMaterialsBySubject("biology").get(0).getSubject());
+        assertTrue(service.getMaterialsBySubject("science").isEmpty());
+        assertTrue(service.findRelevantMaterials("mitosis").isEmpty());
+    }
+
+    @Test
+    void testDeleteRemovesMaterialFromEveryIndex() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        StudyMaterialService service = service();
+        service.addMaterial("Cell Biology", "Cells are the basic unit of life.", "Biology");
+
+        assertEquals("Study material 'cell biology' deleted successfully.", service.deleteMaterial("cell biology"));
+
+        assertEquals("Study material with title 'Cell Biology' not found.", service.getMaterialByTitle("Cell Biology"));
+        assertTrue(service.getMaterialsBySubject("biology").isEmpty());
+        assertTrue(service.findRelevantMaterials("cells").isEmpty());
+    }
+
+    private StudyMaterialService service() {
+        MaterialChunkStore chunkStore = new MaterialChunkStore(mock(MaterialChunkRepository.class),
+                1200, 200, 4, 6000, 2.0, 1.0, 1.2, 0.75);
+        return new StudyMaterialService(repository, null, null,
+                new MaterialSearchIndex(2.0, 1.0, 1.2, 0.75), chunkStore);
+    }
+}
@@ -0,0 +1,103 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOnlyConfiguredTasksAreCacheable() {
+        AiResponseCache cache = memoryCache(10, 1024, new AtomicLong());
+        assertTrue(cache.isCacheable("summary"));
+        assertFalse(cache.isCacheable("content"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        AiResponseCache cache = memoryCache(2, 1024, new AtomicLong());
+        cache.put("summary", "a", "A");
+        cache.put("summary", "b", "B");
+        cache.get("summary", "a");
+        cache.put("summary", "c", "C");
+
+        assertTrue(cache.get("summary", "a").isPresent());
+        assertFalse(cache.get("summary", "b").isPresent());
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void testByteBoundEvictsEntries() {
+        AiResponseCache cache = memoryCache(100, 15, new AtomicLong());
+        cache.put("summary", "a", "12345");
+        cache.put("summary", "b", "67890");
+
+        assertFalse(cache.get("summary", "a").isPresent());
+        assertEquals("67890", cache.get("summary", "b").orElseThrow());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        AtomicLong now = new AtomicLong(0);
+        AiResponseCache cache = memoryCache(10, 1024, now);
+        cache.put("quiz", "topic", "quiz");
+
+        now.set(Duration.ofMinutes(2).toMillis());
+
+        assertFalse(cache.get("quiz", "topic").isPresent());
+        assertEquals(1L, cache.getStats().get("expirations"));
+    }
+
+    @Test
+    void testDiskTierSurvivesRestart() throws Exception {
+        Path file = tempDir.resolve("cache.dat");
+        AiResponseCache first = new AiResponseCache(true, "summary", 10, 1024, Duration.ofMinutes(1),
+                new MappedResponseStore(file, 64 * 1024), () -> 0L);
+        first.put("summary", "chapter 1", "short summary");
+        first.close();
+
+        AiResponseCache second = new AiResponseCache(true, "summary", 10, 1024, Duration.ofMinutes(1),
+                new MappedResponseStore(file, 64 * 1024), () -> 0L);
+
+        assertEquals("short summary", second.get("summary", "chapter 1").orElseThrow());
+        assertEquals(1L, second.getStats().get("diskHits"));
+        second.close();
+    }
+
+    @Test
+    void testDiskHitKeepsItsOriginalExpiry() throws Exception {
+        Path file = tempDir.resolve("cache.dat");
+        AtomicLong clock = new AtomicLong();
+        AiResponseCache first = new AiResponseCache(true, "summary", 10, 1024, Duration.ofMinutes(1),
+                new MappedResponseStore(file, 64 * 1024), clock::get);
+        first.put("summary", "chapter 1", "short summary");
+        first.close();
+
+        AiResponseCache second = new AiResponseCache(true, "summary", 10, 1024, Duration.ofMinutes(1),
+                new MappedResponseStore(file, 64 * 1024), clock::get);
+        clock.set(50_000);
+        assertTrue(second.get("summary", "chapter 1").isPresent());
+        clock.set(61_000);
+
+        assertFalse(second.get("summary", "chapter 1").isPresent());
+        second.close();
+    }
+
+    @Test
+    void testDiskCapacityBeyondOneMappingIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedResponseStore(tempDir.resolve("huge.dat"), 4096L * 1024 * 1024));
+    }
+
+    private AiResponseCache memoryCache(int maxEntries, long maxBytes, AtomicLong clock) {
+        return new AiResponseCache(true, "summary,quiz", maxEntries, maxBytes, Duration.ofMinutes(1), null, clock::get);
+    }
+}
@@ -0,0 +1,101 @@
+package com.edubot.service.ai;
+
+import com.edubot.exception.AiServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointBulkheadTest {
+
+    @Test
+    void testRejectsWorkBeyondConcurrencyLimit() {
+        EndpointBulkhead bulkhead = bulkhead(new AtomicLong(), 1);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        bulkhead.execute(() -> pending);
+        CompletableFuture<String> rejected = bulkhead.execute(() -> CompletableFuture.completedFuture("ok"));
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(error.getCause() instanceof AiServiceUnavailableException);
+        assertEquals(1L, bulkhead.getStats().get("rejectedByLimit"));
+    }
+
+    @Test
+    void testFailuresShrinkTheLimit() {
+        EndpointBulkhead bulkhead = bulkhead(new AtomicLong(), 10);
+
+        bulkhead.execute(() -> CompletableFuture.failedFuture(serverError()));
+
+        assertEquals(5, bulkhead.getStats().get("limit"));
+    }
+
+    @Test
+    void testCircuitOpensAndRecoversThroughHalfOpenProbe() {
+        AtomicLong clock = new AtomicLong();
+        EndpointBulkhead bulkhead = bulkhead(clock, 10);
+
+        for (int i = 0; i < 2; i++) {
+            bulkhead.execute(() -> CompletableFuture.failedFuture(serverError()));
+        }
+        assertEquals("OPEN", bulkhead.getStats().get("circuitState"));
+        assertThrows(CompletionException.class,
+                () -> bulkhead.execute(() -> CompletableFuture.completedFuture("ok")).join());
+
+        clock.addAndGet(1_000);
+        assertEquals("ok", bulkhead.execute(() -> CompletableFuture.completedFuture("ok")).join());
+        assertEquals("CLOSED", bulkhead.getStats().get("circuitState"));
+    }
+
+    @Test
+    void testClientErrorsCancellationsAndAbortsDoNotCountAsFailures() {
+        EndpointBulkhead bulkhead = bulkhead(new AtomicLong(), 10);
+
+        bulkhead.execute(() -> CompletableFuture.failedFuture(new AiUpstreamException("bad request", 400)));
+        bulkhead.execute(() -> CompletableFuture.failedFuture(new CancellationException()));
+        bulkhead.execute(() -> CompletableFuture.failedFuture(
+                new UncheckedIOException("Client disconnected from stream", new IOException("Broken pipe"))));
+
+        assertEquals("CLOSED", bulkhead.getStats().get("circuitState"));
+        assertEquals(10, bulkhead.getStats().get("limit"));
+    }
+
+    @Test
+    void testTimeoutsAndConnectErrorsCountAsFailures() {
+        assertTrue(EndpointBulkhead.isUpstreamFailure(new CompletionException(new HttpTimeoutException("timed out"))));
+        assertTrue(EndpointBulkhead.isUpstreamFailure(new ConnectException("refused")));
+        assertTrue(EndpointBulkhead.isUpstreamFailure(serverError()));
+        assertFalse(EndpointBulkhead.isUpstreamFailure(new AiUpstreamException("not found", 404)));
+    }
+
+    @Test
+    void testCancellingTheResultCancelsTheCallAndFreesItsSlot() {
+        EndpointBulkhead bulkhead = bulkhead(new AtomicLong(), 10);
+        CompletableFuture<String> exchange = new CompletableFuture<>();
+
+        bulkhead.execute(() -> exchange).cancel(true);
+
+        assertTrue(exchange.isCancelled());
+        assertEquals(0, bulkhead.getStats().get("inFlight"));
+        assertEquals("CLOSED", bulkhead.getStats().get("circuitState"));
+    }
+
+    private static AiUpstreamException serverError() {
+        return new AiUpstreamException("boom", 503);
+    }
+
+    private EndpointBulkhead bulkhead(AtomicLong clock, int limit) {
+        return new EndpointBulkhead("quiz",
+                new AimdConcurrencyLimiter(limit, 1, 100, 0.5, 5_000),
+                new CircuitBreaker(0.5, 4, 2, 1_000, 1),
+                clock::get);
+    }
+}
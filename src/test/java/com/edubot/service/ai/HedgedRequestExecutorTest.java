@@ -0,0 +1,75 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgedRequestExecutorTest {
+
+    @Test
+    void testFailedCallIsRetriedWithinBudget() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 10, () -> 0L);
+        budget.recordRequest();
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(budget, Map.of(), Map.of("summary", 2), 50, 20);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("summary", () -> calls.incrementAndGet() == 1
+                ? CompletableFuture.<String>failedFuture(new RuntimeException("HTTP Status: 503"))
+                : CompletableFuture.completedFuture("summary")).join();
+
+        assertEquals("summary", result);
+        assertEquals(2, calls.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testEmptyBudgetStopsRetries() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 10, () -> 0L);
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(budget, Map.of(), Map.of("summary", 3), 50, 20);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.execute("summary", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("down"));
+        });
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(1, calls.get());
+        assertEquals(1L, executor.getStats().get("budgetExhausted"));
+        executor.shutdown();
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() {
+        RetryBudget budget = new RetryBudget(0.1, 10, 10, () -> 0L);
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(budget, Map.of(), Map.of("summary", 3), 50, 20);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.execute("summary", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new AiUpstreamException("HTTP Status: 422", 422));
+        });
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(1, calls.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testLatencyTrackerReportsPercentile() {
+        LatencyTracker tracker = new LatencyTracker(100, 0.9);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        assertEquals(90, tracker.percentile(10));
+        assertEquals(-1, new LatencyTracker(100, 0.9).percentile(10));
+    }
+}
@@ -0,0 +1,65 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LectureContextRegistryTest {
+
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final List<String> released = new ArrayList<>();
+
+    private final Function<String, CompletableFuture<String>> register =
+            body -> CompletableFuture.completedFuture("handle-" + uploads.incrementAndGet());
+
+    @Test
+    void testBodyIsRegisteredOncePerVersion() {
+        LectureContextRegistry registry = new LectureContextRegistry(true, 0, 10);
+
+        assertEquals("handle-1", registry.handleFor(1L, "body", register, this::release).join());
+        assertEquals("handle-1", registry.handleFor(1L, "body", register, this::release).join());
+        assertEquals(1, uploads.get());
+
+        assertEquals("handle-2", registry.handleFor(1L, "edited body", register, this::release).join());
+        assertEquals(List.of("handle-1"), released);
+    }
+
+    @Test
+    void testInvalidateAndEviction() {
+        LectureContextRegistry registry = new LectureContextRegistry(true, 0, 1);
+        registry.handleFor(1L, "first", register, this::release).join();
+        registry.handleFor(2L, "second", register, this::release).join();
+        assertEquals(List.of("handle-1"), released);
+
+        assertEquals("handle-2", registry.invalidate(2L).join());
+        assertNull(registry.invalidate(2L));
+        assertEquals(0L, registry.getStats().get("active"));
+    }
+
+    @Test
+    void testFailedRegistrationIsRetried() {
+        LectureContextRegistry registry = new LectureContextRegistry(true, 0, 10);
+        CompletableFuture<String> failed = registry.handleFor(1L, "body",
+                body -> CompletableFuture.failedFuture(new RuntimeException("down")), this::release);
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("handle-1", registry.handleFor(1L, "body", register, this::release).join());
+    }
+
+    @Test
+    void testShortBodiesAreSentInline() {
+        LectureContextRegistry registry = new LectureContextRegistry(true, 100, 10);
+        assertFalse(registry.shouldRegister("short"));
+        assertFalse(new LectureContextRegistry(false, 0, 10).shouldRegister("anything"));
+    }
+
+    private void release(CompletableFuture<String> handle) {
+        released.add(handle.join());
+    }
+}
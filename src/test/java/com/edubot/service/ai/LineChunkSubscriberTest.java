@@ -0,0 +1,99 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineChunkSubscriberTest {
+
+    @Test
+    void testPlainStreamKeepsParagraphBreaks() {
+        List<String> chunks = new ArrayList<>();
+        LineChunkSubscriber subscriber = new LineChunkSubscriber(chunks::add);
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe(subscription);
+
+        for (String line : List.of("First paragraph.", "", "Second paragraph.")) {
+            subscriber.onNext(line);
+        }
+        subscriber.onComplete();
+
+        assertEquals(List.of("First paragraph.", "", "Second paragraph."), chunks);
+        assertEquals(4, subscription.requested);
+        assertTrue(subscriber.completion().isDone());
+    }
+
+    @Test
+    void testSseStreamForwardsDataLinesOnly() {
+        List<String> chunks = new ArrayList<>();
+        LineChunkSubscriber subscriber = new LineChunkSubscriber(chunks::add);
+        subscriber.onSubscribe(new RecordingSubscription());
+
+        for (String line : List.of(": keep-alive", "event: token", "data: Hello", "", "data:", "", "data: world", "")) {
+            subscriber.onNext(line);
+        }
+
+        assertEquals(List.of("Hello", "", "world"), chunks);
+    }
+
+    @Test
+    void testConsumerFailureCancelsUpstream() {
+        LineChunkSubscriber subscriber = new LineChunkSubscriber(chunk -> {
+            throw new UncheckedIOException("Client disconnected from stream", new IOException("Broken pipe"));
+        });
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe(subscription);
+
+        subscriber.onNext("Hello");
+
+        assertTrue(subscription.cancelled);
+        CompletionException error = assertThrows(CompletionException.class, () -> subscriber.completion().join());
+        assertTrue(error.getCause() instanceof UncheckedIOException);
+    }
+
+    @Test
+    void testCancelBeforeAndAfterSubscribeStopsUpstream() {
+        LineChunkSubscriber early = new LineChunkSubscriber(chunk -> fail("no chunk expected"));
+        early.cancel();
+        RecordingSubscription lateSubscription = new RecordingSubscription();
+        early.onSubscribe(lateSubscription);
+
+        assertTrue(lateSubscription.cancelled);
+        assertEquals(0, lateSubscription.requested);
+        assertThrows(CancellationException.class, () -> early.completion().join());
+
+        List<String> chunks = new ArrayList<>();
+        LineChunkSubscriber running = new LineChunkSubscriber(chunks::add);
+        RecordingSubscription subscription = new RecordingSubscription();
+        running.onSubscribe(subscription);
+        running.onNext("Hello");
+        running.cancel();
+        running.onNext("ignored");
+
+        assertTrue(subscription.cancelled);
+        assertEquals(List.of("Hello"), chunks);
+    }
+
+    private static final class RecordingSubscription implements Flow.Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapReduceSummarizerTest {
+
+    @Test
+    void testChunkerPrefersPageBreaks() {
+        String text = "page one.\fpage two.\f" + "x".repeat(30);
+        List<String> chunks = TextChunker.split(text, 20);
+
+        assertEquals("page one.\fpage two.", chunks.get(0));
+        assertEquals(List.of("x".repeat(20), "x".repeat(10)), chunks.subList(1, 3));
+    }
+
+    @Test
+    void testMapConcurrencyIsBoundedAndSummariesAreReduced() {
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(10, 2, 2, 8);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> result = summarizer.summarize("doc", "aaaaaaaa\fbbbbbbbb\fcccccccc\fdddddddd", input -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call.thenApply(ignored -> {
+                inFlight.decrementAndGet();
+                return input.substring(0, 1);
+            });
+        });
+
+        for (int i = 0; i < 20 && !result.isDone(); i++) {
+            for (CompletableFuture<String> call : calls) {
+                call.complete("done");
+            }
+        }
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals("a", result.join());
+        assertEquals("COMPLETED", summarizer.getProgress("doc").get().get("state"));
+    }
+
+    @Test
+    void testLongRunOfCompletedChunksDoesNotRecurse() {
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(10, 2, 8, 8);
+        String text = "abcdefghi\f".repeat(50_000);
+
+        String summary = summarizer.summarize("textbook", text,
+                input -> CompletableFuture.completedFuture(input.substring(0, 1))).join();
+
+        assertEquals("a", summary);
+        assertEquals("COMPLETED", summarizer.getProgress("textbook").get().get("state"));
+    }
+
+    @Test
+    void testReduceGroupsStayWithinChunkChars() {
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(10, 4, 8, 8);
+        List<String> inputs = new CopyOnWriteArrayList<>();
+
+        String summary = summarizer.summarize("doc", "aaaaaaaa\fbbbbbbbb\fcccccccc\fdddddddd", input -> {
+            inputs.add(input);
+            return CompletableFuture.completedFuture(input.substring(0, 4));
+        }).join();
+
+        assertEquals("aaaa", summary);
+        assertEquals(7, inputs.size(), "four chunks, two reduce groups of two, one final reduce");
+        assertTrue(inputs.stream().allMatch(input -> input.length() <= 10));
+    }
+
+    @Test
+    void testLongSummariesAreStillPairedSoEveryLevelShrinks() {
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(10, 4, 8, 8);
+        AtomicInteger calls = new AtomicInteger();
+
+        String summary = summarizer.summarize("doc", "aaaaaaaa\fbbbbbbbb\fcccccccc\fdddddddd\feeeeeeee", input -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(input.substring(0, 8));
+        }).join();
+
+        assertEquals("aaaaaaaa", summary);
+        assertEquals(8, calls.get(), "five chunks, then a pair and a triple, then the final pair");
+    }
+
+    @Test
+    void testFailedChunksAreResumed() {
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(10, 4, 8, 8);
+        String text = "aaaaaaaa\fbbbbbbbb\fcccccccc";
+        AtomicInteger calls = new AtomicInteger();
+
+        Function<String, CompletableFuture<String>> flaky = input -> {
+            calls.incrementAndGet();
+            return input.startsWith("b")
+                    ? CompletableFuture.failedFuture(new RuntimeException("timeout"))
+                    : CompletableFuture.completedFuture(input.substring(0, 1));
+        };
+        assertThrows(Exception.class, () -> summarizer.summarize("doc", text, flaky).join());
+        Map<String, Object> progress = summarizer.getProgress("doc").get();
+        assertEquals("FAILED", progress.get("state"));
+        assertEquals(2, progress.get("summarizedChunks"));
+        assertEquals(1, progress.get("failedChunks"));
+
+        calls.set(0);
+        String summary = summarizer.summarize("doc", text, input -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(input.replace("\n\n", "+").substring(0, Math.min(5, input.length())));
+        }).join();
+        assertEquals("a+bbb", summary);
+        assertEquals(2, calls.get(), "only the failed chunk and the reduce step should run again");
+    }
+}
@@ -0,0 +1,59 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedResponseStoreTest {
+
+    private static final String KEY_A = "a".repeat(64);
+    private static final String KEY_B = "b".repeat(64);
+    private static final String KEY_C = "c".repeat(64);
+    private static final int HEADER_BYTES = 4 + 32 + 8 + 4 + 4;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordWithBadChecksumIsNotRecovered() throws Exception {
+        Path file = tempDir.resolve("cache.dat");
+        MappedResponseStore store = new MappedResponseStore(file, 4096);
+        store.put(KEY_A, "first answer", Long.MAX_VALUE);
+        store.put(KEY_B, "second answer", Long.MAX_VALUE);
+        store.close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long secondBody = HEADER_BYTES + "first answer".length() + HEADER_BYTES;
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), secondBody + 1);
+        }
+
+        MappedResponseStore reopened = new MappedResponseStore(file, 4096);
+
+        assertEquals("first answer", reopened.get(KEY_A, 0).body);
+        assertNull(reopened.get(KEY_B, 0));
+        assertEquals(1, reopened.size());
+        reopened.close();
+    }
+
+    @Test
+    void testRolloverDoesNotResurrectThePreviousGeneration() throws Exception {
+        Path file = tempDir.resolve("cache.dat");
+        MappedResponseStore store = new MappedResponseStore(file, 300);
+        store.put(KEY_A, "x".repeat(60), Long.MAX_VALUE);
+        store.put(KEY_B, "y".repeat(60), Long.MAX_VALUE);
+        assertEquals(2, store.put(KEY_C, "z".repeat(80), Long.MAX_VALUE));
+        store.close();
+
+        MappedResponseStore reopened = new MappedResponseStore(file, 300);
+
+        assertEquals(1, reopened.size());
+        assertEquals("z".repeat(80), reopened.get(KEY_C, 0).body);
+        assertNull(reopened.get(KEY_A, 0));
+        reopened.close();
+    }
+}
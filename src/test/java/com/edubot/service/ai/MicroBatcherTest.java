@@ -0,0 +1,63 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MicroBatcherTest {
+
+    @Test
+    void testFullBatchIsSentAsOneRequest() {
+        MicroBatcher batcher = new MicroBatcher(true, "summary", 3, 10_000);
+        AtomicInteger batchCalls = new AtomicInteger();
+
+        List<CompletableFuture<String>> results = List.of("a", "b", "c").stream()
+                .map(input -> batcher.submit("summary-endpoint", input,
+                        payloads -> {
+                            batchCalls.incrementAndGet();
+                            return CompletableFuture.completedFuture(payloads.stream()
+                                    .map(String::toUpperCase)
+                                    .collect(Collectors.toList()));
+                        },
+                        single -> CompletableFuture.completedFuture("single:" + single)))
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("A", "B", "C"), results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        assertEquals(1, batchCalls.get());
+        batcher.shutdown();
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterMaxWait() {
+        MicroBatcher batcher = new MicroBatcher(true, "summary", 10, 5);
+
+        CompletableFuture<String> result = batcher.submit("summary-endpoint", "only",
+                payloads -> CompletableFuture.failedFuture(new IllegalStateException("unexpected batch")),
+                single -> CompletableFuture.completedFuture("single:" + single));
+
+        assertEquals("single:only", result.join());
+        batcher.shutdown();
+    }
+
+    @Test
+    void testUnsupportedEndpointFallsBackToSingleRequests() {
+        MicroBatcher batcher = new MicroBatcher(true, "summary", 2, 10_000);
+
+        CompletableFuture<String> first = batcher.submit("legacy", "x",
+                payloads -> CompletableFuture.failedFuture(new BatchingUnsupportedException("404")),
+                single -> CompletableFuture.completedFuture("single:" + single));
+        CompletableFuture<String> second = batcher.submit("legacy", "y",
+                payloads -> CompletableFuture.failedFuture(new BatchingUnsupportedException("404")),
+                single -> CompletableFuture.completedFuture("single:" + single));
+
+        assertEquals("single:x", first.join());
+        assertEquals("single:y", second.join());
+        assertEquals(1L, batcher.getStats().get("unsupportedEndpoints"));
+        batcher.shutdown();
+    }
+}
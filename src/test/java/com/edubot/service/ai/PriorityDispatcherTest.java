@@ -0,0 +1,82 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityDispatcherTest {
+
+    @Test
+    void testInteractiveWorkIsServedFirstWithoutStarvingBatch() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 100, 3, 2, 1);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        List<AiPriority> order = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.NORMAL, () -> blocker);
+        for (int i = 0; i < 4; i++) {
+            for (AiPriority priority : List.of(AiPriority.BATCH, AiPriority.NORMAL, AiPriority.INTERACTIVE)) {
+                dispatcher.submit(BulkheadRegistry.CONTENT, priority, () -> {
+                    order.add(priority);
+                    return CompletableFuture.completedFuture("done");
+                });
+            }
+        }
+        blocker.complete("unblocked");
+
+        assertEquals(12, order.size());
+        assertEquals(AiPriority.INTERACTIVE, order.get(0));
+        assertTrue(order.subList(0, 6).contains(AiPriority.BATCH));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testQueueDepthIsReportedPerClass() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 100, 10, 4, 1);
+        dispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.INTERACTIVE, CompletableFuture::new);
+        dispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.BATCH, CompletableFuture::new);
+        dispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.BATCH, CompletableFuture::new);
+
+        Map<String, Object> content = (Map<String, Object>) dispatcher.getStats().get(BulkheadRegistry.CONTENT);
+        Map<String, Object> batch = (Map<String, Object>) content.get("batch");
+        assertEquals(2, batch.get("queueDepth"));
+        assertEquals(1, content.get("running"));
+    }
+
+    @Test
+    void testBatchWorkOnOneGroupDoesNotHoldAnotherGroupsSlots() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(2, 100, 10, 4, 1);
+        for (int i = 0; i < 5; i++) {
+            dispatcher.submit(BulkheadRegistry.SUMMARY, AiPriority.BATCH, CompletableFuture::new);
+        }
+
+        CompletableFuture<String> interactive = dispatcher.submit(BulkheadRegistry.CONTENT, AiPriority.INTERACTIVE,
+                () -> CompletableFuture.completedFuture("answer"));
+
+        assertTrue(interactive.isDone());
+        assertEquals("answer", interactive.join());
+    }
+
+    @Test
+    void testCallsCompletingInlineDoNotGrowTheStack() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 100_000, 10, 4, 1);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        AtomicInteger completed = new AtomicInteger();
+        dispatcher.submit(BulkheadRegistry.QUIZ, AiPriority.NORMAL, () -> blocker);
+        for (int i = 0; i < 50_000; i++) {
+            dispatcher.submit(BulkheadRegistry.QUIZ, AiPriority.NORMAL, () -> {
+                completed.incrementAndGet();
+                return CompletableFuture.completedFuture("done");
+            });
+        }
+
+        blocker.complete("unblocked");
+        assertEquals(50_000, completed.get());
+    }
+}
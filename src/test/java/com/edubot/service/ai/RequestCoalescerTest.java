@@ -0,0 +1,74 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+
+    @Test
+    void testConcurrentIdenticalRequestsShareOneCall() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = coalescer.execute("quiz", "Math - Algebra", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = coalescer.execute("quiz", "  Math -   Algebra ", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("unexpected");
+        });
+
+        upstream.complete("quiz-result");
+
+        assertEquals("quiz-result", first.join());
+        assertEquals("quiz-result", second.join());
+        assertEquals(1, calls.get());
+        assertEquals(1L, coalescer.getStats().get("coalescedHits"));
+        assertEquals(0L, coalescer.getStats().get("inFlight"));
+    }
+
+    @Test
+    void testCompletedRequestsAreNotReused() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute("summary", "text", () -> CompletableFuture.completedFuture("r" + calls.incrementAndGet())).join();
+        String second = coalescer.execute("summary", "text",
+                () -> CompletableFuture.completedFuture("r" + calls.incrementAndGet())).join();
+
+        assertEquals("r2", second);
+        assertEquals(2L, coalescer.getStats().get("upstreamCalls"));
+    }
+
+    @Test
+    void testDifferentTasksAreNotCoalesced() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        coalescer.execute("quiz", "same", () -> pending);
+        CompletableFuture<String> other = coalescer.execute("content", "same",
+                () -> CompletableFuture.completedFuture("content-result"));
+
+        assertEquals("content-result", other.join());
+        assertEquals(0L, coalescer.getStats().get("coalescedHits"));
+    }
+
+    @Test
+    void testCancellingOneCallerDoesNotAffectOthers() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.execute("quiz", "topic", () -> upstream);
+        CompletableFuture<String> second = coalescer.execute("quiz", "topic", () -> upstream);
+        first.cancel(true);
+        upstream.complete("done");
+
+        assertEquals("done", second.join());
+    }
+}
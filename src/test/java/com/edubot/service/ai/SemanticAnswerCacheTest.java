@@ -0,0 +1,71 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticAnswerCacheTest {
+
+    @Test
+    void testIndexFindsStoredVectors() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(16, 500, 8, 64, 42);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, 16);
+            assertEquals(i, index.add(vectors[i]));
+        }
+        assertTrue(index.isFull());
+        assertEquals(-1, index.add(randomVector(random, 16)));
+
+        int found = 0;
+        for (int i = 0; i < vectors.length; i += 10) {
+            HnswIndex.Candidate nearest = index.nearest(vectors[i], 32);
+            if (nearest.id == i && nearest.similarity > 0.999f) {
+                found++;
+            }
+        }
+        assertTrue(found >= 48, "recall too low: " + found + "/50");
+    }
+
+    @Test
+    void testSimilarQuestionReusesAnswerWithinNamespaceOnly() {
+        SemanticAnswerCache cache = new SemanticAnswerCache(true, 0.9, 100, 4, 8, 32, 16);
+        cache.store("math", new float[] {1f, 0f, 0f}, "x = 2");
+
+        assertEquals(Optional.of("x = 2"), cache.lookup("math", new float[] {0.98f, 0.1f, 0f}));
+        assertEquals(Optional.empty(), cache.lookup("math", new float[] {0f, 1f, 0f}));
+        assertEquals(Optional.empty(), cache.lookup("history", new float[] {1f, 0f, 0f}));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMemoryIsBounded() {
+        SemanticAnswerCache cache = new SemanticAnswerCache(true, 0.9, 10, 2, 4, 16, 8);
+        Random random = new Random(3);
+        for (int i = 0; i < 25; i++) {
+            cache.store("math", randomVector(random, 8), "answer " + i);
+        }
+        cache.store("science", randomVector(random, 8), "a");
+        cache.store("art", randomVector(random, 8), "b");
+
+        Map<String, Object> stats = cache.getStats();
+        Map<String, Integer> namespaces = (Map<String, Integer>) stats.get("namespaces");
+        assertEquals(2, namespaces.size());
+        assertFalse(namespaces.containsKey("math"));
+        assertTrue((Long) stats.get("rebuilds") > 0);
+        assertEquals(1L, stats.get("evictedNamespaces"));
+    }
+
+    private static float[] randomVector(Random random, int dimension) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,62 @@
+package com.edubot.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextChunkerTest {
+
+    private static final String TEXT = "Cells are the basic unit of life. Every organism is made of cells. "
+            + "Mitochondria produce energy for the cell. Ribosomes build proteins from amino acids. "
+            + "The nucleus stores genetic information.";
+
+    @Test
+    void testSpansOverlapAndStayWithinBudget() {
+        List<TextChunker.Span> spans = TextChunker.spans(TEXT, 80, 30);
+
+        assertTrue(spans.size() > 1);
+        assertEquals(0, spans.get(0).getStart());
+        assertEquals(TEXT.length(), spans.get(spans.size() - 1).getEnd());
+        for (int i = 0; i < spans.size(); i++) {
+            TextChunker.Span span = spans.get(i);
+            assertTrue(span.getEnd() - span.getStart() <= 80);
+            assertFalse(Character.isWhitespace(TEXT.charAt(span.getStart())));
+            if (i > 0) {
+                TextChunker.Span previous = spans.get(i - 1);
+                assertTrue(span.getStart() < previous.getEnd(), "chunks should overlap");
+                assertTrue(span.getStart() > previous.getStart());
+                assertTrue(Character.isWhitespace(TEXT.charAt(span.getStart() - 1)), "chunks start on a word");
+            }
+        }
+    }
+
+    @Test
+    void testSpansAreDeterministic() {
+        List<TextChunker.Span> first = TextChunker.spans(TEXT, 60, 10);
+        List<TextChunker.Span> second = TextChunker.spans(TEXT, 60, 10);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getStart(), second.get(i).getStart());
+            assertEquals(first.get(i).getEnd(), second.get(i).getEnd());
+        }
+    }
+
+    @Test
+    void testSpansRejectOverlapOfHalfAChunkOrMore() {
+        assertThrows(IllegalArgumentException.class, () -> TextChunker.spans(TEXT, 80, 40));
+        assertThrows(IllegalArgumentException.class, () -> TextChunker.spans(TEXT, 80, -1));
+        assertEquals(TextChunker.spans(TEXT, 80, 39).get(0).getStart(), 0);
+    }
+
+    @Test
+    void testShortTextIsOneSpan() {
+        List<TextChunker.Span> spans = TextChunker.spans("  Short note.  ", 80, 20);
+
+        assertEquals(1, spans.size());
+        assertEquals(2, spans.get(0).getStart());
+        assertEquals(13, spans.get(0).getEnd());
+    }
+}
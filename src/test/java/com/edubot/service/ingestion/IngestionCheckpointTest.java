@@ -0,0 +1,45 @@
+package com.edubot.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestionCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testProcessedFilesSurviveReload() throws Exception {
+        Path checkpointFile = tempDir.resolve("checkpoint.tsv");
+        Path pdf = Files.writeString(tempDir.resolve("algebra.pdf"), "%PDF-1.7");
+        BasicFileAttributes attributes = Files.readAttributes(pdf, BasicFileAttributes.class);
+
+        IngestionCheckpoint checkpoint = new IngestionCheckpoint(checkpointFile);
+        assertFalse(checkpoint.isProcessed(pdf, attributes));
+        checkpoint.markProcessed(pdf, attributes);
+        checkpoint.markProcessed(pdf, attributes);
+
+        IngestionCheckpoint reloaded = new IngestionCheckpoint(checkpointFile);
+        assertTrue(reloaded.isProcessed(pdf, attributes));
+        assertEquals(1, Files.readAllLines(checkpointFile).size());
+    }
+
+    @Test
+    void testReplacedFileIsEligibleAgain() throws Exception {
+        Path pdf = Files.writeString(tempDir.resolve("biology.pdf"), "%PDF-1.7 first edition");
+        IngestionCheckpoint checkpoint = new IngestionCheckpoint(tempDir.resolve("checkpoint.tsv"));
+        checkpoint.markProcessed(pdf, Files.readAttributes(pdf, BasicFileAttributes.class));
+
+        Files.writeString(pdf, "%PDF-1.7 second edition, revised");
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        assertFalse(checkpoint.isProcessed(pdf, Files.readAttributes(pdf, BasicFileAttributes.class)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.edubot.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IngestionDirectoryWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testJobResumedAfterRestartIsAdoptedInsteadOfResubmitted() throws Exception {
+        Path inbox = Files.createDirectories(tempDir.resolve("inbox"));
+        Path pdf = Files.writeString(inbox.resolve("algebra.pdf"), "%PDF-1.7");
+        Path checkpointFile = tempDir.resolve("checkpoint.tsv");
+        IngestionJob resumed = new IngestionJob("job-1", "algebra", pdf.toAbsolutePath().toString(), "Math", true, Instant.now());
+        CompletableFuture<IngestionJob> finished = new CompletableFuture<>();
+        IngestionJobService jobService = mock(IngestionJobService.class);
+        when(jobService.getUnfinishedJobs()).thenReturn(List.of(resumed));
+        when(jobService.whenFinished("job-1")).thenReturn(finished);
+
+        IngestionDirectoryWatcher watcher = new IngestionDirectoryWatcher(jobService, true, inbox.toString(),
+                "Math", true, 60_000, 4, checkpointFile.toString());
+        watcher.start();
+        try {
+            watcher.flush();
+            watcher.flush();
+            verify(jobService, never()).submit(anyString(), anyString(), anyString(), anyBoolean());
+
+            resumed.transition(IngestionJob.State.COMPLETED, null);
+            finished.complete(resumed);
+            watcher.flush();
+
+            verify(jobService, never()).submit(anyString(), anyString(), anyString(), anyBoolean());
+            assertEquals(0, watcher.getPendingCount());
+            assertTrue(new IngestionCheckpoint(checkpointFile)
+                    .isProcessed(pdf, Files.readAttributes(pdf, BasicFileAttributes.class)));
+        } finally {
+            watcher.stop();
+        }
+    }
+}
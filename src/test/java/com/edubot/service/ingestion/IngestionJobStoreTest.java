@@ -0,0 +1,73 @@
+package com.edubot.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestionJobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLatestStateWinsAfterReload() {
+        Path journal = tempDir.resolve("jobs.jsonl");
+        IngestionJobStore store = new IngestionJobStore(journal, Duration.ofDays(7));
+
+        IngestionJob job = new IngestionJob("job-1", "Algebra", "/tmp/algebra.pdf", "Math", true, Instant.now());
+        store.save(job);
+        job.startAttempt();
+        job.transition(IngestionJob.State.SUMMARIZING, null);
+        store.save(job);
+
+        List<IngestionJob> loaded = new IngestionJobStore(journal, Duration.ofDays(7)).load();
+        assertEquals(1, loaded.size());
+        assertEquals(IngestionJob.State.SUMMARIZING, loaded.get(0).getState());
+        assertEquals(1, loaded.get(0).getAttempts());
+        assertTrue(loaded.get(0).isUseSummarization());
+    }
+
+    @Test
+    void testJournalIsCompactedAsItGrows() {
+        Path journal = tempDir.resolve("jobs.jsonl");
+        IngestionJobStore store = new IngestionJobStore(journal, Duration.ofDays(7));
+        IngestionJob job = new IngestionJob("job-1", "Algebra", "/tmp/algebra.pdf", "Math", false, Instant.now());
+
+        for (int i = 0; i < 600; i++) {
+            job.transition(i % 2 == 0 ? IngestionJob.State.EXTRACTING : IngestionJob.State.QUEUED, null);
+            store.save(job);
+        }
+
+        assertTrue(store.recordCount() < 256, "journal holds " + store.recordCount() + " records");
+        List<IngestionJob> loaded = new IngestionJobStore(journal, Duration.ofDays(7)).load();
+        assertEquals(1, loaded.size());
+        assertEquals(IngestionJob.State.QUEUED, loaded.get(0).getState());
+    }
+
+    @Test
+    void testTornLineIsSkippedAndOldFinishedJobsAreCompactedAway() throws Exception {
+        Path journal = tempDir.resolve("jobs.jsonl");
+        IngestionJobStore store = new IngestionJobStore(journal, Duration.ofDays(7));
+
+        IngestionJob finished = new IngestionJob("done", "Old", "/tmp/old.pdf", "General", false, Instant.now());
+        finished.transition(IngestionJob.State.COMPLETED, null);
+        String expired = finished.toJson().put("updatedAt", Instant.now().minus(Duration.ofDays(30)).toString()).toString();
+        Files.writeString(journal, expired + "\n", StandardCharsets.UTF_8);
+        store.save(new IngestionJob("queued", "New", "/tmp/new.pdf", "General", false, Instant.now()));
+        Files.writeString(journal, "{\"id\":\"torn", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<IngestionJob> loaded = store.load();
+        assertEquals(1, loaded.size());
+        assertEquals("queued", loaded.get(0).getId());
+        assertEquals(1, Files.readAllLines(journal).size());
+    }
+}
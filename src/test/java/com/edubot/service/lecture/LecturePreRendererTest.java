@@ -0,0 +1,115 @@
+package com.edubot.service.lecture;
+
+import com.edubot.service.ai.AiPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LecturePreRendererTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Test
+    void testStaleFingerprintIsNeverServed() {
+        List<AiPriority> renders = new CopyOnWriteArrayList<>();
+        LecturePreRenderer preRenderer = preRenderer((source, priority) -> {
+            renders.add(priority);
+            return "formatted " + source.contentBody;
+        }, 1_000);
+
+        assertEquals("formatted v1", preRenderer.getDeliveryContent(source("v1")));
+        assertEquals("formatted v1", preRenderer.getDeliveryContent(source("v1")));
+        assertEquals("formatted v2", preRenderer.getDeliveryContent(source("v2")));
+
+        assertEquals(List.of(AiPriority.INTERACTIVE, AiPriority.INTERACTIVE), renders);
+        assertEquals(1L, preRenderer.getStats().get("servedFromStore"));
+    }
+
+    @Test
+    void testInvalidateForcesRerender() {
+        List<AiPriority> renders = new CopyOnWriteArrayList<>();
+        LecturePreRenderer preRenderer = preRenderer((source, priority) -> {
+            renders.add(priority);
+            return "formatted";
+        }, 1_000);
+
+        preRenderer.getDeliveryContent(source("body"));
+        preRenderer.invalidate(7L);
+        preRenderer.getDeliveryContent(source("body"));
+
+        assertEquals(2, renders.size());
+    }
+
+    @Test
+    void testOnDemandCallerSharesRunningPreRender() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AiPriority> renders = new CopyOnWriteArrayList<>();
+        LecturePreRenderer preRenderer = preRenderer((source, priority) -> {
+            renders.add(priority);
+            await(release);
+            return "formatted";
+        }, 5_000);
+
+        assertTrue(preRenderer.prerender(source("body")));
+        assertFalse(preRenderer.prerender(source("body")));
+        CompletableFuture<String> onDemand = CompletableFuture.supplyAsync(() -> preRenderer.getDeliveryContent(source("body")));
+        release.countDown();
+
+        assertEquals("formatted", onDemand.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(AiPriority.BATCH), renders);
+    }
+
+    @Test
+    void testOnDemandCallerStopsWaitingForSlowPreRender() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AiPriority> renders = new CopyOnWriteArrayList<>();
+        LecturePreRenderer preRenderer = preRenderer((source, priority) -> {
+            renders.add(priority);
+            if (priority == AiPriority.BATCH) {
+                await(release);
+            }
+            return "formatted at " + priority;
+        }, 50);
+
+        preRenderer.prerender(source("body"));
+        String content = preRenderer.getDeliveryContent(source("body"));
+        release.countDown();
+
+        assertEquals("formatted at INTERACTIVE", content);
+        assertTrue(renders.contains(AiPriority.INTERACTIVE));
+    }
+
+    private static LecturePreRenderer preRenderer(BiFunction<LecturePreRenderer.Source, AiPriority, String> formatter,
+                                                  long onDemandWaitMillis) {
+        ExecutorService workers = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new LecturePreRenderer(null, formatter, true, Duration.ofMinutes(30), Duration.ofHours(6),
+                workers, onDemandWaitMillis);
+    }
+
+    private static LecturePreRenderer.Source source(String body) {
+        return new LecturePreRenderer.Source(7L, body, null, START);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
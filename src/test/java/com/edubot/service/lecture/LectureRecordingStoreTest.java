@@ -0,0 +1,97 @@
+package com.edubot.service.lecture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LectureRecordingStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSeekFindsRecordAtTimeOffsetAcrossSegments() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        LectureRecordingStore store = new LectureRecordingStore(tempDir, 200, 10_000, clock::get);
+        for (int second = 0; second < 60; second++) {
+            clock.set(1_000_000 + second * 1000L);
+            store.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("segment " + second));
+        }
+
+        List<RecordingEvent> events = store.events(7L, 42_500, 2);
+
+        assertEquals(2, events.size());
+        assertEquals("segment 43", events.get(0).getText());
+        assertEquals(43_000, events.get(0).getOffsetMillis());
+        assertEquals("segment 44", events.get(1).getText());
+        assertTrue((Long) store.getStats().get("segmentsRolled") > 0);
+    }
+
+    @Test
+    void testRangeReadReturnsMediaPayload() throws Exception {
+        LectureRecordingStore store = new LectureRecordingStore(tempDir, 1024, 5000, new AtomicLong()::get);
+        store.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("intro"));
+        RecordingEvent media = store.append(7L, RecordingEvent.Kind.MEDIA, new byte[] {1, 2, 3, 4, 5});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.transferTo(7L, media.getPayloadPosition() + 1, 3, out);
+
+        assertArrayEquals(new byte[] {2, 3, 4}, out.toByteArray());
+        assertEquals(media.getPayloadPosition() + 5, store.size(7L));
+        assertThrows(IllegalArgumentException.class, () -> store.transferTo(7L, store.size(7L), 1, out));
+    }
+
+    @Test
+    void testReopenTruncatesTornTailAndKeepsAppending() throws Exception {
+        AtomicLong clock = new AtomicLong(5000);
+        LectureRecordingStore store = new LectureRecordingStore(tempDir, 4096, 1000, clock::get);
+        store.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("first"));
+        clock.set(7000);
+        store.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("second"));
+        long size = store.size(7L);
+        store.shutdown();
+        Files.write(tempDir.resolve("7").resolve("seg-000000.rec"), new byte[] {0x4C, 0x52, 0x45, 0x43, 9},
+                StandardOpenOption.APPEND);
+
+        LectureRecordingStore reopened = new LectureRecordingStore(tempDir, 4096, 1000, clock::get);
+        assertEquals(size, reopened.size(7L));
+        clock.set(9000);
+        reopened.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("third"));
+
+        List<RecordingEvent> events = reopened.events(7L, 2000, 10);
+        assertEquals(2, events.size());
+        assertEquals("second", events.get(0).getText());
+        assertEquals("third", events.get(1).getText());
+        assertEquals(4000, events.get(1).getOffsetMillis());
+    }
+
+    @Test
+    void testActiveSegmentReadsSeeEveryAppend() {
+        AtomicLong clock = new AtomicLong();
+        LectureRecordingStore store = new LectureRecordingStore(tempDir, 4096, 1000, clock::get);
+        for (int i = 0; i < 20; i++) {
+            clock.set(i * 100L);
+            store.append(7L, RecordingEvent.Kind.TRANSCRIPT, bytes("line " + i));
+            List<RecordingEvent> events = store.events(7L, 0, 100);
+            assertEquals(i + 1, events.size());
+            assertEquals("line " + i, events.get(i).getText());
+            if (i == 10) {
+                store.close(7L);
+            }
+        }
+        assertEquals(0L, store.getStats().get("segmentsRolled"));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,183 @@
+package com.edubot.service.lecture;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendResult;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.NativeWebSocketSession;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveLectureSessionsTest {
+
+    @Test
+    void testBroadcastSharesOneMessageAcrossConnections() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(16, 16, 5000, 2);
+        List<TextMessage> received = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sessions.join(1L, session("s" + i, received, null, new AtomicBoolean(true)));
+        }
+
+        sessions.broadcast(1L, "{\"type\":\"monologue\"}");
+
+        awaitTrue(() -> received.size() == 3);
+        assertSame(received.get(0), received.get(1));
+        assertSame(received.get(1), received.get(2));
+        assertEquals(3L, sessions.getStats().get("recipients"));
+        sessions.shutdown();
+    }
+
+    @Test
+    void testSlowConsumerIsClosedWithoutBlockingOthers() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(2, 3, 5000, 2);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean slowOpen = new AtomicBoolean(true);
+        List<TextMessage> fastReceived = new CopyOnWriteArrayList<>();
+        sessions.join(1L, session("slow", new CopyOnWriteArrayList<>(), blocked, slowOpen));
+        sessions.join(1L, session("fast", fastReceived, null, new AtomicBoolean(true)));
+
+        for (int i = 0; i < 10; i++) {
+            int expected = i + 1;
+            sessions.broadcast(1L, "message " + i);
+            awaitTrue(() -> fastReceived.size() == expected);
+        }
+        blocked.countDown();
+
+        assertFalse(slowOpen.get());
+        assertEquals(1L, sessions.getStats().get("slowConsumersClosed"));
+        assertEquals(1, sessions.subscriberCount(1L));
+        assertEquals("message 9", fastReceived.get(9).getPayload());
+        sessions.shutdown();
+    }
+
+    @Test
+    void testSequenceIsPerLectureAndDirectMessagesShareTheEnvelope() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(16, 16, 5000, 2);
+        List<TextMessage> first = new CopyOnWriteArrayList<>();
+        List<TextMessage> second = new CopyOnWriteArrayList<>();
+        sessions.join(1L, session("a", first, null, new AtomicBoolean(true)));
+        sessions.join(2L, session("b", second, null, new AtomicBoolean(true)));
+
+        sessions.publish(1L, "monologue", new JSONObject());
+        sessions.publish(2L, "monologue", new JSONObject());
+        sessions.publish(1L, "monologue", new JSONObject());
+        awaitTrue(() -> first.size() == 2 && second.size() == 1);
+        sessions.sendTo("a", "queued", new JSONObject());
+        awaitTrue(() -> first.size() == 3);
+
+        assertEquals(2L, new JSONObject(first.get(1).getPayload()).getLong("seq"));
+        assertEquals(1L, new JSONObject(second.get(0).getPayload()).getLong("seq"));
+        JSONObject ack = new JSONObject(first.get(2).getPayload());
+        assertEquals("queued", ack.getString("type"));
+        assertEquals(1L, ack.getLong("lectureId"));
+        assertEquals(2L, ack.getLong("seq"));
+        assertTrue(ack.getBoolean("direct"));
+        sessions.shutdown();
+    }
+
+    @Test
+    void testDeadAsyncPeerDoesNotPinTheWriter() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(2, 3, 5000, 1);
+        AtomicBoolean deadOpen = new AtomicBoolean(true);
+        List<String> fastReceived = new CopyOnWriteArrayList<>();
+        sessions.join(1L, nativeSession("dead", new CopyOnWriteArrayList<>(), false, deadOpen));
+        sessions.join(1L, nativeSession("fast", fastReceived, true, new AtomicBoolean(true)));
+
+        for (int i = 0; i < 10; i++) {
+            int expected = i + 1;
+            sessions.broadcast(1L, "message " + i);
+            awaitTrue(() -> fastReceived.size() == expected);
+        }
+
+        assertFalse(deadOpen.get());
+        assertEquals(1L, sessions.getStats().get("slowConsumersClosed"));
+        assertEquals("message 9", fastReceived.get(9));
+        sessions.shutdown();
+    }
+
+    /**
+     * A session backed by a JSR-356 async remote; when {@code completes} is false, sends never finish.
+     */
+    private static WebSocketSession nativeSession(String id, List<String> received, boolean completes, AtomicBoolean open) {
+        RemoteEndpoint.Async remote = (RemoteEndpoint.Async) Proxy.newProxyInstance(
+                RemoteEndpoint.Async.class.getClassLoader(), new Class<?>[] {RemoteEndpoint.Async.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendText")) {
+                        received.add((String) args[0]);
+                        if (completes) {
+                            ((jakarta.websocket.SendHandler) args[1]).onResult(new SendResult());
+                        }
+                    }
+                    return null;
+                });
+        jakarta.websocket.Session nativeSession = (jakarta.websocket.Session) Proxy.newProxyInstance(
+                jakarta.websocket.Session.class.getClassLoader(), new Class<?>[] {jakarta.websocket.Session.class},
+                (proxy, method, args) -> method.getName().equals("getAsyncRemote") ? remote : null);
+        WebSocketSession delegate = session(id, new CopyOnWriteArrayList<>(), null, open);
+        return (WebSocketSession) Proxy.newProxyInstance(NativeWebSocketSession.class.getClassLoader(),
+                new Class<?>[] {NativeWebSocketSession.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getNativeSession":
+                            return nativeSession;
+                        case "sendMessage":
+                            throw new IllegalStateException("blocking send on an async session");
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return method.invoke(delegate, args);
+                    }
+                });
+    }
+
+    /**
+     * A session that records sent messages; when {@code gate} is set, every send blocks on it.
+     */
+    private static WebSocketSession session(String id, List<TextMessage> received, CountDownLatch gate, AtomicBoolean open) {
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                new Class<?>[] {WebSocketSession.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "isOpen":
+                            return open.get();
+                        case "sendMessage":
+                            if (gate != null) {
+                                gate.await(5, TimeUnit.SECONDS);
+                            }
+                            received.add((TextMessage) args[0]);
+                            return null;
+                        case "close":
+                            open.set(false);
+                            return null;
+                        case "getAttributes":
+                            return new HashMap<String, Object>();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
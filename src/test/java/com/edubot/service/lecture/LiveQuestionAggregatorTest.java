@@ -0,0 +1,150 @@
+package com.edubot.service.lecture;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveQuestionAggregatorTest {
+
+    @Test
+    void testNearDuplicatesInOneWindowAreAnsweredOnce() throws Exception {
+        List<List<String>> asked = new CopyOnWriteArrayList<>();
+        List<JSONObject> published = new CopyOnWriteArrayList<>();
+        LiveQuestionAggregator aggregator = aggregator((lectureId, questions) -> {
+            asked.add(questions);
+            List<CompletableFuture<String>> answers = new ArrayList<>();
+            questions.forEach(question -> answers.add(CompletableFuture.completedFuture("answer to " + question)));
+            return answers;
+        }, new LiveLectureSessions(16, 16, 5000, 1), published, 10);
+
+        aggregator.submit(1L, "s1", "What is photosynthesis?");
+        aggregator.submit(1L, "s2", "what is PHOTOSYNTHESIS");
+        aggregator.submit(1L, "s3", "Who discovered penicillin?");
+
+        awaitTrue(() -> published.size() == 2);
+        assertEquals(1, asked.size());
+        assertEquals(List.of("What is photosynthesis?", "Who discovered penicillin?"), asked.get(0));
+        assertEquals(2, published.get(0).getInt("askedBy"));
+        assertEquals(1, published.get(1).getInt("askedBy"));
+        assertEquals(2L, aggregator.getStats().get("clustersAnswered"));
+        aggregator.shutdown();
+    }
+
+    @Test
+    void testLateDuplicateIsAnsweredFromRecentAnswer() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(16, 16, 5000, 1);
+        List<TextMessage> received = new CopyOnWriteArrayList<>();
+        sessions.join(1L, session("late", received));
+        List<JSONObject> published = new CopyOnWriteArrayList<>();
+        List<String> asked = new CopyOnWriteArrayList<>();
+        LiveQuestionAggregator aggregator = aggregator((lectureId, questions) -> {
+            asked.addAll(questions);
+            return List.of(CompletableFuture.completedFuture("Plants turn light into sugar."));
+        }, sessions, published, 10);
+
+        aggregator.submit(1L, "early", "What is photosynthesis?");
+        awaitTrue(() -> published.size() == 1);
+        assertTrue(aggregator.submit(1L, "late", "what is photosynthesis"));
+
+        awaitTrue(() -> received.size() == 1);
+        assertEquals(1, asked.size());
+        assertTrue(received.get(0).getPayload().contains("Plants turn light into sugar."));
+        assertEquals(1L, aggregator.getStats().get("answeredFromRecent"));
+        aggregator.shutdown();
+    }
+
+    @Test
+    void testFailedAnswerIsSentToAskersOnly() throws Exception {
+        LiveLectureSessions sessions = new LiveLectureSessions(16, 16, 5000, 1);
+        List<TextMessage> received = new CopyOnWriteArrayList<>();
+        sessions.join(1L, session("asker", received));
+        List<JSONObject> published = new CopyOnWriteArrayList<>();
+        LiveQuestionAggregator aggregator = aggregator((lectureId, questions) ->
+                List.of(CompletableFuture.completedFuture("Error processing classroomResponse: timeout")),
+                sessions, published, 10);
+
+        aggregator.submit(1L, "asker", "What is photosynthesis?");
+
+        awaitTrue(() -> received.size() == 1);
+        assertTrue(received.get(0).getPayload().contains("answerFailed"));
+        assertTrue(published.isEmpty());
+        assertEquals(0L, aggregator.getStats().get("clustersAnswered"));
+        assertEquals(1L, aggregator.getStats().get("clustersFailed"));
+        aggregator.shutdown();
+    }
+
+    @Test
+    void testWindowRejectsQuestionsBeyondMaxPending() {
+        LiveQuestionAggregator aggregator = new LiveQuestionAggregator(
+                (lectureId, questions) -> List.of(), new LiveLectureSessions(16, 16, 5000, 1),
+                (lectureId, fields) -> { }, 60_000, 0.6, 2, 120_000, 1);
+
+        assertTrue(aggregator.submit(1L, "s1", "What is photosynthesis?"));
+        assertTrue(aggregator.submit(1L, "s2", "Who discovered penicillin?"));
+        assertFalse(aggregator.submit(1L, "s3", "When did Rome fall?"));
+        assertTrue(aggregator.submit(2L, "s4", "When did Rome fall?"));
+
+        assertEquals(1L, aggregator.getStats().get("questionsRejected"));
+        aggregator.shutdown();
+    }
+
+    @Test
+    void testStopWordOnlyQuestionsMatchOnlyTheSameQuestion() {
+        Set<String> why = LiveQuestionAggregator.terms("Why?");
+        Set<String> what = LiveQuestionAggregator.terms("What is it?");
+
+        assertEquals(0.0, LiveQuestionAggregator.similarity(why, what));
+        assertEquals(1.0, LiveQuestionAggregator.similarity(why, LiveQuestionAggregator.terms("why")));
+        assertEquals(0.0, LiveQuestionAggregator.similarity(Set.of(), Set.of()));
+    }
+
+    private static LiveQuestionAggregator aggregator(BiFunction<Long, List<String>, List<CompletableFuture<String>>> answerer,
+                                                     LiveLectureSessions sessions, List<JSONObject> published,
+                                                     long windowMillis) {
+        return new LiveQuestionAggregator(answerer, sessions, (lectureId, fields) -> published.add(fields),
+                windowMillis, 0.6, 500, 120_000, 1);
+    }
+
+    private static WebSocketSession session(String id, List<TextMessage> received) {
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                new Class<?>[] {WebSocketSession.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "isOpen":
+                            return true;
+                        case "sendMessage":
+                            received.add((TextMessage) args[0]);
+                            return null;
+                        case "getAttributes":
+                            return new HashMap<String, Object>();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
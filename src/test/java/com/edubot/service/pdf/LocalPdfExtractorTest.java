@@ -0,0 +1,141 @@
+package com.edubot.service.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalPdfExtractorTest {
+
+    /** Page text marker for a page that only draws an image, like a scan. */
+    private static final String SCANNED_PAGE = "<scan>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTextIsExtractedAcrossPageRangesInOrder() throws Exception {
+        Path pdf = writePdf("chapter.pdf", "Photosynthesis converts light energy into chemical energy in plants.",
+                "Cellular respiration releases the energy stored in glucose molecules.",
+                "The mitochondria is where most cellular respiration takes place.");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 1, 20, 0.25, 2);
+
+        Optional<String> text = extractor.extractText(pdf.toString()).join();
+
+        assertTrue(text.isPresent());
+        String[] pages = text.get().split("\f");
+        assertEquals(3, pages.length);
+        assertTrue(pages[0].contains("Photosynthesis"));
+        assertTrue(pages[2].contains("mitochondria"));
+        assertEquals(1L, extractor.getStats().get("localExtractions"));
+    }
+
+    @Test
+    void testPagesWithoutTextLayerFallBackToRemote() throws Exception {
+        Path pdf = writePdf("scan.pdf", "", "");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 1, 20, 0.25, 2);
+
+        assertEquals(Optional.empty(), extractor.extractText(pdf.toString()).join());
+        assertEquals(1L, extractor.getStats().get("scannedFallbacks"));
+    }
+
+    @Test
+    void testScannedShareAboveLimitGoesToRemote() throws Exception {
+        Path pdf = writePdf("mixed.pdf", "Photosynthesis converts light energy into chemical energy in plants.",
+                SCANNED_PAGE,
+                "The mitochondria is where most cellular respiration takes place.");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 10, 20, 0.25, 1);
+
+        assertEquals(Optional.empty(), extractor.extractText(pdf.toString()).join());
+        assertEquals(1L, extractor.getStats().get("scannedFallbacks"));
+    }
+
+    @Test
+    void testOccasionalFigurePageKeepsTheDocumentLocal() throws Exception {
+        Path pdf = writePdf("textbook.pdf", SCANNED_PAGE,
+                "Photosynthesis converts light energy into chemical energy in plants.",
+                "Cellular respiration releases the energy stored in glucose molecules.",
+                "The mitochondria is where most cellular respiration takes place.",
+                "Ribosomes assemble proteins from amino acids carried by transfer RNA.");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 2, 20, 0.25, 3);
+
+        Optional<String> text = extractor.extractText(pdf.toString()).join();
+
+        assertTrue(text.isPresent());
+        String[] pages = text.get().split("\f", -1);
+        assertTrue(pages[1].contains("Photosynthesis"));
+        assertTrue(pages[4].contains("Ribosomes"));
+        assertEquals(0L, extractor.getStats().get("scannedFallbacks"));
+    }
+
+    @Test
+    void testBlankPagesDoNotCountAsScanned() throws Exception {
+        Path pdf = writePdf("blank.pdf", "Photosynthesis converts light energy into chemical energy in plants.", "",
+                "The mitochondria is where most cellular respiration takes place.");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 2, 20, 0.25, 1);
+
+        Optional<String> text = extractor.extractText(pdf.toString()).join();
+
+        assertTrue(text.isPresent());
+        assertEquals(3, text.get().split("\f").length);
+    }
+
+    @Test
+    void testMetadataIsReadLocally() throws Exception {
+        Path pdf = writePdf("notes.pdf", "Some lecture notes with enough text to count.");
+        LocalPdfExtractor extractor = new LocalPdfExtractor(true, 10, 20, 0.25, 1);
+
+        JSONObject metadata = new JSONObject(extractor.extractMetadata(pdf.toString()).join().orElseThrow());
+
+        assertEquals("Biology Notes", metadata.getString("title"));
+        assertEquals("Ms. Rivera", metadata.getString("author"));
+        assertEquals(1, metadata.getInt("pageCount"));
+    }
+
+    private Path writePdf(String name, String... pageTexts) throws Exception {
+        Path path = tempDir.resolve(name);
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (String pageText : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (pageText.isEmpty()) {
+                    continue;
+                }
+                if (pageText.equals(SCANNED_PAGE)) {
+                    PDImageXObject image = LosslessFactory.createFromImage(document,
+                            new BufferedImage(200, 300, BufferedImage.TYPE_INT_RGB));
+                    try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                        content.drawImage(image, 50, 300);
+                    }
+                    continue;
+                }
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText(pageText);
+                    content.endText();
+                }
+            }
+            PDDocumentInformation info = document.getDocumentInformation();
+            info.setTitle("Biology Notes");
+            info.setAuthor("Ms. Rivera");
+            document.save(path.toFile());
+        }
+        return path;
+    }
+}
@@ -0,0 +1,38 @@
+package com.edubot.service.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfContentHasherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHashMatchesDigestOfFileBytes() throws Exception {
+        byte[] bytes = new byte[1_000_003];
+        new Random(11).nextBytes(bytes);
+        Path file = Files.write(tempDir.resolve("textbook.pdf"), bytes);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        assertEquals(expected, PdfContentHasher.sha256(file));
+    }
+
+    @Test
+    void testIdenticalFilesUnderDifferentPathsShareAHash() throws Exception {
+        Path first = Files.writeString(tempDir.resolve("a.pdf"), "%PDF-1.7 same bytes");
+        Path second = Files.writeString(tempDir.resolve("b.pdf"), "%PDF-1.7 same bytes");
+        Path empty = Files.write(tempDir.resolve("empty.pdf"), new byte[0]);
+
+        assertEquals(PdfContentHasher.sha256(first), PdfContentHasher.sha256(second));
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", PdfContentHasher.sha256(empty));
+    }
+}
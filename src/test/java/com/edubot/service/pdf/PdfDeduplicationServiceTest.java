@@ -0,0 +1,52 @@
+package com.edubot.service.pdf;
+
+import com.edubot.model.content.PDFMetadata;
+import com.edubot.repository.PDFMetadataRepository;
+import com.edubot.service.BotActivationService;
+import com.edubot.service.ai.AiPriority;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PdfDeduplicationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final PDFMetadataRepository repository = mock(PDFMetadataRepository.class);
+    private final BotActivationService botActivationService = mock(BotActivationService.class);
+    private final LocalPdfExtractor localPdfExtractor = mock(LocalPdfExtractor.class);
+
+    @Test
+    void testNewPathRecordsOnlyMetadataThePdfDeclares() throws Exception {
+        Path pdf = Files.writeString(tempDir.resolve("cells.pdf"), "%PDF-1.7 cells");
+        when(repository.findFirstByContentHashAndExtractedTextIsNotNull(anyString())).thenReturn(Optional.empty());
+        when(repository.findByFilePath(anyString())).thenReturn(Optional.empty());
+        when(botActivationService.extractText(anyString(), any())).thenReturn("Cells are the basic unit of life.");
+        when(localPdfExtractor.extractMetadata(anyString())).thenReturn(CompletableFuture.completedFuture(Optional.of(
+                new JSONObject().put("title", "Cell Biology").put("author", JSONObject.NULL).put("pageCount", 12).toString())));
+        PdfDeduplicationService service = new PdfDeduplicationService(repository, botActivationService,
+                new PdfInvertedIndex(), localPdfExtractor);
+
+        assertEquals("Cells are the basic unit of life.", service.extractText(pdf.toString(), AiPriority.BATCH));
+
+        verify(repository).save(argThat((PDFMetadata metadata) -> "Cell Biology".equals(metadata.getTitle())
+                && metadata.getAuthor() == null
+                && metadata.getPageCount() == 12
+                && metadata.getPdfModifiedDate() == null
+                && "Cells are the basic unit of life.".equals(metadata.getExtractedText())));
+    }
+}
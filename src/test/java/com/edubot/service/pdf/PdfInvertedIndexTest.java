@@ -0,0 +1,76 @@
+package com.edubot.service.pdf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfInvertedIndexTest {
+
+    private static final String TEXT = "Newton's first law describes inertia.\f"
+            + "The second law: force equals mass times acceleration. Newton's second law again.";
+
+    @Test
+    void testKeywordMatchesCarryPageAndOffset() {
+        PdfInvertedIndex index = new PdfInvertedIndex();
+        index.index("physics.pdf", 1L, TEXT);
+
+        List<PdfInvertedIndex.Match> matches = index.find("physics.pdf", "LAW");
+        assertEquals(3, matches.size());
+        assertEquals(1, matches.get(0).getPage());
+        assertEquals(TEXT.indexOf("law"), matches.get(0).getOffset());
+        assertEquals(2, matches.get(1).getPage());
+        assertEquals(11, matches.get(1).getOffset());
+    }
+
+    @Test
+    void testPhraseQueriesRequireAdjacentTerms() {
+        PdfInvertedIndex index = new PdfInvertedIndex();
+        index.index("physics.pdf", 1L, TEXT);
+
+        assertEquals(2, index.find("physics.pdf", "second law").size());
+        assertEquals(1, index.find("physics.pdf", "force equals mass").size());
+        assertEquals(0, index.find("physics.pdf", "law second").size());
+        assertEquals(0, index.find("physics.pdf", "gravity").size());
+    }
+
+    @Test
+    void testChangedVersionReplacesOldPostings() {
+        PdfInvertedIndex index = new PdfInvertedIndex();
+        assertTrue(index.index("notes.pdf", 1L, "photosynthesis in plants"));
+        assertFalse(index.index("notes.pdf", 1L, "photosynthesis in plants"));
+        assertTrue(index.isCurrent("notes.pdf", 1L));
+
+        for (long version = 2; version <= 40; version++) {
+            index.index("notes.pdf", version, "cellular respiration version " + version);
+        }
+
+        assertFalse(index.isCurrent("notes.pdf", 1L));
+        assertTrue(index.find("notes.pdf", "photosynthesis").isEmpty());
+        assertEquals(1, index.find("notes.pdf", "respiration").size());
+        assertEquals(Map.of("notes.pdf", 1), index.search("cellular respiration", 10));
+        assertTrue((Integer) index.getStats().get("tombstones") < 16);
+    }
+
+    @Test
+    void testPostingListRoundTripsLargeGaps() {
+        PostingList list = new PostingList();
+        list.add(3, new int[] {0, 5}, new int[] {0, 0}, new int[] {0, 42}, 2);
+        list.add(1_000_000, new int[] {70_000}, new int[] {900}, new int[] {3_000}, 1);
+
+        PostingList.Cursor cursor = list.cursor();
+        assertTrue(cursor.advance(1_000_000));
+        assertEquals(1_000_000, cursor.docId());
+        int[] tokens = new int[1];
+        int[] pages = new int[1];
+        int[] offsets = new int[1];
+        cursor.positions(tokens, pages, offsets);
+        assertEquals(70_000, tokens[0]);
+        assertEquals(900, pages[0]);
+        assertEquals(3_000, offsets[0]);
+        assertFalse(cursor.nextDoc());
+        assertThrows(IllegalArgumentException.class, () -> list.add(5, new int[] {0}, new int[] {0}, new int[] {0}, 1));
+    }
+}
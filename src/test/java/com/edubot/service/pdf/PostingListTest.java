@@ -0,0 +1,54 @@
+package com.edubot.service.pdf;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingListTest {
+
+    @Test
+    void testAdvanceUsesSkipEntriesAndKeepsPositions() {
+        PostingList list = new PostingList();
+        for (int doc = 0; doc < 1000; doc++) {
+            int id = doc * 3;
+            list.add(id, new int[] {id, id + 5}, new int[] {1, 2}, new int[] {id % 7, 4}, 2);
+        }
+
+        PostingList.Cursor cursor = list.cursor();
+        assertTrue(cursor.advance(1500));
+        assertEquals(1500, cursor.docId());
+        assertTrue(cursor.advance(1501));
+        assertEquals(1503, cursor.docId());
+        assertTrue(cursor.advance(1503));
+        assertEquals(1503, cursor.docId());
+
+        int[] tokens = new int[2];
+        int[] pages = new int[2];
+        int[] offsets = new int[2];
+        cursor.positions(tokens, pages, offsets);
+        assertArrayEquals(new int[] {1503, 1508}, tokens);
+        assertArrayEquals(new int[] {1, 2}, pages);
+        assertArrayEquals(new int[] {1503 % 7, 4}, offsets);
+
+        assertTrue(cursor.advance(2997));
+        assertEquals(2997, cursor.docId());
+        assertFalse(cursor.advance(2998));
+    }
+
+    @Test
+    void testEveryDocumentIsFoundFromAFreshCursor() {
+        PostingList list = new PostingList();
+        for (int id = 0; id < 300; id++) {
+            list.add(id * 2 + 1, new int[] {0}, new int[] {1}, new int[] {0}, 1);
+        }
+
+        for (int id = 0; id < 300; id++) {
+            PostingList.Cursor cursor = list.cursor();
+            assertTrue(cursor.advance(id * 2 + 1));
+            assertEquals(id * 2 + 1, cursor.docId());
+            PostingList.Cursor between = list.cursor();
+            assertTrue(between.advance(id * 2));
+            assertEquals(id * 2 + 1, between.docId());
+        }
+    }
+}
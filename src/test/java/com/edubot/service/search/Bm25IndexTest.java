@@ -0,0 +1,90 @@
+package com.edubot.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Bm25IndexTest {
+
+    private static Bm25Index newIndex() {
+        return new Bm25Index(2.0, 1.0, 1.2, 0.75);
+    }
+
+    private static List<String> keys(List<Bm25Index.Hit> hits) {
+        return hits.stream().map(Bm25Index.Hit::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    void testTitleMatchesOutrankBodyMatches() {
+        Bm25Index index = newIndex();
+        index.put("a", "Cell biology", "Notes on membranes and organelles.");
+        index.put("b", "Lab safety", "Always label cells and samples before storing them.");
+        index.put("c", "Poetry", "Sonnets and free verse.");
+
+        List<String> ranked = keys(index.search("cells", 10));
+        assertEquals(List.of("a", "b"), ranked);
+    }
+
+    @Test
+    void testEnglishAndSpanishStemming() {
+        Bm25Index index = newIndex();
+        index.put("en", "Photosynthesis", "Plants are relating light to stored energy.");
+        index.put("es", "Los verbos", "Los niños estudian las conjugaciones de los verbos en la clase.");
+
+        assertEquals(List.of("en"), keys(index.search("how does the plant relate to light", 5)));
+        assertEquals(List.of("es"), keys(index.search("¿qué es la conjugación del verbo?", 5)));
+    }
+
+    @Test
+    void testUpdatesAndRemovalsAreVisibleImmediately() {
+        Bm25Index index = newIndex();
+        index.put("a", "Fractions", "Adding fractions with unlike denominators.");
+        assertEquals(List.of("a"), keys(index.search("denominators", 5)));
+
+        index.put("a", "Fractions", "Multiplying numerators.");
+        assertTrue(index.search("denominators", 5).isEmpty());
+        assertEquals(List.of("a"), keys(index.search("numerators", 5)));
+
+        index.remove("a");
+        assertTrue(index.search("numerators", 5).isEmpty());
+        assertFalse(index.contains("a"));
+    }
+
+    @Test
+    void testTopKSkipsDocumentsThatCannotQualify() {
+        Bm25Index index = newIndex();
+        index.put("rare", "Mitochondria review", "The mitochondria produce energy.");
+        for (int i = 0; i < 500; i++) {
+            index.put("common-" + i, "Review " + i, "general review material for the exam");
+        }
+
+        List<String> ranked = keys(index.search("mitochondria review", 1));
+        assertEquals(List.of("rare"), ranked);
+        long scored = ((Number) index.getStats().get("documentsScored")).longValue();
+        assertTrue(scored < 500, "scored " + scored + " documents");
+    }
+
+    @Test
+    void testCompactionKeepsLiveDocuments() {
+        Bm25Index index = newIndex();
+        for (int i = 0; i < 40; i++) {
+            index.put("doc", "Volcano", "Magma version " + i);
+        }
+        assertEquals(List.of("doc"), keys(index.search("magma", 5)));
+        assertEquals(1, index.getStats().get("documents"));
+        assertTrue((Integer) index.getStats().get("tombstones") < 16);
+        assertEquals(1 + (Integer) index.getStats().get("tombstones"), index.getStats().get("storedDocuments"));
+    }
+
+    @Test
+    void testShortSpanishQueryMatchesSpanishStems() {
+        Bm25Index index = newIndex();
+        index.put("es", "La célula", "Las células animales tienen un núcleo y muchas mitocondrias.");
+        index.put("en", "Poetry", "Sonnets and free verse.");
+
+        assertEquals(List.of("es"), keys(index.search("células", 5)));
+    }
+}
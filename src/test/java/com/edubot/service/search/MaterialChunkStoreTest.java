@@ -0,0 +1,96 @@
+package com.edubot.service.search;
+
+import com.edubot.model.content.MaterialChunk;
+import com.edubot.repository.MaterialChunkRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MaterialChunkStoreTest {
+
+    private static final String INTRO = "Cells are the basic unit of life. Every living thing is made of cells. ";
+    private static final String MIDDLE = "The nucleus holds the genetic material of the cell. ";
+    private static final String ENDING = "Mitochondria turn nutrients into energy. Ribosomes build proteins from amino acids. "
+            + "The membrane controls what enters and leaves the cell.";
+
+    @Test
+    void testSameContentGetsSameIdsAndIsNotRewritten() {
+        MaterialChunkRepository repository = mock(MaterialChunkRepository.class);
+        MaterialChunkStore store = store(repository);
+
+        List<String> first = ids(store.index(1L, "Cells", INTRO + MIDDLE + ENDING));
+        List<String> again = ids(store.index(1L, "Cells", INTRO + MIDDLE + ENDING));
+        List<String> fresh = ids(store(mock(MaterialChunkRepository.class)).index(1L, "Cells", INTRO + MIDDLE + ENDING));
+
+        assertTrue(first.size() > 2);
+        assertEquals(first, again);
+        assertEquals(first, fresh);
+        verify(repository, times(1)).saveAll(any());
+        verify(repository, never()).deleteAllById(any());
+    }
+
+    @Test
+    void testEditRewritesOnlyChangedAndMovedChunks() {
+        MaterialChunkRepository repository = mock(MaterialChunkRepository.class);
+        MaterialChunkStore store = store(repository);
+        List<MaterialChunk> before = store.index(1L, "Cells", INTRO + MIDDLE + ENDING);
+
+        List<MaterialChunk> after = store.index(1L, "Cells",
+                INTRO + "The nucleus, wrapped in its own envelope, holds the genetic material. " + ENDING);
+
+        Set<String> beforeIds = new HashSet<>(ids(before));
+        Set<String> afterIds = new HashSet<>(ids(after));
+        Set<String> removed = beforeIds.stream().filter(id -> !afterIds.contains(id)).collect(Collectors.toSet());
+        Set<String> rewritten = after.stream()
+                .filter(chunk -> before.stream().noneMatch(old -> old.getId().equals(chunk.getId())
+                        && old.getStartOffset() == chunk.getStartOffset()
+                        && old.getEndOffset() == chunk.getEndOffset()))
+                .map(MaterialChunk::getId)
+                .collect(Collectors.toSet());
+
+        assertEquals(before.get(0).getId(), after.get(0).getId(), "the untouched intro keeps its chunk");
+        assertFalse(rewritten.contains(after.get(0).getId()));
+        assertFalse(removed.isEmpty());
+        assertTrue(rewritten.size() < after.size());
+        assertTrue(rewritten.stream().anyMatch(beforeIds::contains), "a moved passage keeps its id but is rewritten");
+        verify(repository).deleteAllById(argThat((Iterable<String> ids) -> idSet(ids).equals(removed)));
+        verify(repository).saveAll(argThat((Iterable<MaterialChunk> chunks) -> chunkIdSet(chunks).equals(rewritten)));
+    }
+
+    @Test
+    void testOverlapOfHalfAChunkIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MaterialChunkStore(
+                mock(MaterialChunkRepository.class), 100, 50, 4, 6000, 2.0, 1.0, 1.2, 0.75));
+    }
+
+    private static MaterialChunkStore store(MaterialChunkRepository repository) {
+        return new MaterialChunkStore(repository, 80, 20, 4, 6000, 2.0, 1.0, 1.2, 0.75);
+    }
+
+    private static List<String> ids(List<MaterialChunk> chunks) {
+        return chunks.stream().map(MaterialChunk::getId).collect(Collectors.toList());
+    }
+
+    private static Set<String> idSet(Iterable<String> ids) {
+        Set<String> set = new HashSet<>();
+        ids.forEach(set::add);
+        return set;
+    }
+
+    private static Set<String> chunkIdSet(Iterable<MaterialChunk> chunks) {
+        Set<String> set = new HashSet<>();
+        chunks.forEach(chunk -> set.add(chunk.getId()));
+        return set;
+    }
+}